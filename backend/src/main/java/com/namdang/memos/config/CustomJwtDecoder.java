@@ -1,78 +1,122 @@
 package com.namdang.memos.config;
 
-import com.namdang.memos.repository.InvalidatedTokenRepository;
+import com.namdang.memos.security.TokenRevocationIndex;
+import com.namdang.memos.security.VerifiedTokenCache;
 import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
 
 import lombok.experimental.FieldDefaults;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.MappedJwtClaimSetConverter;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.spec.SecretKeySpec;
 import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
 import java.util.Date;
-import java.util.Objects;
+import java.util.Map;
 
-@RequiredArgsConstructor
-@FieldDefaults(level = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Component
 public class CustomJwtDecoder implements JwtDecoder {
-    final InvalidatedTokenRepository invalidatedTokenRepository;
-    NimbusJwtDecoder nimbusJwtDecoder = null;
+    TokenRevocationIndex tokenRevocationIndex;
+    VerifiedTokenCache verifiedTokenCache;
+    // MACVerifier only holds the secret, safe to share between request threads
+    JWSVerifier verifier;
+    // same claim conversion NimbusJwtDecoder does (exp, iat, nbf --> Instant, ...)
+    Converter<Map<String, Object>, Map<String, Object>> claimSetConverter =
+            MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
+    // tolerance on nbf only (a node whose clock is a bit behind the issuer's), exp stays strict
+    Duration clockSkew;
 
-    @Value("${JWT_SIGNER_KEY_BASE64}")
-    String signerKey;
+    public CustomJwtDecoder(
+            TokenRevocationIndex tokenRevocationIndex,
+            VerifiedTokenCache verifiedTokenCache,
+            @Value("${JWT_SIGNER_KEY_BASE64}") String signerKey,
+            @Value("${jwt.clock-skew-seconds:60}") long clockSkewSeconds) {
+        this.tokenRevocationIndex = tokenRevocationIndex;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.clockSkew = Duration.ofSeconds(clockSkewSeconds);
+        try {
+            this.verifier = new MACVerifier(signerKey.getBytes());
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Invalid JWT signer key", e);
+        }
+    }
 
-    // After token in header pass through AuthenticationManager --> it will decode by nimbus
-    // Nimbus return an object of JWT (Remember: JWT not Token)
+    // After token in header pass through AuthenticationManager --> it will be decoded here
+    // We return an object of JWT (Remember: JWT not Token)
     // JWT have:
     // getTokenValue --> raw JWT
     // getClaims --> Scope, sub, exp,...
     // getHeader --> header of jwt
     // get Issued, getExpired,...
+    // Token is parsed once and verified once, all checks run on the parsed claims
     @Override
     public Jwt decode(String token) throws JwtException {
+        Jwt cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            // signature, exp and nbf were checked when it was cached (the entry never outlives exp), revocation can change any time
+            if (tokenRevocationIndex.isRevoked(cached.getId())) {
+                verifiedTokenCache.evict(token);
+                throw new JwtException("Token has been invalidated");
+            }
+            return cached;
+        }
         try {
-            validateTokenDirectly(token);
+            SignedJWT signedJWT = SignedJWT.parse(token);
+            Jwt jwt = toJwt(token, signedJWT, verify(signedJWT));
+            validate(jwt);
+            verifiedTokenCache.put(token, jwt);
+            return jwt;
         } catch (JOSEException | ParseException e) {
             throw new JwtException(e.getMessage());
         }
-        if (Objects.isNull(nimbusJwtDecoder)) {
-            SecretKeySpec secretKeySpec = new SecretKeySpec(signerKey.getBytes(), "HS512");
-            nimbusJwtDecoder = NimbusJwtDecoder
-                    .withSecretKey(secretKeySpec)
-                    .macAlgorithm(MacAlgorithm.HS512)
-                    .build();
-        }
-        return nimbusJwtDecoder.decode(token);
     }
 
-    private void validateTokenDirectly(String token) throws JOSEException, ParseException, JOSEException {
-        JWSVerifier verifier = new MACVerifier(signerKey.getBytes());
-
-        SignedJWT signedJWT = SignedJWT.parse(token);
+    // signature and algorithm, our tokens always carry exp and are refused from exp on
+    private JWTClaimsSet verify(SignedJWT signedJWT) throws JOSEException, ParseException {
+        if (!JWSAlgorithm.HS512.equals(signedJWT.getHeader().getAlgorithm())
+                || !signedJWT.verify(verifier)) {
+            throw new JwtException("Token is invalid or expired");
+        }
 
-        String jwtId = signedJWT.getJWTClaimsSet().getJWTID();
-        if (invalidatedTokenRepository.existsById(jwtId)) {
-            throw new JwtException("Token has been invalidated");
+        JWTClaimsSet claimsSet = signedJWT.getJWTClaimsSet();
+        Date expirationTime = claimsSet.getExpirationTime();
+        if (expirationTime == null || !expirationTime.after(new Date())) {
+            throw new JwtException("Token is invalid or expired");
         }
+        return claimsSet;
+    }
 
-        boolean isSignatureValid = signedJWT.verify(verifier);
-        Date expirationTime = signedJWT.getJWTClaimsSet().getExpirationTime();
-        boolean isNotExpired = expirationTime.after(new Date());
+    private void validate(Jwt jwt) {
+        Instant notBefore = jwt.getNotBefore();
+        if (notBefore != null && Instant.now().plus(clockSkew).isBefore(notBefore)) {
+            throw new JwtException("Token is not valid yet");
+        }
 
-        if (!isSignatureValid || !isNotExpired) {
-            throw new JwtException("Token is invalid or expired");
+        // db is only asked when the revocation filter has a hit
+        if (tokenRevocationIndex.isRevoked(jwt.getId())) {
+            throw new JwtException("Token has been invalidated");
         }
     }
 
+    private Jwt toJwt(String token, SignedJWT signedJWT, JWTClaimsSet claimsSet) {
+        Map<String, Object> claims = claimSetConverter.convert(claimsSet.getClaims());
+        return Jwt.withTokenValue(token)
+                .headers(headers -> headers.putAll(signedJWT.getHeader().toJSONObject()))
+                .claims(c -> c.putAll(claims))
+                .build();
+    }
+
 }
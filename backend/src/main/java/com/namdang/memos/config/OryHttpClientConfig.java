@@ -1,13 +1,88 @@
 package com.namdang.memos.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+// HTTP client for Ory (/sessions/whoami during /auth/oidc/ory)
+// every wait is bounded: connect, lease from the pool, response --> a slow Ory fails the login instead of pinning threads
+// HTTP_1_1 (default): Apache HttpClient 5, keep-alive pool, gauges httpcomponents.httpclient.pool.* {httpclient=ory}
+// HTTP_2: JDK HttpClient, requests multiplexed on one connection per host, nothing to pool
+// whoami latency: http.client.requests {uri=/sessions/whoami} from the RestTemplateBuilder observation
 @Configuration
 public class OryHttpClientConfig {
+    static final String METRICS_NAME = "ory";
+
+    @Bean
+    public ClientHttpRequestFactory oryRequestFactory(
+            MeterRegistry meterRegistry,
+            @Value("${ory.http.version:HTTP_1_1}") HttpClient.Version version,
+            @Value("${ory.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${ory.http.read-timeout:5s}") Duration readTimeout,
+            @Value("${ory.http.pool-acquire-timeout:1s}") Duration poolAcquireTimeout,
+            @Value("${ory.http.max-connections:50}") int maxConnections,
+            @Value("${ory.http.max-connections-per-route:20}") int maxConnectionsPerRoute,
+            @Value("${ory.http.connection-ttl:5m}") Duration connectionTtl,
+            @Value("${ory.http.idle-timeout:30s}") Duration idleTimeout) {
+        if (version == HttpClient.Version.HTTP_2) {
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(connectTimeout)
+                    .build());
+            requestFactory.setReadTimeout(readTimeout);
+            return requestFactory;
+        }
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        // re-created now and then so DNS / load balancer changes are picked up
+                        .setTimeToLive(TimeValue.of(connectionTtl))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, METRICS_NAME).bindTo(meterRegistry);
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolAcquireTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                // cookies are per user (whoami), never keep them in a shared store
+                .disableCookieManagement()
+                .build();
+        // DisposableBean: closes the pool on shutdown
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder, ClientHttpRequestFactory oryRequestFactory) {
+        return restTemplateBuilder
+                .requestFactory(() -> oryRequestFactory)
+                .build();
     }
 }
@@ -0,0 +1,66 @@
+package com.namdang.memos.controller;
+
+import com.namdang.memos.dto.requests.task.MoveTasksRequest;
+import com.namdang.memos.dto.responses.ApiResponse;
+import com.namdang.memos.dto.responses.task.TaskMoveResponse;
+import com.namdang.memos.service.BoardService;
+import com.namdang.memos.service.TaskService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BoardController {
+    // same envelope as ApiResponse (code 1000), the snapshot JSON is written inside it as is
+    static final String RESULT_PREFIX = "{\"code\":1000,\"result\":";
+    static final String RESULT_SUFFIX = "}";
+
+    BoardService boardService;
+    TaskService taskService;
+
+    // whole board in one response: features by position, their tasks by position, assignee / label ids
+    // document is written straight from the db, no Jackson round trip
+    @GetMapping("/board/{id}/snapshot")
+    @PreAuthorize("@projectPermission.canViewAndUpdateBoard(#id, authentication)")
+    public void getBoardSnapshot(@PathVariable UUID id, HttpServletResponse response) throws IOException {
+        // throws BOARD_NOT_FOUND before anything is written, so the usual error body can still be rendered
+        String snapshot = boardService.getSnapshotJson(id);
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer writer = response.getWriter();
+        writer.write(RESULT_PREFIX);
+        writer.write(snapshot);
+        writer.write(RESULT_SUFFIX);
+        writer.flush();
+    }
+
+    // several cards at once (multi-select drag, column sort), all or nothing
+    @PostMapping("/board/{id}/tasks/move")
+    @PreAuthorize("@projectPermission.canViewAndUpdateBoard(#id, authentication)")
+    public ApiResponse<List<TaskMoveResponse>> moveTasks(
+            @PathVariable UUID id,
+            @RequestBody MoveTasksRequest request,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        String email = jwt.getSubject();
+        List<TaskMoveResponse> response = taskService.moveTasks(id, request, email);
+        return ApiResponse.<List<TaskMoveResponse>>builder()
+                .result(response)
+                .build();
+    }
+}
@@ -1,7 +1,9 @@
 package com.namdang.memos.controller;
 
+import com.namdang.memos.dto.requests.invite.BulkProjectInviteRequest;
 import com.namdang.memos.dto.requests.invite.ProjectInviteRequest;
 import com.namdang.memos.dto.responses.ApiResponse;
+import com.namdang.memos.dto.responses.invite.BulkInviteResponse;
 import com.namdang.memos.dto.responses.invite.InviteInfoResponse;
 import com.namdang.memos.dto.responses.project.ProjectMemberResponse;
 import com.namdang.memos.repository.AccountRepository;
@@ -40,6 +42,21 @@ public class InviteController {
                 .build();
     }
 
+    @PostMapping("/invite/project/{id}/bulk")
+    @PreAuthorize("@projectPermission.canInviteToProject(#id, authentication)")
+    public ApiResponse<BulkInviteResponse> createInvites(
+            @PathVariable UUID id,
+            @RequestBody BulkProjectInviteRequest request,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        String email = jwt.getSubject();
+        BulkInviteResponse response = inviteService.createInvites(request, email, id);
+
+        return ApiResponse.<BulkInviteResponse>builder()
+                .result(response)
+                .build();
+    }
+
     @GetMapping("/invite/info/{id}")
     public ApiResponse<InviteInfoResponse> getInviteInfo(
             @PathVariable String id
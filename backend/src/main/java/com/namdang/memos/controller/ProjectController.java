@@ -3,6 +3,7 @@ package com.namdang.memos.controller;
 import com.namdang.memos.dto.requests.project.CreateProjectRequest;
 import com.namdang.memos.dto.responses.ApiResponse;
 import com.namdang.memos.dto.responses.project.CreateProjectResponse;
+import com.namdang.memos.dto.responses.project.ProjectPageResponse;
 import com.namdang.memos.service.ProjectService;
 
 import lombok.AccessLevel;
@@ -17,7 +18,6 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -42,11 +42,16 @@ public class ProjectController {
         return ApiResponse.<CreateProjectResponse>builder().result(response).build();
     }
 
+    // keyset pagination: pass nextCursor of the previous page as cursor, no cursor --> first page
     @GetMapping("/projects")
-    public ApiResponse<List<CreateProjectResponse>> getProjects(@AuthenticationPrincipal Jwt jwt) {
+    public ApiResponse<ProjectPageResponse> getProjects(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String name) {
         String email = jwt.getSubject();
-        List<CreateProjectResponse> response = projectService.getProjects(email);
-        return ApiResponse.<List<CreateProjectResponse>>builder().result(response).build();
+        ProjectPageResponse response = projectService.getProjects(email, cursor, size, name);
+        return ApiResponse.<ProjectPageResponse>builder().result(response).build();
     }
 
     @PutMapping("/project/{id}")
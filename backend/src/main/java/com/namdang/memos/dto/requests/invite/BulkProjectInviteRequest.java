@@ -0,0 +1,15 @@
+package com.namdang.memos.dto.requests.invite;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkProjectInviteRequest {
+  List<String> targetUserEmails;
+}
@@ -0,0 +1,33 @@
+package com.namdang.memos.dto.requests.project;
+
+import com.namdang.memos.exception.AppException;
+import com.namdang.memos.exception.ErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+// Keyset position in the project list (sorted by created_at desc, id desc)
+// Sent to the client as an opaque base64url string: "<createdAt>|<id>"
+public record ProjectCursor(LocalDateTime createdAt, UUID id) {
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // null / blank --> first page
+    public static ProjectCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            return new ProjectCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            throw new AppException(ErrorCode.INVALID_PAGE_CURSOR);
+        }
+    }
+}
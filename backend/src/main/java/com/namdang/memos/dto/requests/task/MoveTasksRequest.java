@@ -0,0 +1,16 @@
+package com.namdang.memos.dto.requests.task;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class MoveTasksRequest {
+    // applied in order, later moves see the result of earlier ones (previousTaskId may be a task moved before)
+    List<TaskMoveRequest> moves;
+}
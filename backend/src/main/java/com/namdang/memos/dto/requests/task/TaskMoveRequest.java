@@ -0,0 +1,22 @@
+package com.namdang.memos.dto.requests.task;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TaskMoveRequest {
+    UUID taskId;
+    UUID toFeatureId;
+    // task the moved one lands right after, null --> top of the feature
+    UUID previousTaskId;
+    // task version the client last saw (board snapshot / previous move response)
+    Long version;
+    // true --> mark completed, false --> reopen, null --> unchanged
+    Boolean completed;
+}
@@ -0,0 +1,17 @@
+package com.namdang.memos.dto.responses.invite;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkInviteResponse {
+    int invitedCount;
+    // one entry per requested email, in request order
+    List<BulkInviteResult> results;
+}
@@ -0,0 +1,18 @@
+package com.namdang.memos.dto.responses.invite;
+
+import com.namdang.memos.dto.responses.project.ProjectMemberResponse;
+import com.namdang.memos.enumType.BulkInviteStatus;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkInviteResult {
+    String email;
+    BulkInviteStatus status;
+    // only set when status is INVITED
+    ProjectMemberResponse member;
+}
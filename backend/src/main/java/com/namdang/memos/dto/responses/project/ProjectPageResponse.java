@@ -0,0 +1,17 @@
+package com.namdang.memos.dto.responses.project;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ProjectPageResponse {
+    List<CreateProjectResponse> items;
+    // null --> last page
+    String nextCursor;
+}
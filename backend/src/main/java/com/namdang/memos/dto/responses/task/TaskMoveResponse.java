@@ -0,0 +1,22 @@
+package com.namdang.memos.dto.responses.task;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TaskMoveResponse {
+    UUID taskId;
+    UUID featureId;
+    BigDecimal position;
+    // version to send with the next move of this task
+    long version;
+    LocalDateTime completedAt;
+}
@@ -36,6 +36,10 @@ public class Account extends BaseEntity{
     @Column(name = "is_active", nullable = false)
     private boolean active = true;
 
+    // incremented on every project membership change of this account (see MembershipVersions)
+    @Column(name = "membership_version", nullable = false)
+    private long membershipVersion;
+
     @ToString.Exclude
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
@@ -44,6 +44,10 @@ public class Feature extends BaseEntity {
     @Column(name = "wip_limit")
     private Integer wipLimit;
 
+    // maintained by the trg_task_active_count trigger (V12), never written from here
+    @Column(name = "active_task_count", nullable = false, insertable = false, updatable = false)
+    private int activeTaskCount;
+
     @Column(name = "is_archived", nullable = false)
     private boolean archived = false;
 }
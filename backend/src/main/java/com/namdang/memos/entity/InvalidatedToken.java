@@ -1,5 +1,6 @@
 package com.namdang.memos.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 
@@ -16,4 +17,8 @@ import java.util.Date;
 public class InvalidatedToken {
     @Id private String id;
     private Date expiryTime;
+
+    // set by the database (default now()), read by TokenRevocationIndex.sync
+    @Column(insertable = false, updatable = false)
+    private Date revokedAt;
 }
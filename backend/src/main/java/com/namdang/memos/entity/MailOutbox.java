@@ -0,0 +1,52 @@
+package com.namdang.memos.entity;
+
+import com.namdang.memos.enumType.MailType;
+import com.namdang.memos.enumType.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Entity
+@Getter
+@Setter
+@ToString
+@DynamicUpdate
+@Table(name = "mail_outbox")
+public class MailOutbox extends BaseEntity {
+    @Enumerated(EnumType.STRING)
+    @Column(name = "mail_type", nullable = false, length = 50)
+    private MailType mailType;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    // template variables of the mail, ex: projectName, inviterName, inviteToken
+    @ToString.Exclude
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private Map<String, String> payload = new HashMap<>();
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+}
@@ -0,0 +1,31 @@
+package com.namdang.memos.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// last applied version of a seed descriptor, see DescriptorSeeder
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "seed_history")
+public class SeedHistory {
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+}
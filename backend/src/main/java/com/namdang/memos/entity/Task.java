@@ -67,4 +67,9 @@ public class Task extends BaseEntity {
 
     @Column(name = "is_archived", nullable = false)
     private boolean archived = false;
+
+    // bumped by every move, stale moves are rejected (see TaskServiceImpl.moveTasks)
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
 }
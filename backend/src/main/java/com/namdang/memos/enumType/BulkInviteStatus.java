@@ -0,0 +1,9 @@
+package com.namdang.memos.enumType;
+
+public enum BulkInviteStatus {
+    INVITED,
+    ALREADY_MEMBER,
+    ALREADY_INVITED,
+    INVALID_EMAIL,
+    DUPLICATE
+}
@@ -0,0 +1,5 @@
+package com.namdang.memos.enumType;
+
+public enum MailType {
+    PROJECT_INVITE,
+}
@@ -0,0 +1,7 @@
+package com.namdang.memos.enumType;
+
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    FAILED,
+}
@@ -0,0 +1,33 @@
+package com.namdang.memos.event;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+// published when a project_member row is created/changed or the project itself is archived
+// accountIds empty --> every membership of the project is affected
+public record ProjectMembershipChangedEvent(UUID projectId, Set<UUID> accountIds) {
+    public ProjectMembershipChangedEvent {
+        accountIds = Set.copyOf(accountIds);
+    }
+
+    public ProjectMembershipChangedEvent(UUID projectId, UUID accountId) {
+        this(projectId, Set.of(accountId));
+    }
+
+    public static ProjectMembershipChangedEvent ofProject(UUID projectId) {
+        return new ProjectMembershipChangedEvent(projectId, Set.of());
+    }
+
+    // several accounts of one project at once (ex: bulk invite), one event instead of one per account
+    public static ProjectMembershipChangedEvent ofAccounts(UUID projectId, Collection<UUID> accountIds) {
+        if (accountIds.isEmpty()) {
+            throw new IllegalArgumentException("No account, use ofProject() for the whole project");
+        }
+        return new ProjectMembershipChangedEvent(projectId, Set.copyOf(accountIds));
+    }
+
+    public boolean wholeProject() {
+        return accountIds.isEmpty();
+    }
+}
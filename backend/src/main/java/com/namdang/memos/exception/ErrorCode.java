@@ -28,6 +28,17 @@ public enum ErrorCode {
     INVITATION_IS_EXPIRED(1019, "Invite is expired", HttpStatus.BAD_REQUEST),
     INVALID_INVITATION(1020, "Invitation is not pending", HttpStatus.BAD_REQUEST),
     INVALID_INVITE_EMAIL(1021, "Invalid invite email", HttpStatus.BAD_REQUEST),
+    INVALID_PAGE_CURSOR(1022, "Invalid page cursor", HttpStatus.BAD_REQUEST),
+    BULK_INVITE_TOO_LARGE(1023, "Too many emails in one invite request", HttpStatus.BAD_REQUEST),
+    ORY_UNAVAILABLE(1024, "Identity provider is unavailable", HttpStatus.SERVICE_UNAVAILABLE),
+    PASSWORD_HASHING_BUSY(1025, "Too many sign-in attempts, please retry shortly", HttpStatus.TOO_MANY_REQUESTS),
+    BOARD_NOT_FOUND(1026, "Board not found", HttpStatus.BAD_REQUEST),
+    FEATURE_NOT_FOUND(1027, "Feature not found", HttpStatus.BAD_REQUEST),
+    TASK_NOT_FOUND(1028, "Task not found", HttpStatus.BAD_REQUEST),
+    TASK_MOVE_BATCH_TOO_LARGE(1029, "Too many task moves in one request", HttpStatus.BAD_REQUEST),
+    INVALID_TASK_MOVE(1030, "Invalid task move", HttpStatus.BAD_REQUEST),
+    TASK_VERSION_CONFLICT(1031, "Task was changed by someone else, please reload the board", HttpStatus.CONFLICT),
+    WIP_LIMIT_EXCEEDED(1032, "This column has reached its WIP limit", HttpStatus.CONFLICT),
     ;
 
     private final int code;
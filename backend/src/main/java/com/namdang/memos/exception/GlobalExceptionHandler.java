@@ -2,7 +2,9 @@ package com.namdang.memos.exception;
 
 import com.namdang.memos.dto.responses.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionSystemException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.security.access.AccessDeniedException;
@@ -34,6 +36,28 @@ public class GlobalExceptionHandler {
         return buildResponse(ErrorCode.FORBIDDEN_ACTION);
     }
 
+    // business rules enforced in the database (ex: WIP limit trigger), anything else is unexpected
+    @ExceptionHandler(DataAccessException.class)
+    public ResponseEntity<ApiResponse<?>> handleDataAccess(DataAccessException ex) {
+        return SqlStateErrors.errorCode(ex)
+                .map(errorCode -> {
+                    log.warn("Rejected by database: {}", errorCode);
+                    return buildResponse(errorCode);
+                })
+                .orElseGet(() -> handleUnexpectedError(ex));
+    }
+
+    // deferred checks (ex: WIP limit, V14) that only ran at commit
+    @ExceptionHandler(TransactionSystemException.class)
+    public ResponseEntity<ApiResponse<?>> handleCommitFailure(TransactionSystemException ex) {
+        return SqlStateErrors.errorCode(ex)
+                .map(errorCode -> {
+                    log.warn("Rejected by database at commit: {}", errorCode);
+                    return buildResponse(errorCode);
+                })
+                .orElseGet(() -> handleUnexpectedError(ex));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<?>> handleUnexpectedError(Exception ex) {
         log.error("Unexpected error:", ex);
@@ -0,0 +1,33 @@
+package com.namdang.memos.exception;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Optional;
+
+// Errors raised on purpose by the database (RAISE ... USING ERRCODE in a trigger / function)
+// looked up by SQLSTATE anywhere in the cause chain: JDBC batches wrap them in a BatchUpdateException,
+// JPA flushes in Hibernate exceptions
+public final class SqlStateErrors {
+    // V14 trg_feature_wip_limit
+    public static final String WIP_LIMIT_EXCEEDED = "MW001";
+
+    private static final Map<String, ErrorCode> ERROR_CODES = Map.of(
+            WIP_LIMIT_EXCEEDED, ErrorCode.WIP_LIMIT_EXCEEDED);
+
+    private SqlStateErrors() {
+    }
+
+    public static Optional<ErrorCode> errorCode(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql) {
+                for (SQLException next = sql; next != null; next = next.getNextException()) {
+                    ErrorCode code = next.getSQLState() == null ? null : ERROR_CODES.get(next.getSQLState());
+                    if (code != null) {
+                        return Optional.of(code);
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
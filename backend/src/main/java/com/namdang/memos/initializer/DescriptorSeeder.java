@@ -0,0 +1,185 @@
+package com.namdang.memos.initializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.namdang.memos.entity.Account;
+import com.namdang.memos.entity.Permission;
+import com.namdang.memos.entity.Role;
+import com.namdang.memos.entity.SeedHistory;
+import com.namdang.memos.enumType.AuthProvider;
+import com.namdang.memos.initializer.SeedDescriptor.AccountSeed;
+import com.namdang.memos.initializer.SeedDescriptor.PermissionSeed;
+import com.namdang.memos.initializer.SeedDescriptor.RoleSeed;
+import com.namdang.memos.repository.AccountRepository;
+import com.namdang.memos.repository.PermissionRepository;
+import com.namdang.memos.repository.RoleRepository;
+import com.namdang.memos.repository.SeedHistoryRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Applies one seed descriptor, idempotent
+// sha-256 of the file equal to seed_history.content_hash --> skipped before anything else is read
+// otherwise: one set query per kind (permission / role / account), inserts and grants written with saveAll
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class DescriptorSeeder {
+    SeedHistoryRepository seedHistoryRepository;
+    PermissionRepository permissionRepository;
+    RoleRepository roleRepository;
+    AccountRepository accountRepository;
+    PasswordEncoder passwordEncoder;
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    // true --> descriptor was (re)applied
+    @Transactional
+    public boolean seed(String name, byte[] content) throws IOException {
+        String contentHash = sha256(content);
+        Optional<SeedHistory> history = seedHistoryRepository.findById(name);
+        if (history.isPresent() && contentHash.equals(history.get().getContentHash())) {
+            log.debug("Seed {} unchanged, skipped", name);
+            return false;
+        }
+
+        apply(name, objectMapper.readValue(content, SeedDescriptor.class));
+
+        SeedHistory record = history.orElseGet(() -> new SeedHistory(name, null, null));
+        record.setContentHash(contentHash);
+        record.setAppliedAt(LocalDateTime.now());
+        seedHistoryRepository.save(record);
+        log.info("Seed {} applied", name);
+        return true;
+    }
+
+    void apply(String seedName, SeedDescriptor descriptor) {
+        Map<String, Permission> permissions = seedPermissions(descriptor);
+        Map<String, Role> roles = seedRoles(seedName, descriptor, permissions);
+        seedAccounts(seedName, descriptor, roles);
+    }
+
+    private Map<String, Permission> seedPermissions(SeedDescriptor descriptor) {
+        Set<String> names = Stream.concat(
+                        descriptor.permissions().stream().map(PermissionSeed::name),
+                        descriptor.roles().stream().flatMap(role -> role.permissions().stream()))
+                .collect(Collectors.toSet());
+        if (names.isEmpty()) {
+            return new HashMap<>();
+        }
+        Map<String, Permission> permissions = byName(permissionRepository.findByNameIn(names), Permission::getName);
+
+        List<Permission> created = new ArrayList<>();
+        for (PermissionSeed seed : descriptor.permissions()) {
+            if (!permissions.containsKey(seed.name())) {
+                Permission permission = new Permission();
+                permission.setName(seed.name());
+                permission.setDescription(seed.description());
+                permissions.put(seed.name(), permission);
+                created.add(permission);
+            }
+        }
+        permissionRepository.saveAll(created);
+        return permissions;
+    }
+
+    private Map<String, Role> seedRoles(String seedName, SeedDescriptor descriptor, Map<String, Permission> permissions) {
+        Set<String> names = Stream.concat(
+                        descriptor.roles().stream().map(RoleSeed::name),
+                        descriptor.accounts().stream().flatMap(account -> account.roles().stream()))
+                .collect(Collectors.toSet());
+        if (names.isEmpty()) {
+            return new HashMap<>();
+        }
+        Map<String, Role> roles = byName(roleRepository.findByNameInWithPermissions(names), Role::getName);
+
+        List<Role> changed = new ArrayList<>();
+        for (RoleSeed seed : descriptor.roles()) {
+            Role role = roles.get(seed.name());
+            boolean dirty = false;
+            if (role == null) {
+                role = new Role();
+                role.setName(seed.name());
+                role.setDescription(seed.description());
+                role.setPermissions(new HashSet<>());
+                roles.put(seed.name(), role);
+                dirty = true;
+            }
+            for (String permissionName : seed.permissions()) {
+                Permission permission = permissions.get(permissionName);
+                if (permission == null) {
+                    throw new IllegalStateException(
+                            "Seed " + seedName + ": role " + seed.name() + " grants unknown permission " + permissionName);
+                }
+                dirty |= role.getPermissions().add(permission);
+            }
+            if (dirty) {
+                changed.add(role);
+            }
+        }
+        roleRepository.saveAll(changed);
+        return roles;
+    }
+
+    private void seedAccounts(String seedName, SeedDescriptor descriptor, Map<String, Role> roles) {
+        if (descriptor.accounts().isEmpty()) {
+            return;
+        }
+        Set<String> existing = accountRepository.findByEmailIn(
+                        descriptor.accounts().stream().map(AccountSeed::email).toList())
+                .stream()
+                .map(Account::getEmail)
+                .collect(Collectors.toSet());
+
+        List<Account> created = new ArrayList<>();
+        for (AccountSeed seed : descriptor.accounts()) {
+            if (existing.contains(seed.email())) {
+                continue;
+            }
+            Account account = new Account();
+            account.setEmail(seed.email());
+            account.setName(seed.name());
+            account.setActive(true);
+            account.setProvider(AuthProvider.LOCAL);
+            if (seed.password() != null && !seed.password().isBlank()) {
+                account.setPassword(passwordEncoder.encode(seed.password()));
+            }
+            for (String roleName : seed.roles()) {
+                Role role = roles.get(roleName);
+                if (role == null) {
+                    throw new IllegalStateException(
+                            "Seed " + seedName + ": account " + seed.email() + " has unknown role " + roleName);
+                }
+                account.getRoles().add(role);
+            }
+            created.add(account);
+        }
+        accountRepository.saveAll(created);
+    }
+
+    private static <T> Map<String, T> byName(Collection<T> rows, Function<T, String> name) {
+        Map<String, T> byName = new HashMap<>();
+        rows.forEach(row -> byName.put(name.apply(row), row));
+        return byName;
+    }
+
+    static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.namdang.memos.initializer;
+
+import java.util.List;
+
+// Declarative seed (resources seed/<name>.json), applied by DescriptorSeeder
+// Everything is "ensure present": missing rows are inserted, grants are added,
+// nothing is deleted and existing accounts are never touched (removals belong to a Flyway migration)
+public record SeedDescriptor(
+        List<PermissionSeed> permissions,
+        List<RoleSeed> roles,
+        List<AccountSeed> accounts) {
+
+    public SeedDescriptor {
+        permissions = permissions == null ? List.of() : permissions;
+        roles = roles == null ? List.of() : roles;
+        accounts = accounts == null ? List.of() : accounts;
+    }
+
+    public record PermissionSeed(String name, String description) {
+    }
+
+    // permissions: names, declared in this descriptor or already in the db
+    public record RoleSeed(String name, String description, List<String> permissions) {
+        public RoleSeed {
+            permissions = permissions == null ? List.of() : permissions;
+        }
+    }
+
+    // password is optional (local demo login), roles default to MEMBER
+    public record AccountSeed(String email, String name, String password, List<String> roles) {
+        public AccountSeed {
+            roles = roles == null || roles.isEmpty() ? List.of("MEMBER") : roles;
+        }
+    }
+}
@@ -5,23 +5,36 @@ import com.namdang.memos.entity.Role;
 import com.namdang.memos.enumType.AuthProvider;
 import com.namdang.memos.repository.AccountRepository;
 import com.namdang.memos.repository.RoleRepository;
-import jakarta.transaction.Transactional;
+import com.namdang.memos.security.AuthorityGraph;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+// Runs on every boot / rolling restart, so every step is a no-op when nothing changed:
+// admin account --> password checked with matches() first, at most one save
+// seed descriptors (memos.seed.descriptors) --> skipped when their content hash is already in seed_history
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class StartupSeeder implements ApplicationRunner {
+    static final String DESCRIPTOR_LOCATION = "seed/%s.json";
 
     private final RoleRepository roleRepository;
     private final AccountRepository accountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final DescriptorSeeder descriptorSeeder;
+    private final AuthorityGraph authorityGraph;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${ADMIN_EMAIL:}")
     private String adminEmail;
@@ -29,13 +42,16 @@ public class StartupSeeder implements ApplicationRunner {
     @Value("${ADMIN_PASSWORD:}")
     private String adminPassword;
 
+    @Value("${memos.seed.descriptors:}")
+    private List<String> descriptors;
+
     @Override
-    @Transactional
-    public void run(ApplicationArguments args) {
-        seedAdminAccount();
+    public void run(ApplicationArguments args) throws IOException {
+        transactionTemplate.executeWithoutResult(status -> seedAdminAccount());
+        seedDescriptors();
     }
 
-    private void seedAdminAccount() {
+    void seedAdminAccount() {
         if (adminEmail == null || adminEmail.isBlank() || adminPassword == null || adminPassword.isBlank()) {
             log.info("ADMIN_EMAIL or ADMIN_PASSWORD not set — skipping admin creation");
             return;
@@ -49,6 +65,7 @@ public class StartupSeeder implements ApplicationRunner {
         }
 
         Account admin = accountRepository.findByEmail(adminEmail).orElse(null);
+        boolean changed = false;
 
         if (admin == null) {
             admin = new Account();
@@ -57,18 +74,53 @@ public class StartupSeeder implements ApplicationRunner {
             admin.setActive(true);
             admin.setProvider(AuthProvider.LOCAL);
             admin.setPassword(passwordEncoder.encode(adminPassword));
-            accountRepository.save(admin);
+            changed = true;
             log.info("Admin account created: {}", adminEmail);
-        } else {
+        } else if (admin.getPassword() == null
+                || !passwordEncoder.matches(adminPassword, admin.getPassword())) {
             admin.setPassword(passwordEncoder.encode(adminPassword));
-            accountRepository.save(admin);
+            changed = true;
             log.info("Admin account updated (password reset): {}", adminEmail);
+        } else if (passwordEncoder.upgradeEncoding(admin.getPassword())) {
+            admin.setPassword(passwordEncoder.encode(adminPassword));
+            changed = true;
+            log.info("Admin password re-encoded with the current algorithm: {}", adminEmail);
         }
 
-        if (admin.getRoles() == null || admin.getRoles().stream().noneMatch(r -> "ADMIN".equals(r.getName()))) {
+        if (admin.getRoles().stream().noneMatch(r -> "ADMIN".equals(r.getName()))) {
             admin.getRoles().add(adminRole);
-            accountRepository.save(admin);
+            changed = true;
             log.info("Assigned ADMIN role to {}", adminEmail);
         }
+
+        if (changed) {
+            accountRepository.save(admin);
+        } else {
+            log.debug("Admin account up to date: {}", adminEmail);
+        }
+    }
+
+    void seedDescriptors() throws IOException {
+        if (descriptors == null) {
+            return;
+        }
+        boolean applied = false;
+        for (String name : descriptors) {
+            if (name.isBlank()) {
+                continue;
+            }
+            ClassPathResource resource = new ClassPathResource(DESCRIPTOR_LOCATION.formatted(name.trim()));
+            if (!resource.exists()) {
+                log.warn("Seed descriptor {} not found, skipped", resource.getPath());
+                continue;
+            }
+            try (InputStream in = resource.getInputStream()) {
+                applied |= descriptorSeeder.seed(name.trim(), in.readAllBytes());
+            }
+        }
+        // roles / grants may have changed
+        if (applied) {
+            authorityGraph.refresh();
+        }
     }
 }
@@ -8,12 +8,14 @@ import org.mapstruct.*;
 
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.WARN)
 public interface AccountMapper {
+    @Mapping(target = "membershipVersion", ignore = true)
     Account toAccount(AccountCreationRequest request);
     AccountResponse toAccountResponse(Account account);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "password", ignore = true)
     @Mapping(target = "roles", ignore = true)
+    @Mapping(target = "membershipVersion", ignore = true)
     void updateFromDto(AccountUpdateRequest request, @MappingTarget Account account);
 }
 
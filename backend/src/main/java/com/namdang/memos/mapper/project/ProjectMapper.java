@@ -3,6 +3,7 @@ package com.namdang.memos.mapper.project;
 import com.namdang.memos.dto.requests.project.CreateProjectRequest;
 import com.namdang.memos.dto.responses.project.CreateProjectResponse;
 import com.namdang.memos.entity.Project;
+import com.namdang.memos.repository.projection.MemberProjectView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
@@ -17,4 +18,6 @@ public interface ProjectMapper {
 
     @Mapping(source = "createdBy.id", target = "createdById")
     CreateProjectResponse mapToCreateProjectResponse(Project project);
+
+    CreateProjectResponse mapMemberProjectToCreateProjectResponse(MemberProjectView memberProjectView);
 }
@@ -2,8 +2,13 @@ package com.namdang.memos.repository;
 
 import com.namdang.memos.entity.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,5 +18,31 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
 
     Optional<Account> findByEmail(String email);
 
+    List<Account> findByEmailIn(Collection<String> emails);
+
+    // role ids only, names / permissions come from AuthorityGraph
+    @Query("select r.id from Account a join a.roles r where a.id = :id order by r.name")
+    List<UUID> findRoleIdsById(UUID id);
+
+    @Query("select r.id from Account a join a.roles r where a.email = :email order by r.name")
+    List<UUID> findRoleIdsByEmail(String email);
+
     Optional<Account> findByOryIdentityId(String oryIdentityId);
+
+    @Query("select a.membershipVersion from Account a where a.id = :id")
+    Optional<Long> findMembershipVersionById(UUID id);
+
+    @Modifying
+    @Transactional
+    @Query("update Account a set a.membershipVersion = a.membershipVersion + 1 where a.id in :ids")
+    int incrementMembershipVersions(Collection<UUID> ids);
+
+    // every account having a project_member row in the project
+    @Modifying
+    @Transactional
+    @Query("""
+            update Account a set a.membershipVersion = a.membershipVersion + 1
+            where a.id in (select m.account.id from ProjectMember m where m.project.id = :projectId)
+            """)
+    int incrementMembershipVersionByProject(UUID projectId);
 }
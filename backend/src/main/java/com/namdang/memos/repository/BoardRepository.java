@@ -0,0 +1,85 @@
+package com.namdang.memos.repository;
+
+import com.namdang.memos.entity.Board;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BoardRepository extends JpaRepository<Board, UUID> {
+
+    // authorization only needs the owning project, no Board entity
+    @Query("select b.project.id from Board b where b.id = :id and b.deleted = false and b.archived = false")
+    Optional<UUID> findProjectIdById(UUID id);
+
+    // Whole board as one JSON document, built by Postgres in a single statement:
+    // features by position, tasks by position inside their feature, assignee / label ids per task
+    // one pass per table (board --> feature --> task via idx_feature_board_position / idx_task_feature_position,
+    // assignees / labels grouped once for all tasks of the board), no entity is loaded
+    // empty --> board missing, deleted or archived
+    @Query(value = """
+            WITH f AS (
+                SELECT id, name, description, position, wip_limit, active_task_count
+                FROM feature
+                WHERE board_id = :id AND is_deleted = false AND is_archived = false
+            ),
+            t AS (
+                SELECT t.id, t.feature_id, t.title, t.priority, t.due_at, t.completed_at, t.position, t.version
+                FROM task t
+                JOIN f ON f.id = t.feature_id
+                WHERE t.is_deleted = false AND t.is_archived = false
+            ),
+            a AS (
+                SELECT ta.task_id, json_agg(ta.account_id ORDER BY ta.assigned_at, ta.account_id) AS ids
+                FROM task_assignee ta
+                JOIN t ON t.id = ta.task_id
+                GROUP BY ta.task_id
+            ),
+            l AS (
+                SELECT tl.task_id, json_agg(tl.label_id ORDER BY tl.added_at, tl.label_id) AS ids
+                FROM task_label tl
+                JOIN t ON t.id = tl.task_id
+                GROUP BY tl.task_id
+            ),
+            ft AS (
+                SELECT t.feature_id, json_agg(json_build_object(
+                        'id', t.id,
+                        'title', t.title,
+                        'priority', t.priority,
+                        'dueAt', t.due_at,
+                        'completedAt', t.completed_at,
+                        'position', t.position,
+                        'version', t.version,
+                        'assigneeIds', COALESCE(a.ids, '[]'::json),
+                        'labelIds', COALESCE(l.ids, '[]'::json)
+                    ) ORDER BY t.position, t.id) AS tasks
+                FROM t
+                LEFT JOIN a ON a.task_id = t.id
+                LEFT JOIN l ON l.task_id = t.id
+                GROUP BY t.feature_id
+            )
+            SELECT json_build_object(
+                    'id', b.id,
+                    'projectId', b.project_id,
+                    'name', b.name,
+                    'type', b.board_type,
+                    'features', COALESCE((
+                        SELECT json_agg(json_build_object(
+                                'id', f.id,
+                                'name', f.name,
+                                'description', f.description,
+                                'position', f.position,
+                                'wipLimit', f.wip_limit,
+                                'activeTaskCount', f.active_task_count,
+                                'tasks', COALESCE(ft.tasks, '[]'::json)
+                            ) ORDER BY f.position, f.id)
+                        FROM f
+                        LEFT JOIN ft ON ft.feature_id = f.id
+                    ), '[]'::json)
+                )::text
+            FROM board b
+            WHERE b.id = :id AND b.is_deleted = false AND b.is_archived = false
+            """, nativeQuery = true)
+    Optional<String> findSnapshotJson(UUID id);
+}
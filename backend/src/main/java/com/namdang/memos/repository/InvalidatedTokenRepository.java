@@ -2,5 +2,36 @@ package com.namdang.memos.repository;
 
 import com.namdang.memos.entity.InvalidatedToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedToken, String> {}
+import java.util.Date;
+import java.util.List;
+
+public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedToken, String> {
+    @Query("select t.id from InvalidatedToken t where t.expiryTime is null or t.expiryTime > :now")
+    List<String> findIdsByExpiryTimeAfter(Date now);
+
+    // revoked within the last lookbackSeconds on the database clock (node clocks may drift), still valid
+    @Query(value = """
+            SELECT id FROM invalidated_token
+            WHERE revoked_at > now() - make_interval(secs => :lookbackSeconds)
+              AND (expiry_time IS NULL OR expiry_time > now())
+            """, nativeQuery = true)
+    List<String> findIdsRevokedWithin(long lookbackSeconds);
+
+    // one short transaction per batch, SKIP LOCKED so several nodes can purge at the same time
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM invalidated_token
+            WHERE id IN (
+                SELECT id FROM invalidated_token
+                WHERE expiry_time < :now
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            )
+            """, nativeQuery = true)
+    int deleteExpiredBatch(Date now, int batchSize);
+}
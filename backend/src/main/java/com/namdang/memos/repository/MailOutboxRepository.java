@@ -0,0 +1,37 @@
+package com.namdang.memos.repository;
+
+import com.namdang.memos.entity.MailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, UUID> {
+    // rows are locked until the claiming transaction commits, SKIP LOCKED so several nodes can dispatch
+    @Query(value = """
+            SELECT * FROM mail_outbox
+            WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+               OR (status = 'SENDING' AND locked_until < :now)
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<MailOutbox> findDueForUpdate(LocalDateTime now, int limit);
+
+    // extends the claim of rows still held by this claim: locked_until is the claim's token,
+    // a row re-claimed by another node (after its lock expired) has another value and is left alone
+    @Modifying
+    @Query(value = """
+            UPDATE mail_outbox SET locked_until = :until
+            WHERE id IN (:ids) AND status = 'SENDING' AND locked_until = :claimedUntil AND locked_until > :now
+            """, nativeQuery = true)
+    int renewLocks(Collection<UUID> ids, LocalDateTime claimedUntil, LocalDateTime until, LocalDateTime now);
+
+    @Query(value = "SELECT id FROM mail_outbox WHERE id IN (:ids) AND status = 'SENDING' AND locked_until = :until",
+            nativeQuery = true)
+    List<UUID> findIdsLockedUntil(Collection<UUID> ids, LocalDateTime until);
+}
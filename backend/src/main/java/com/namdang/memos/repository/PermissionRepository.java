@@ -3,6 +3,8 @@ package com.namdang.memos.repository;
 import com.namdang.memos.entity.Permission;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -10,4 +12,6 @@ public interface PermissionRepository extends JpaRepository<Permission, UUID> {
     Optional<Permission> findByName(String name);
 
     boolean existsByName(String name);
+
+    List<Permission> findByNameIn(Collection<String> names);
 }
@@ -2,8 +2,13 @@ package com.namdang.memos.repository;
 
 import com.namdang.memos.entity.ProjectMember;
 import com.namdang.memos.enumType.InviteStatus;
+import com.namdang.memos.repository.projection.MemberProjectView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,4 +23,46 @@ public interface ProjectMemberRepository extends JpaRepository<ProjectMember, UU
     boolean existsByProject_IdAndInvitedEmailAndInvitedStatus(UUID projectId, String invitedEmail, InviteStatus invitedStatus);
 
     Optional<ProjectMember> findByInviteToken(String inviteToken);
+
+    // set-based versions of the two checks above, for bulk invites
+    @Query("select m.account.id from ProjectMember m where m.project.id = :projectId and m.account.id in :accountIds")
+    List<UUID> findAccountIdsInProject(UUID projectId, Collection<UUID> accountIds);
+
+    @Query("""
+            select m.invitedEmail from ProjectMember m
+            where m.project.id = :projectId
+              and m.invitedStatus = com.namdang.memos.enumType.InviteStatus.PENDING
+              and m.invitedEmail in :emails
+            """)
+    List<String> findPendingInvitedEmails(UUID projectId, Collection<String> emails);
+
+    // single statement per page of a member's project list: no lazy load of project / createdBy per row
+    // same keyset / namePattern rules as ProjectRepository.findActivePage
+    @Query("""
+            select new com.namdang.memos.repository.projection.MemberProjectView(
+                p.id, p.name, p.projectKey, p.description, p.imageUrl, p.createdBy.id, p.createdAt, m.role)
+            from ProjectMember m
+            join m.project p
+            where m.account.id = :accountId
+              and m.invitedStatus = com.namdang.memos.enumType.InviteStatus.ACCEPTED
+              and p.archived = false
+              and lower(p.name) like :namePattern escape '\\'
+            order by p.createdAt desc, p.id desc
+            """)
+    List<MemberProjectView> findActiveProjectsOfMember(UUID accountId, String namePattern, Limit limit);
+
+    @Query("""
+            select new com.namdang.memos.repository.projection.MemberProjectView(
+                p.id, p.name, p.projectKey, p.description, p.imageUrl, p.createdBy.id, p.createdAt, m.role)
+            from ProjectMember m
+            join m.project p
+            where m.account.id = :accountId
+              and m.invitedStatus = com.namdang.memos.enumType.InviteStatus.ACCEPTED
+              and p.archived = false
+              and lower(p.name) like :namePattern escape '\\'
+              and (p.createdAt, p.id) < (:createdAt, :id)
+            order by p.createdAt desc, p.id desc
+            """)
+    List<MemberProjectView> findActiveProjectsOfMemberAfter(
+            UUID accountId, String namePattern, LocalDateTime createdAt, UUID id, Limit limit);
 }
@@ -1,11 +1,34 @@
 package com.namdang.memos.repository;
 
 import com.namdang.memos.entity.Project;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 public interface ProjectRepository extends JpaRepository<Project, UUID> {
     boolean existsByProjectKey(String projectKey);
     List<Project> findByArchivedFalse();
+
+    // keyset pages of active projects (admin list), newest first
+    // namePattern: lower-cased prefix + '%' ('%' --> no filter), see V7 indexes
+    @Query("""
+            select p from Project p
+            where p.archived = false
+              and lower(p.name) like :namePattern escape '\\'
+            order by p.createdAt desc, p.id desc
+            """)
+    List<Project> findActivePage(String namePattern, Limit limit);
+
+    @Query("""
+            select p from Project p
+            where p.archived = false
+              and lower(p.name) like :namePattern escape '\\'
+              and (p.createdAt, p.id) < (:createdAt, :id)
+            order by p.createdAt desc, p.id desc
+            """)
+    List<Project> findActivePageAfter(String namePattern, LocalDateTime createdAt, UUID id, Limit limit);
 }
@@ -2,7 +2,10 @@ package com.namdang.memos.repository;
 
 import com.namdang.memos.entity.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface RoleRepository extends JpaRepository<Role, UUID> {
@@ -10,4 +13,10 @@ public interface RoleRepository extends JpaRepository<Role, UUID> {
 
     boolean existsByName(String name);
 
+    // whole role --> permission graph in one statement, see AuthorityGraph
+    @Query("select distinct r from Role r left join fetch r.permissions")
+    List<Role> findAllWithPermissions();
+
+    @Query("select distinct r from Role r left join fetch r.permissions where r.name in :names")
+    List<Role> findByNameInWithPermissions(Collection<String> names);
 }
@@ -0,0 +1,7 @@
+package com.namdang.memos.repository;
+
+import com.namdang.memos.entity.SeedHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SeedHistoryRepository extends JpaRepository<SeedHistory, String> {
+}
@@ -0,0 +1,141 @@
+package com.namdang.memos.repository;
+
+import com.namdang.memos.exception.ErrorCode;
+import com.namdang.memos.service.PositionAllocator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Plain JDBC for task moves: a batch of N moves costs the same handful of statements as a single one
+// (lock features, read moved tasks, read target lists, batched UPDATEs); activities go through TaskActivityWriter
+// No Task entity is loaded, so nothing is dirty-checked or flushed one row at a time
+@Repository
+@RequiredArgsConstructor
+public class TaskMoveRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public record MovingTask(UUID id, UUID projectId, UUID featureId, long version, LocalDateTime completedAt) {
+    }
+
+    public record MovedTask(UUID id, UUID featureId, BigDecimal position, LocalDateTime completedAt, long expectedVersion) {
+    }
+
+    // a neighbour shifted by a renumber of featureId's list
+    public record RenumberedTask(UUID id, UUID featureId, BigDecimal position) {
+    }
+
+    // locks the board's features among featureIds (id order, so two batches never wait on each other in a cycle)
+    // returns the ids that exist
+    public Set<UUID> lockFeatures(UUID boardId, Collection<UUID> featureIds) {
+        List<UUID> sorted = featureIds.stream().sorted().toList();
+        List<Object> args = new ArrayList<>();
+        args.add(boardId);
+        args.addAll(sorted);
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM feature WHERE board_id = ? AND is_deleted = false AND id IN (" + placeholders(sorted.size())
+                        + ") ORDER BY id FOR UPDATE",
+                UUID.class, args.toArray()));
+    }
+
+    // tasks of the board among taskIds, not locked: the version check in updateMoved() catches concurrent changes
+    public Map<UUID, MovingTask> findMovingTasks(UUID boardId, Collection<UUID> taskIds) {
+        List<Object> args = new ArrayList<>();
+        args.add(boardId);
+        args.addAll(taskIds);
+        return jdbcTemplate.query("""
+                        SELECT t.id, t.project_id, t.feature_id, t.version, t.completed_at
+                        FROM task t
+                        JOIN feature f ON f.id = t.feature_id
+                        WHERE f.board_id = ? AND t.is_deleted = false AND t.id IN (""" + placeholders(taskIds.size()) + ")",
+                        (rs, i) -> new MovingTask(
+                                rs.getObject("id", UUID.class),
+                                rs.getObject("project_id", UUID.class),
+                                rs.getObject("feature_id", UUID.class),
+                                rs.getLong("version"),
+                                rs.getObject("completed_at", LocalDateTime.class)),
+                        args.toArray())
+                .stream()
+                .collect(Collectors.toMap(MovingTask::id, task -> task));
+    }
+
+    // current order of every feature in featureIds (call after lockFeatures)
+    public Map<UUID, PositionAllocator.OrderedList> findOrderedLists(Collection<UUID> featureIds) {
+        Map<UUID, PositionAllocator.OrderedList> lists = new HashMap<>();
+        featureIds.forEach(id -> lists.put(id, new PositionAllocator.OrderedList(ErrorCode.TASK_NOT_FOUND)));
+        jdbcTemplate.query(
+                "SELECT id, feature_id, position FROM task WHERE is_deleted = false AND feature_id IN ("
+                        + placeholders(featureIds.size()) + ") ORDER BY feature_id, position, id",
+                rs -> {
+                    lists.get(rs.getObject("feature_id", UUID.class))
+                            .add(rs.getObject("id", UUID.class), rs.getBigDecimal("position"));
+                },
+                featureIds.toArray());
+        return lists;
+    }
+
+    // one batch, each row only applies while it still has the version the client saw
+    // returns the ids that did not match (changed or deleted meanwhile)
+    public List<UUID> updateMoved(List<MovedTask> moved) {
+        int[] counts = jdbcTemplate.batchUpdate("""
+                        UPDATE task
+                        SET feature_id = ?, position = ?, completed_at = ?, version = version + 1, updated_at = now()
+                        WHERE id = ? AND version = ? AND is_deleted = false
+                        """,
+                moved.stream()
+                        .map(task -> new Object[]{
+                                task.featureId(), task.position(), timestamp(task.completedAt()),
+                                task.id(), task.expectedVersion()})
+                        .toList());
+        List<UUID> stale = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                stale.add(moved.get(i).id());
+            }
+        }
+        return stale;
+    }
+
+    // neighbours shifted by a renumber keep their relative order --> no version bump, no conflict for their clients
+    // each row only applies while the task is still in the renumbered list: a neighbour moved meanwhile
+    // (to a feature this batch did not lock) keeps the position it got there
+    // returns the ids that did not match
+    public List<UUID> updatePositions(List<RenumberedTask> renumbered) {
+        if (renumbered.isEmpty()) {
+            return List.of();
+        }
+        int[] counts = jdbcTemplate.batchUpdate("UPDATE task SET position = ? WHERE id = ? AND feature_id = ?",
+                renumbered.stream()
+                        .map(task -> new Object[]{task.position(), task.id(), task.featureId()})
+                        .toList());
+        List<UUID> stale = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                stale.add(renumbered.get(i).id());
+            }
+        }
+        return stale;
+    }
+
+    // runs the deferred WIP limit checks (V14) now, on the counters as the whole batch left them:
+    // the error surfaces here as a DataAccessException instead of at commit
+    public void checkWipLimits() {
+        jdbcTemplate.execute("SET CONSTRAINTS trg_feature_wip_limit IMMEDIATE");
+    }
+
+    // typed, so a null does not make the driver describe the statement to learn the parameter type
+    private static SqlParameterValue timestamp(LocalDateTime value) {
+        return new SqlParameterValue(Types.TIMESTAMP, value == null ? null : Timestamp.valueOf(value));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
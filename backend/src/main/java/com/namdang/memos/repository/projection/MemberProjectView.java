@@ -0,0 +1,18 @@
+package com.namdang.memos.repository.projection;
+
+import com.namdang.memos.enumType.ProjectRole;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// one row of ProjectMemberRepository.findActiveProjectsOfMember: the project columns + role of the member
+public record MemberProjectView(
+        UUID id,
+        String name,
+        String projectKey,
+        String description,
+        String imageUrl,
+        UUID createdById,
+        LocalDateTime createdAt,
+        ProjectRole role) {
+}
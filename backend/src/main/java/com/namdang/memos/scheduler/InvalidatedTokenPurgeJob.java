@@ -0,0 +1,111 @@
+package com.namdang.memos.scheduler;
+
+import com.namdang.memos.repository.InvalidatedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+// invalidated_token gets a row on every logout and refresh rotation
+// a row is useless after expiry_time (the token is expired anyway), so we remove them here
+// 1. partitioned layout (V5, token_partitioning=true) --> pre-create next days, drop expired days
+// 2. always --> delete leftover expired rows in small batches (default partition / plain table)
+// a day whose rows already sit in the default partition is moved into its own partition (V15), not skipped
+@Component
+@Slf4j
+public class InvalidatedTokenPurgeJob {
+    private final InvalidatedTokenRepository invalidatedTokenRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Counter purgedRows;
+    private final Counter droppedPartitions;
+    private final Timer purgeTimer;
+    private final AtomicLong estimatedRows = new AtomicLong();
+
+    @Value("${memos.token-purge.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${memos.token-purge.max-batches:100}")
+    private int maxBatches;
+
+    @Value("${memos.token-purge.partition-days-ahead:35}")
+    private int partitionDaysAhead;
+
+    public InvalidatedTokenPurgeJob(
+            InvalidatedTokenRepository invalidatedTokenRepository,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry) {
+        this.invalidatedTokenRepository = invalidatedTokenRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.purgedRows = Counter.builder("memos.invalidated_token.purged.rows")
+                .description("Expired invalidated_token rows deleted by the purge job")
+                .register(meterRegistry);
+        this.droppedPartitions = Counter.builder("memos.invalidated_token.purged.partitions")
+                .description("Expired invalidated_token partitions dropped by the purge job")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("memos.invalidated_token.purge")
+                .description("Duration of one purge run")
+                .register(meterRegistry);
+        Gauge.builder("memos.invalidated_token.rows", estimatedRows, AtomicLong::get)
+                .description("Estimated row count of invalidated_token (pg statistics)")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${memos.token-purge.cron:0 */15 * * * *}")
+    public void purge() {
+        purgeTimer.record(() -> {
+            maintainPartitions();
+            long deleted = deleteExpiredRows();
+            refreshRowEstimate();
+            if (deleted > 0) {
+                log.info("Purged {} expired invalidated tokens", deleted);
+            }
+        });
+    }
+
+    private void maintainPartitions() {
+        Integer created = jdbcTemplate.queryForObject(
+                "SELECT ensure_invalidated_token_partitions(?)", Integer.class, partitionDaysAhead);
+        Integer dropped = jdbcTemplate.queryForObject(
+                "SELECT drop_expired_invalidated_token_partitions()", Integer.class);
+        if (dropped != null && dropped > 0) {
+            droppedPartitions.increment(dropped);
+            log.info("Dropped {} expired invalidated_token partitions", dropped);
+        }
+        if (created != null && created > 0) {
+            log.info("Created {} invalidated_token partitions", created);
+        }
+    }
+
+    long deleteExpiredRows() {
+        Date now = new Date();
+        long total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int deleted = invalidatedTokenRepository.deleteExpiredBatch(now, batchSize);
+            total += deleted;
+            purgedRows.increment(deleted);
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private void refreshRowEstimate() {
+        Long rows = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(GREATEST(c.reltuples, 0)), 0)::BIGINT
+                FROM pg_class c
+                WHERE c.relname = 'invalidated_token'
+                   OR c.oid IN (SELECT inhrelid FROM pg_inherits WHERE inhparent = 'invalidated_token'::regclass)
+                """, Long.class);
+        estimatedRows.set(rows == null ? 0 : rows);
+    }
+}
@@ -0,0 +1,304 @@
+package com.namdang.memos.scheduler;
+
+import com.namdang.memos.entity.MailOutbox;
+import com.namdang.memos.enumType.OutboxStatus;
+import com.namdang.memos.repository.MailOutboxRepository;
+import com.namdang.memos.service.MailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Drains mail_outbox (see MailOutboxService)
+// 1. claim --> short transaction: due rows FOR UPDATE SKIP LOCKED, mark SENDING + lock long enough for the whole batch
+// 2. send  --> chunks of chunk-size mails, one SMTP connection per chunk, at most `concurrency` chunks at a time
+//              each chunk first renews its lock and skips rows whose lock expired (maybe re-claimed by another node)
+// Lock durations come from the SMTP timeouts: a chunk may take connectiontimeout + chunk-size * (timeout + writetimeout),
+// a batch runs in ceil(chunks / concurrency) waves of chunks
+// 3. result --> sent rows are deleted, failed rows go back to PENDING with exponential backoff,
+//               FAILED after max-attempts. A node dying while sending leaves SENDING rows, re-claimed after the lock
+@Component
+@Slf4j
+public class MailOutboxDispatcher {
+    private final MailOutboxRepository mailOutboxRepository;
+    private final MailService mailService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService senders;
+    private final ExecutorService coordinator;
+
+    private final Counter sentMails;
+    private final Counter retriedMails;
+    private final Counter failedMails;
+
+    private final int batchSize;
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final Duration chunkLockDuration;
+    private final Duration lockDuration;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean drainAgain = new AtomicBoolean();
+
+    public MailOutboxDispatcher(
+            MailOutboxRepository mailOutboxRepository,
+            MailService mailService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${memos.mail-outbox.batch-size:100}") int batchSize,
+            @Value("${memos.mail-outbox.chunk-size:20}") int chunkSize,
+            @Value("${memos.mail-outbox.concurrency:4}") int concurrency,
+            @Value("${memos.mail-outbox.max-attempts:8}") int maxAttempts,
+            @Value("${spring.mail.properties.mail.smtp.connectiontimeout:10000}") long connectTimeoutMs,
+            @Value("${spring.mail.properties.mail.smtp.timeout:10000}") long readTimeoutMs,
+            @Value("${spring.mail.properties.mail.smtp.writetimeout:10000}") long writeTimeoutMs,
+            @Value("${memos.mail-outbox.lock-margin-seconds:30}") long lockMarginSeconds,
+            @Value("${memos.mail-outbox.base-backoff-seconds:30}") long baseBackoffSeconds,
+            @Value("${memos.mail-outbox.max-backoff-seconds:3600}") long maxBackoffSeconds) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailService = mailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(concurrency, runnable -> daemon(runnable,
+                "mail-outbox-sender-" + threadIndex.incrementAndGet()));
+        // one running drain + at most one pending: a pending drain picks up every row due by then,
+        // so polls arriving during a long drain are dropped instead of piling up
+        this.coordinator = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                runnable -> daemon(runnable, "mail-outbox-coordinator"), new ThreadPoolExecutor.DiscardPolicy());
+        this.sentMails = Counter.builder("memos.mail_outbox.sent")
+                .description("Outbox mails accepted by the SMTP server")
+                .register(meterRegistry);
+        this.retriedMails = Counter.builder("memos.mail_outbox.retried")
+                .description("Outbox mails rescheduled after a failed attempt")
+                .register(meterRegistry);
+        this.failedMails = Counter.builder("memos.mail_outbox.failed")
+                .description("Outbox mails given up after max attempts")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+        this.chunkSize = chunkSize;
+        this.maxAttempts = maxAttempts;
+        this.chunkLockDuration = Duration.ofMillis(connectTimeoutMs + chunkSize * (readTimeoutMs + writeTimeoutMs))
+                .plusSeconds(lockMarginSeconds);
+        int chunks = (batchSize + chunkSize - 1) / chunkSize;
+        int waves = (chunks + concurrency - 1) / concurrency;
+        this.lockDuration = chunkLockDuration.multipliedBy(waves);
+        this.baseBackoff = Duration.ofSeconds(baseBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+    }
+
+    // fallback for missed wake-ups, retries and rows of other nodes
+    // handed to the coordinator like wakeUp(): a slow SMTP server must not hold a scheduling thread
+    @Scheduled(fixedDelayString = "${memos.mail-outbox.poll-interval-ms:5000}")
+    public void poll() {
+        coordinator.execute(this::drain);
+    }
+
+    // called after an enqueueing transaction commits, returns right away
+    public void wakeUp() {
+        coordinator.execute(this::drain);
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            // the running drain loops once more and picks up the new rows
+            drainAgain.set(true);
+            return;
+        }
+        try {
+            do {
+                drainAgain.set(false);
+                List<MailOutbox> batch;
+                do {
+                    batch = claim();
+                    deliver(batch);
+                } while (batch.size() == batchSize);
+            } while (drainAgain.get());
+        } catch (RuntimeException e) {
+            log.error("Mail outbox dispatch failed", e);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    private List<MailOutbox> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<MailOutbox> rows = mailOutboxRepository.findDueForUpdate(now, batchSize);
+            // microseconds: locked_until is compared as the claim token in renewLocks()
+            LocalDateTime lockedUntil = now.plus(lockDuration).truncatedTo(ChronoUnit.MICROS);
+            rows.forEach(row -> {
+                row.setStatus(OutboxStatus.SENDING);
+                row.setLockedUntil(lockedUntil);
+                row.setAttempts(row.getAttempts() + 1);
+            });
+            return mailOutboxRepository.saveAll(rows);
+        });
+    }
+
+    void deliver(List<MailOutbox> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < batch.size(); from += chunkSize) {
+            List<MailOutbox> chunk = batch.subList(from, Math.min(from + chunkSize, batch.size()));
+            chunks.add(CompletableFuture.runAsync(() -> sendChunk(chunk), senders));
+        }
+        CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private void sendChunk(List<MailOutbox> claimed) {
+        List<MailOutbox> chunk = renewLocks(claimed);
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<MailOutbox> built = new ArrayList<>();
+        List<MimeMessage> messages = new ArrayList<>();
+        List<MailOutbox> failed = new ArrayList<>();
+        for (MailOutbox row : chunk) {
+            try {
+                messages.add(build(row));
+                built.add(row);
+            } catch (MessagingException | RuntimeException e) {
+                row.setLastError(e.getMessage());
+                failed.add(row);
+            }
+        }
+
+        List<MailOutbox> sent = new ArrayList<>();
+        if (!messages.isEmpty()) {
+            try {
+                mailService.send(messages.toArray(MimeMessage[]::new));
+                sent.addAll(built);
+            } catch (MailSendException e) {
+                // per message result: only the messages in getFailedMessages() were rejected
+                Map<Object, Exception> rejected = e.getFailedMessages();
+                for (int i = 0; i < built.size(); i++) {
+                    Exception cause = rejected.get(messages.get(i));
+                    if (cause == null && !rejected.isEmpty()) {
+                        sent.add(built.get(i));
+                    } else {
+                        built.get(i).setLastError(cause == null ? e.getMessage() : cause.getMessage());
+                        failed.add(built.get(i));
+                    }
+                }
+            } catch (MailException e) {
+                built.forEach(row -> row.setLastError(e.getMessage()));
+                failed.addAll(built);
+            }
+        }
+        complete(sent, failed);
+    }
+
+    // rows of this chunk still held by our claim, locked for one more chunk duration from now
+    // a chunk that waited in the senders queue past its lock may have been re-claimed (and sent) by another node
+    private List<MailOutbox> renewLocks(List<MailOutbox> chunk) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime claimedUntil = chunk.get(0).getLockedUntil();
+        LocalDateTime until = now.plus(chunkLockDuration).truncatedTo(ChronoUnit.MICROS);
+        List<UUID> ids = chunk.stream().map(MailOutbox::getId).toList();
+        List<UUID> held = transactionTemplate.execute(status -> {
+            int renewed = mailOutboxRepository.renewLocks(ids, claimedUntil, until, now);
+            return renewed == ids.size() ? ids : mailOutboxRepository.findIdsLockedUntil(ids, until);
+        });
+        List<MailOutbox> kept = new ArrayList<>();
+        for (MailOutbox row : chunk) {
+            if (held != null && held.contains(row.getId())) {
+                row.setLockedUntil(until);
+                kept.add(row);
+            }
+        }
+        if (kept.size() < chunk.size()) {
+            log.warn("Skipping {} outbox mails whose lock expired before sending", chunk.size() - kept.size());
+        }
+        return kept;
+    }
+
+    Duration lockDuration() {
+        return lockDuration;
+    }
+
+    private MimeMessage build(MailOutbox row) throws MessagingException {
+        Map<String, String> payload = row.getPayload();
+        return switch (row.getMailType()) {
+            case PROJECT_INVITE -> mailService.buildProjectInviteMail(
+                    row.getRecipient(),
+                    payload.get("projectName"),
+                    payload.get("inviterName"),
+                    payload.get("inviteToken"));
+        };
+    }
+
+    private void complete(List<MailOutbox> sent, List<MailOutbox> failed) {
+        LocalDateTime now = LocalDateTime.now();
+        failed.forEach(row -> {
+            row.setLockedUntil(null);
+            if (row.getAttempts() >= maxAttempts) {
+                row.setStatus(OutboxStatus.FAILED);
+                failedMails.increment();
+                log.error("Giving up mail {} to {} after {} attempts: {}",
+                        row.getId(), row.getRecipient(), row.getAttempts(), row.getLastError());
+            } else {
+                row.setStatus(OutboxStatus.PENDING);
+                row.setNextAttemptAt(now.plus(backoff(row.getAttempts())));
+                retriedMails.increment();
+                log.warn("Mail {} to {} failed (attempt {}), retry at {}: {}",
+                        row.getId(), row.getRecipient(), row.getAttempts(), row.getNextAttemptAt(), row.getLastError());
+            }
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                mailOutboxRepository.deleteAllByIdInBatch(sent.stream().map(MailOutbox::getId).toList());
+            }
+            if (!failed.isEmpty()) {
+                mailOutboxRepository.saveAll(failed);
+            }
+        });
+        sentMails.increment(sent.size());
+    }
+
+    // base, 2 * base, 4 * base ... capped by max-backoff
+    Duration backoff(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 20);
+        Duration delay = baseBackoff.multipliedBy(1L << shift);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdown();
+        senders.shutdown();
+    }
+}
@@ -0,0 +1,128 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.entity.Account;
+import com.namdang.memos.entity.Permission;
+import com.namdang.memos.entity.Role;
+import com.namdang.memos.repository.AccountRepository;
+import com.namdang.memos.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Immutable in-memory role --> permissions graph (seeded by Flyway V2, changes very rarely)
+// replaces walking account.getRoles() --> role.getPermissions(): one lazy query per role on every login / me / admin check
+// An account only needs its role ids: already loaded roles are used as they are, otherwise one join query
+// Reloaded at startup, every refresh-ms, and when a role id is not in the current snapshot (rate limited)
+@Component
+@Slf4j
+public class AuthorityGraph {
+    static final String ROLE_PREFIX = "ROLE_";
+    static final long MIN_REFRESH_INTERVAL_MS = 10_000;
+
+    private final RoleRepository roleRepository;
+    private final AccountRepository accountRepository;
+
+    private volatile Map<UUID, RoleAuthorities> roles = Map.of();
+    private final AtomicLong lastRefresh = new AtomicLong();
+
+    public AuthorityGraph(RoleRepository roleRepository, AccountRepository accountRepository) {
+        this.roleRepository = roleRepository;
+        this.accountRepository = accountRepository;
+    }
+
+    // name, permissions and the precomputed "ROLE_<name> <permission> ..." part of the jwt scope
+    public record RoleAuthorities(UUID id, String name, Set<String> permissions, String scopeFragment) {
+        static RoleAuthorities of(Role role) {
+            Set<String> permissions = role.getPermissions() == null
+                    ? Set.of()
+                    : role.getPermissions().stream()
+                            .map(Permission::getName)
+                            .filter(name -> name != null && !name.isBlank())
+                            .sorted()
+                            .collect(Collectors.toCollection(LinkedHashSet::new));
+            StringJoiner scope = new StringJoiner(" ");
+            scope.add(ROLE_PREFIX + role.getName());
+            permissions.forEach(scope::add);
+            return new RoleAuthorities(role.getId(), role.getName(),
+                    Collections.unmodifiableSet(permissions), scope.toString());
+        }
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${memos.security.authority-graph.refresh-ms:300000}",
+            initialDelayString = "${memos.security.authority-graph.refresh-ms:300000}")
+    public void refresh() {
+        Map<UUID, RoleAuthorities> loaded = new HashMap<>();
+        for (Role role : roleRepository.findAllWithPermissions()) {
+            loaded.put(role.getId(), RoleAuthorities.of(role));
+        }
+        roles = Map.copyOf(loaded);
+        lastRefresh.set(System.currentTimeMillis());
+        log.debug("Authority graph loaded: {} roles", loaded.size());
+    }
+
+    public String scope(Account account) {
+        return rolesOf(account).stream()
+                .map(RoleAuthorities::scopeFragment)
+                .collect(Collectors.joining(" "));
+    }
+
+    public String primaryRole(Account account) {
+        List<RoleAuthorities> accountRoles = rolesOf(account);
+        return accountRoles.isEmpty() ? null : accountRoles.get(0).name();
+    }
+
+    public Set<String> permissions(Account account) {
+        return rolesOf(account).stream()
+                .flatMap(role -> role.permissions().stream())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    public boolean hasPermission(Collection<UUID> roleIds, String permission) {
+        return roleIds.stream()
+                .map(this::byId)
+                .filter(Objects::nonNull)
+                .anyMatch(role -> role.permissions().contains(permission));
+    }
+
+    List<RoleAuthorities> rolesOf(Account account) {
+        if (account == null || account.getRoles() == null) {
+            return List.of();
+        }
+        if (Hibernate.isInitialized(account.getRoles())) {
+            return account.getRoles().stream().map(this::of).toList();
+        }
+        // roles not loaded: ids only, no Role / Permission entities
+        return accountRepository.findRoleIdsById(account.getId()).stream()
+                .map(this::byId)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private RoleAuthorities of(Role role) {
+        RoleAuthorities known = role.getId() == null ? null : byId(role.getId());
+        // not persisted yet, or created after the last refresh: straight from the entity
+        return known != null ? known : RoleAuthorities.of(role);
+    }
+
+    private RoleAuthorities byId(UUID roleId) {
+        RoleAuthorities role = roles.get(roleId);
+        if (role == null && refreshAllowed()) {
+            refresh();
+            role = roles.get(roleId);
+        }
+        return role;
+    }
+
+    private boolean refreshAllowed() {
+        long last = lastRefresh.get();
+        long now = System.currentTimeMillis();
+        return now - last >= MIN_REFRESH_INTERVAL_MS && lastRefresh.compareAndSet(last, now);
+    }
+}
@@ -0,0 +1,65 @@
+package com.namdang.memos.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.namdang.memos.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+// Answers "does this account have permission X" (ex: ADMIN.FULL_ACCESS for the project listing)
+// Caller authenticated by our JWT --> its granted authorities, already parsed from the verified scope claim, no query
+// Anyone else (scheduler, another account, no security context) --> cached email --> role ids, permissions from AuthorityGraph
+// A role change reaches the JWT path with the next token, and the cached path after ttl-seconds
+@Component
+public class AuthorityResolver {
+    public static final String ADMIN_FULL_ACCESS = "ADMIN.FULL_ACCESS";
+
+    private final AccountRepository accountRepository;
+    private final AuthorityGraph authorityGraph;
+    private final Cache<String, List<UUID>> roleIdsByEmail;
+
+    public AuthorityResolver(
+            AccountRepository accountRepository,
+            AuthorityGraph authorityGraph,
+            MeterRegistry meterRegistry,
+            @Value("${memos.security.role-ids-cache.max-size:10000}") long maxSize,
+            @Value("${memos.security.role-ids-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.accountRepository = accountRepository;
+        this.authorityGraph = authorityGraph;
+        this.roleIdsByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, roleIdsByEmail, "roleIdsCache");
+    }
+
+    public boolean isAdmin(String email) {
+        return hasPermission(email, ADMIN_FULL_ACCESS);
+    }
+
+    public boolean hasPermission(String email, String permission) {
+        if (email == null) return false;
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken && email.equals(authentication.getName())) {
+            for (GrantedAuthority authority : authentication.getAuthorities()) {
+                if (permission.equals(authority.getAuthority())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return authorityGraph.hasPermission(roleIdsByEmail.get(email, accountRepository::findRoleIdsByEmail), permission);
+    }
+}
@@ -0,0 +1,73 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.entity.Account;
+import com.namdang.memos.enumType.ProjectRole;
+import com.namdang.memos.repository.AccountRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// Resolve the caller's account and project memberships once per http request
+// @PreAuthorize (ProjectPermission) and the services both go through here, so
+// findByEmail runs at most once per request, project roles come from the node-wide MembershipCache
+// Outside of a request (scheduler, tests) it simply goes to the db every time
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class AuthorizationContext {
+    static String ATTRIBUTE = AuthorizationContext.class.getName();
+
+    AccountRepository accountRepository;
+    MembershipCache membershipCache;
+
+    public Optional<Account> currentAccount(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        Holder holder = holder();
+        if (holder == null) {
+            return accountRepository.findByEmail(email);
+        }
+        return holder.accounts.computeIfAbsent(email, accountRepository::findByEmail);
+    }
+
+    // empty --> account is not a member (no project_member row) of this project
+    public Optional<ProjectRole> projectRole(UUID projectId, UUID accountId) {
+        Holder holder = holder();
+        if (holder == null) {
+            return membershipCache.projectRole(projectId, accountId);
+        }
+        // pinned for the rest of the request, even if the shared cache is evicted meanwhile
+        return holder.projectRoles.computeIfAbsent(
+                new MembershipKey(projectId, accountId), key -> membershipCache.projectRole(projectId, accountId));
+    }
+
+    private Holder holder() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Holder holder = (Holder) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (holder == null) {
+            holder = new Holder();
+            attributes.setAttribute(ATTRIBUTE, holder, RequestAttributes.SCOPE_REQUEST);
+        }
+        return holder;
+    }
+
+    private record MembershipKey(UUID projectId, UUID accountId) {}
+
+    // one request is handled by one thread, plain maps are enough
+    private static class Holder {
+        final Map<String, Optional<Account>> accounts = new HashMap<>();
+        final Map<MembershipKey, Optional<ProjectRole>> projectRoles = new HashMap<>();
+    }
+}
@@ -0,0 +1,26 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.event.ProjectMembershipChangedEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// in-JVM bus: delivers synchronously to the listeners of this node only
+@Component
+@ConditionalOnProperty(name = "memos.membership-cache.bus", havingValue = "local", matchIfMissing = true)
+public class LocalMembershipInvalidationBus implements MembershipInvalidationBus {
+    private final List<Consumer<ProjectMembershipChangedEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(ProjectMembershipChangedEvent event) {
+        listeners.forEach(listener -> listener.accept(event));
+    }
+
+    @Override
+    public void subscribe(Consumer<ProjectMembershipChangedEvent> listener) {
+        listeners.add(listener);
+    }
+}
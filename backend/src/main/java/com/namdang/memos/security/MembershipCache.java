@@ -0,0 +1,91 @@
+package com.namdang.memos.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.namdang.memos.entity.ProjectMember;
+import com.namdang.memos.enumType.ProjectRole;
+import com.namdang.memos.event.ProjectMembershipChangedEvent;
+import com.namdang.memos.repository.ProjectMemberRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Node-local cache: (projectId, accountId) --> role of that account in the project
+// empty --> not a member. Membership checks are the most frequent query and almost never change,
+// so entries live until a ProjectMembershipChangedEvent evicts them (ttl is only a safety net)
+// Evictions are also sent through the MembershipInvalidationBus so peer nodes drop their copy
+@Component
+public class MembershipCache {
+    private final ProjectMemberRepository projectMemberRepository;
+    private final MembershipInvalidationBus invalidationBus;
+    private final Cache<MembershipKey, Optional<ProjectRole>> cache;
+    // bumped by every eviction, before the keys are removed (see warm())
+    private final AtomicLong generation = new AtomicLong();
+
+    public MembershipCache(
+            ProjectMemberRepository projectMemberRepository,
+            MembershipInvalidationBus invalidationBus,
+            MeterRegistry meterRegistry,
+            @Value("${memos.membership-cache.max-size:100000}") long maxSize,
+            @Value("${memos.membership-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.projectMemberRepository = projectMemberRepository;
+        this.invalidationBus = invalidationBus;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "membershipCache");
+        invalidationBus.subscribe(this::evict);
+    }
+
+    public Optional<ProjectRole> projectRole(UUID projectId, UUID accountId) {
+        return cache.get(new MembershipKey(projectId, accountId), key ->
+                projectMemberRepository.findByProjectIdAndAccountId(projectId, accountId)
+                        .map(ProjectMember::getRole));
+    }
+
+    // read before loading the rows passed to warm()
+    public long generation() {
+        return generation.get();
+    }
+
+    // warm up from rows that were loaded anyway (ex: listing the projects of an account)
+    // rows read before an eviction must not outlive it: if any eviction ran since `loadedAt`, the entry is dropped
+    // again. An eviction starting after that check bumps the generation first, then removes this entry itself
+    public void warm(long loadedAt, UUID projectId, UUID accountId, ProjectRole role) {
+        if (generation.get() != loadedAt) {
+            return;
+        }
+        MembershipKey key = new MembershipKey(projectId, accountId);
+        cache.asMap().putIfAbsent(key, Optional.ofNullable(role));
+        if (generation.get() != loadedAt) {
+            cache.invalidate(key);
+        }
+    }
+
+    // only after commit, otherwise another request could reload the old row before the change is visible
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(ProjectMembershipChangedEvent event) {
+        evict(event);
+        invalidationBus.publish(event);
+    }
+
+    void evict(ProjectMembershipChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.wholeProject()) {
+            cache.asMap().keySet().removeIf(key -> key.projectId().equals(event.projectId()));
+        } else {
+            event.accountIds().forEach(accountId -> cache.invalidate(new MembershipKey(event.projectId(), accountId)));
+        }
+    }
+
+    private record MembershipKey(UUID projectId, UUID accountId) {}
+}
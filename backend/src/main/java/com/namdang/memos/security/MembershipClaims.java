@@ -0,0 +1,84 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.entity.Account;
+import com.namdang.memos.entity.ProjectMember;
+import com.namdang.memos.enumType.ProjectRole;
+import com.namdang.memos.repository.ProjectMemberRepository;
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// Optional compact claims in the access token (memos.security.jwt-claims.enabled)
+// aid --> account id, ProjectPermission does not need findByEmail any more
+// mv + prj --> membership version + {projectId: role}, only for accounts with few projects
+// prj is ignored as soon as mv is older than the account's current version (MembershipVersions)
+@Component
+public class MembershipClaims {
+    static final String ACCOUNT_ID = "aid";
+    static final String MEMBERSHIP_VERSION = "mv";
+    static final String PROJECT_ROLES = "prj";
+
+    private final ProjectMemberRepository projectMemberRepository;
+    private final MembershipVersions membershipVersions;
+    private final boolean enabled;
+    private final int maxProjects;
+
+    public MembershipClaims(
+            ProjectMemberRepository projectMemberRepository,
+            MembershipVersions membershipVersions,
+            @Value("${memos.security.jwt-claims.enabled:false}") boolean enabled,
+            @Value("${memos.security.jwt-claims.max-projects:50}") int maxProjects) {
+        this.projectMemberRepository = projectMemberRepository;
+        this.membershipVersions = membershipVersions;
+        this.enabled = enabled;
+        this.maxProjects = maxProjects;
+    }
+
+    public void addClaims(JWTClaimsSet.Builder builder, Account account) {
+        if (!enabled || account.getId() == null) {
+            return;
+        }
+        builder.claim(ACCOUNT_ID, account.getId().toString());
+
+        // version is read before the rows: a change in between only makes the digest look stale
+        long version = membershipVersions.currentVersion(account.getId());
+        List<ProjectMember> members = projectMemberRepository.findByAccountId(account.getId());
+        if (version < 0 || members.size() > maxProjects) {
+            return;
+        }
+        Map<String, String> roles = new HashMap<>();
+        members.forEach(member -> roles.put(member.getProject().getId().toString(), member.getRole().name()));
+        builder.claim(MEMBERSHIP_VERSION, version);
+        builder.claim(PROJECT_ROLES, roles);
+    }
+
+    public Optional<UUID> accountId(Jwt jwt) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String accountId = jwt.getClaimAsString(ACCOUNT_ID);
+        return accountId == null ? Optional.empty() : Optional.of(UUID.fromString(accountId));
+    }
+
+    // empty --> digest absent, disabled or stale, caller has to ask the MembershipCache
+    public Optional<Map<UUID, ProjectRole>> projectRoles(Jwt jwt, UUID accountId) {
+        if (!enabled || !jwt.hasClaim(MEMBERSHIP_VERSION) || !jwt.hasClaim(PROJECT_ROLES)) {
+            return Optional.empty();
+        }
+        Object version = jwt.getClaim(MEMBERSHIP_VERSION);
+        if (!(version instanceof Number number) || number.longValue() != membershipVersions.currentVersion(accountId)) {
+            return Optional.empty();
+        }
+        Map<UUID, ProjectRole> roles = new HashMap<>();
+        jwt.getClaimAsMap(PROJECT_ROLES).forEach((projectId, role) ->
+                roles.put(UUID.fromString(projectId), ProjectRole.valueOf(role.toString())));
+        return Optional.of(roles);
+    }
+}
@@ -0,0 +1,14 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.event.ProjectMembershipChangedEvent;
+
+import java.util.function.Consumer;
+
+// Carries membership invalidations to every node that keeps a MembershipCache
+// memos.membership-cache.bus=local --> LocalMembershipInvalidationBus (single node, tests)
+// multi-node deployments plug in another implementation (pg NOTIFY, redis pub/sub, ...)
+public interface MembershipInvalidationBus {
+    void publish(ProjectMembershipChangedEvent event);
+
+    void subscribe(Consumer<ProjectMembershipChangedEvent> listener);
+}
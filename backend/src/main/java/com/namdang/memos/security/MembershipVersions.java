@@ -0,0 +1,37 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.event.ProjectMembershipChangedEvent;
+import com.namdang.memos.repository.AccountRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+// Per-account membership version (account.membership_version)
+// A token carrying project roles (MembershipClaims) is only trusted while its version equals the current one
+// 1. bump --> in the same transaction as the membership change (BEFORE_COMMIT)
+// 2. check --> read from the db on every use (primary key lookup of one column), never cached:
+//              a node-local copy would keep trusting stale prj roles after a change committed on another node
+@Component
+public class MembershipVersions {
+    private final AccountRepository accountRepository;
+
+    public MembershipVersions(AccountRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
+    // -1 --> account does not exist, never equal to a version found in a token
+    public long currentVersion(UUID accountId) {
+        return accountRepository.findMembershipVersionById(accountId).orElse(-1L);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onMembershipChanged(ProjectMembershipChangedEvent event) {
+        if (event.wholeProject()) {
+            accountRepository.incrementMembershipVersionByProject(event.projectId());
+        } else {
+            accountRepository.incrementMembershipVersions(event.accountIds());
+        }
+    }
+}
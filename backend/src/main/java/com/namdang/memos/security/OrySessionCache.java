@@ -0,0 +1,90 @@
+package com.namdang.memos.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.namdang.memos.enumType.AuthProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+// Short-lived cache: sha-256(ory session cookie) --> identity resolved by /sessions/whoami
+// a client logging in / refreshing again with the same cookie skips the Ory round trip (login storms after a deploy)
+// Entry never outlives the session's expires_at, and is dropped as soon as Ory reports the session inactive
+@Component
+public class OrySessionCache {
+    private final Cache<String, OryIdentity> cache;
+
+    public OrySessionCache(
+            MeterRegistry meterRegistry,
+            @Value("${memos.security.ory-session-cache.max-size:10000}") long maxSize,
+            @Value("${memos.security.ory-session-cache.ttl-seconds:30}") long ttlSeconds) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new SessionExpiry(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "orySessionCache");
+    }
+
+    public Optional<OryIdentity> get(String cookieName, String cookieValue) {
+        return Optional.ofNullable(cache.getIfPresent(digest(cookieName, cookieValue)));
+    }
+
+    public void put(String cookieName, String cookieValue, OryIdentity identity) {
+        if (identity.expiresAt() != null && !identity.expiresAt().isAfter(Instant.now())) {
+            return;
+        }
+        cache.put(digest(cookieName, cookieValue), identity);
+    }
+
+    public void evict(String cookieName, String cookieValue) {
+        cache.invalidate(digest(cookieName, cookieValue));
+    }
+
+    private static String digest(String cookieName, String cookieValue) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest((cookieName + "=" + cookieValue).getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // expiresAt null --> Ory did not say, ttl only
+    public record OryIdentity(String identityId, String email, AuthProvider provider, Instant expiresAt) {
+    }
+
+    // expire after min(ttl, time left until the session's expires_at)
+    private record SessionExpiry(Duration ttl) implements Expiry<String, OryIdentity> {
+        @Override
+        public long expireAfterCreate(String key, OryIdentity identity, long currentTime) {
+            if (identity.expiresAt() == null) {
+                return ttl.toNanos();
+            }
+            long untilExpiry = Duration.between(Instant.now(), identity.expiresAt()).toNanos();
+            return Math.max(0, Math.min(ttl.toNanos(), untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, OryIdentity identity, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, identity, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, OryIdentity identity, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
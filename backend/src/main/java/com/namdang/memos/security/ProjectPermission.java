@@ -1,10 +1,8 @@
 package com.namdang.memos.security;
 
 import com.namdang.memos.entity.Account;
-import com.namdang.memos.entity.ProjectMember;
 import com.namdang.memos.enumType.ProjectRole;
-import com.namdang.memos.repository.AccountRepository;
-import com.namdang.memos.repository.ProjectMemberRepository;
+import com.namdang.memos.repository.BoardRepository;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -12,6 +10,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
 import java.util.UUID;
 
 
@@ -19,8 +18,9 @@ import java.util.UUID;
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class ProjectPermission {
-    AccountRepository accountRepository;
-    ProjectMemberRepository projectMemberRepository;
+    AuthorizationContext authorizationContext;
+    MembershipClaims membershipClaims;
+    BoardRepository boardRepository;
 
     // admin can do everything
     private boolean hasAdminFullAccess(Authentication authentication) {
@@ -28,10 +28,24 @@ public class ProjectPermission {
                 .anyMatch(a -> "ADMIN.FULL_ACCESS".equals(a.getAuthority()));
     }
 
-    private Account getCurrentAccount(Authentication authentication) {
+    // aid claim when the token carries it, otherwise account lookup by email (subject)
+    private UUID getCurrentAccountId(Jwt jwt) {
+        return membershipClaims.accountId(jwt)
+                .orElseGet(() -> authorizationContext.currentAccount(jwt.getSubject())
+                        .map(Account::getId)
+                        .orElse(null));
+    }
+
+    // prj claim while its membership version is current, otherwise membership cache / db
+    private Optional<ProjectRole> getProjectRole(UUID projectId, Authentication authentication) {
         Jwt jwt = (Jwt) authentication.getPrincipal();
-        String email = jwt.getSubject();
-        return accountRepository.findByEmail(email).orElse(null);
+        UUID accountId = getCurrentAccountId(jwt);
+        if(accountId == null) {
+            return Optional.empty();
+        }
+        return membershipClaims.projectRoles(jwt, accountId)
+                .map(roles -> Optional.ofNullable(roles.get(projectId)))
+                .orElseGet(() -> authorizationContext.projectRole(projectId, accountId));
     }
 
     // just owner or admin can delete project
@@ -42,13 +56,7 @@ public class ProjectPermission {
         if(hasAdminFullAccess(authentication)) {
             return true;
         }
-        Account account = getCurrentAccount(authentication);
-        if(account == null) {
-            return false;
-        }
-        return projectMemberRepository
-                .findByProjectIdAndAccountId(projectId,account.getId())
-                .map(ProjectMember::getRole)
+        return getProjectRole(projectId, authentication)
                 .map(role -> role == ProjectRole.OWNER)
                 .orElse(false);
     }
@@ -63,13 +71,7 @@ public class ProjectPermission {
             return true;
         }
 
-        Account account = getCurrentAccount(authentication);
-        if (account == null) {
-            return false;
-        }
-
-        return projectMemberRepository
-                .findByProjectIdAndAccountId(projectId, account.getId())
+        return getProjectRole(projectId, authentication)
                 .isPresent();
     }
 
@@ -83,16 +85,23 @@ public class ProjectPermission {
             return true;
         }
 
-        Account account = getCurrentAccount(authentication);
-        if(account == null) {
-            return false;
-        }
-
-        return projectMemberRepository
-                .findByProjectIdAndAccountId(projectId, account.getId())
-                .map(ProjectMember::getRole)
+        return getProjectRole(projectId, authentication)
                 .map(role -> role == ProjectRole.OWNER)
                 .orElse(false);
     }
 
+    // admin + owner + member of the board's project can view the board and move its tasks; unknown board --> denied
+    public boolean canViewAndUpdateBoard(UUID boardId, Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+
+        if (hasAdminFullAccess(authentication)) {
+            return true;
+        }
+
+        return boardRepository.findProjectIdById(boardId)
+                .flatMap(projectId -> getProjectRole(projectId, authentication))
+                .isPresent();
+    }
 }
@@ -0,0 +1,126 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.dto.responses.auth.TokenPair;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Date;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Signs every access / refresh token (login, register, refresh, Ory login) with the HS512 key
+// Built once: the HMAC keyed per thread (no MACSigner + Mac.getInstance per token), the base64url header,
+// the claim templates (issuer, refresh marker) and the shared verifier
+// A pair shares one issue time and one scope string
+@Component
+public class TokenIssuer {
+    public static final String ISSUER = "namdang-fdp";
+    public static final String SCOPE = "scope";
+    public static final String TOKEN_TYPE = "tok";
+    public static final String REFRESH = "REFRESH";
+    static final JWSHeader HEADER = new JWSHeader(JWSAlgorithm.HS512);
+    static final String HMAC_ALGORITHM = "HmacSHA512";
+
+    private final long validDuration;
+    private final long refreshableDuration;
+    private final String signingInputPrefix;
+    private final JWTClaimsSet accessTemplate;
+    private final JWTClaimsSet refreshTemplate;
+    // Mac is not thread safe, one keyed instance per request thread
+    private final ThreadLocal<Mac> macs;
+    // MACVerifier only holds the secret, safe to share between request threads
+    private final JWSVerifier verifier;
+
+    public TokenIssuer(
+            @Value("${JWT_SIGNER_KEY_BASE64}") String signerKey,
+            @Value("${JWT_VALID_DURATION}") long validDuration,
+            @Value("${JWT_REFRESHABLE_DURATION}") long refreshableDuration) {
+        this.validDuration = validDuration;
+        this.refreshableDuration = refreshableDuration;
+        this.signingInputPrefix = HEADER.toBase64URL() + ".";
+        this.accessTemplate = new JWTClaimsSet.Builder().issuer(ISSUER).build();
+        this.refreshTemplate = new JWTClaimsSet.Builder(accessTemplate).claim(TOKEN_TYPE, REFRESH).build();
+        // same key bytes MACSigner(String) / MACVerifier(byte[]) use
+        SecretKeySpec key = new SecretKeySpec(signerKey.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        try {
+            this.verifier = new MACVerifier(key.getEncoded());
+            // fail at startup on a bad / too short key, not on the first login
+            newMac(key);
+        } catch (JOSEException | GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid JWT signer key", e);
+        }
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                return newMac(key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static Mac newMac(SecretKeySpec key) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(key);
+        return mac;
+    }
+
+    // accessClaims: extra claims for the access token only (ex: membership digest)
+    public TokenPair issuePair(String subject, String scope, Consumer<JWTClaimsSet.Builder> accessClaims) {
+        long now = System.currentTimeMillis();
+        Date issueTime = new Date(now);
+
+        JWTClaimsSet.Builder access = new JWTClaimsSet.Builder(accessTemplate)
+                .subject(subject)
+                .issueTime(issueTime)
+                .expirationTime(new Date(now + validDuration * 1000))
+                .jwtID(UUID.randomUUID().toString())
+                .claim(SCOPE, scope);
+        accessClaims.accept(access);
+
+        JWTClaimsSet refresh = new JWTClaimsSet.Builder(refreshTemplate)
+                .subject(subject)
+                .issueTime(issueTime)
+                .expirationTime(new Date(now + refreshableDuration * 1000))
+                .jwtID(UUID.randomUUID().toString())
+                .claim(SCOPE, scope)
+                .build();
+
+        return TokenPair.builder()
+                .accessToken(sign(access.build()))
+                .refreshToken(sign(refresh))
+                .accessTtl(validDuration)
+                .refreshTtl(refreshableDuration)
+                .build();
+    }
+
+    // header.payload.signature, same output as JWSObject.sign + serialize
+    public String sign(JWTClaimsSet claims) {
+        String signingInput = signingInputPrefix + new Payload(claims.toJSONObject()).toBase64URL();
+        byte[] signature = macs.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + Base64URL.encode(signature);
+    }
+
+    public JWSVerifier verifier() {
+        return verifier;
+    }
+
+    public long validDuration() {
+        return validDuration;
+    }
+
+    public long refreshableDuration() {
+        return refreshableDuration;
+    }
+}
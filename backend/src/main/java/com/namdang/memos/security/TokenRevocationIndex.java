@@ -0,0 +1,142 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.repository.InvalidatedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// In-process index of revoked JTIs, so the decoder does not hit invalidated_token on every request
+// Flow:
+// 1. bloom filter says "no" --> token is not revoked (no db call)
+// 2. jti is in the local exact set --> revoked (no db call)
+// 3. otherwise (filter hit) --> confirm with db
+// Filter is loaded from db at startup and rebuilt periodically (drops expired entries)
+// Revokes written by other nodes are picked up by sync() every sync-interval-ms (rows revoked since the last sync)
+// --> a token revoked on another node is still accepted here for at most sync-interval-ms (+ the sync query time);
+// a jti revoked on this node is rejected right after commit
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationIndex {
+    private final InvalidatedTokenRepository invalidatedTokenRepository;
+
+    @Value("${memos.security.revocation.expected-insertions:100000}")
+    private int expectedInsertions;
+
+    @Value("${memos.security.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${memos.security.revocation.max-exact-entries:50000}")
+    private int maxExactEntries;
+
+    @Value("${memos.security.revocation.sync-interval-ms:5000}")
+    private long syncIntervalMs;
+
+    // a revoke committed late (long transaction) is stamped with its transaction start time
+    @Value("${memos.security.revocation.sync-overlap-seconds:30}")
+    private long syncOverlapSeconds;
+
+    @Value("${JWT_VALID_DURATION:3600}")
+    private long accessTokenTtlSeconds;
+
+    // System.nanoTime() of the last reload / sync that succeeded, the next sync reads everything revoked since
+    private volatile long syncedAt;
+
+    private volatile RevokedTokenFilter filter;
+
+    // jti --> expiry time of the token, only tokens revoked by this node
+    private final Map<String, Date> revokedLocally = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void load() {
+        if (syncIntervalMs >= accessTokenTtlSeconds * 1000) {
+            log.warn("Revocation sync interval ({} ms) is not shorter than the access token TTL ({} s): "
+                    + "tokens revoked on another node stay usable here until they expire", syncIntervalMs, accessTokenTtlSeconds);
+        }
+        reload();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${memos.security.revocation.reload-interval-ms:300000}",
+            initialDelayString = "${memos.security.revocation.reload-interval-ms:300000}")
+    public synchronized void reload() {
+        long startedAt = System.nanoTime();
+        Date now = new Date();
+        List<String> activeIds = invalidatedTokenRepository.findIdsByExpiryTimeAfter(now);
+
+        RevokedTokenFilter rebuilt = new RevokedTokenFilter(
+                Math.max(expectedInsertions, activeIds.size() * 2), falsePositiveRate);
+        activeIds.forEach(rebuilt::put);
+        // keep local revokes that may not be committed/visible yet
+        revokedLocally.values().removeIf(expiry -> expiry.before(now));
+        revokedLocally.keySet().forEach(rebuilt::put);
+
+        filter = rebuilt;
+        // revokes published while we were rebuilding went into the old filter
+        revokedLocally.keySet().forEach(rebuilt::put);
+        syncedAt = startedAt;
+        log.info("Loaded {} revoked tokens into revocation index", activeIds.size());
+    }
+
+    // revokes of every node since the last sync / reload, a missed run widens the next lookback instead of leaving a gap
+    @Scheduled(
+            fixedDelayString = "${memos.security.revocation.sync-interval-ms:5000}",
+            initialDelayString = "${memos.security.revocation.sync-interval-ms:5000}")
+    public synchronized void sync() {
+        long startedAt = System.nanoTime();
+        long lookbackSeconds = TimeUnit.NANOSECONDS.toSeconds(startedAt - syncedAt) + 1 + syncOverlapSeconds;
+        List<String> revokedIds = invalidatedTokenRepository.findIdsRevokedWithin(lookbackSeconds);
+        revokedIds.forEach(filter::put);
+        syncedAt = startedAt;
+        log.debug("Synced {} recently revoked tokens into revocation index", revokedIds.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        if (!filter.mightContain(jti)) {
+            return false;
+        }
+        if (revokedLocally.containsKey(jti)) {
+            return true;
+        }
+        return invalidatedTokenRepository.existsById(jti);
+    }
+
+    // call after InvalidatedToken is saved
+    // inside a transaction --> only publish after commit, rollback must not revoke the token
+    public void markRevoked(String jti, Date expiryTime) {
+        if (jti == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(jti, expiryTime);
+                }
+            });
+        } else {
+            publish(jti, expiryTime);
+        }
+    }
+
+    private void publish(String jti, Date expiryTime) {
+        if (revokedLocally.size() < maxExactEntries) {
+            revokedLocally.put(jti, expiryTime == null ? new Date(Long.MAX_VALUE) : expiryTime);
+        }
+        filter.put(jti);
+    }
+}
@@ -14,25 +14,23 @@ import com.namdang.memos.mapper.auth.RegisterMapper;
 import com.namdang.memos.repository.AccountRepository;
 import com.namdang.memos.repository.InvalidatedTokenRepository;
 import com.namdang.memos.repository.RoleRepository;
+import com.namdang.memos.security.AuthorityGraph;
+import com.namdang.memos.security.MembershipClaims;
+import com.namdang.memos.security.PasswordHasher;
+import com.namdang.memos.security.TokenIssuer;
+import com.namdang.memos.security.TokenRevocationIndex;
+import com.namdang.memos.security.VerifiedTokenCache;
 import com.nimbusds.jose.*;
-import com.nimbusds.jose.crypto.MACSigner;
-import com.nimbusds.jose.crypto.MACVerifier;
-import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 
 import lombok.experimental.FieldDefaults;
-import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.CollectionUtils;
 
 import java.text.ParseException;
-import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 
@@ -42,116 +40,44 @@ import java.util.*;
 @Slf4j
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class AuthenticationService {
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final AccountRepository accountRepository;
     private final InvalidatedTokenRepository invalidatedTokenRepository;
     private final RoleRepository roleRepository;
     private final RegisterMapper registerMapper;
     private final ProfileMapper profileMapper;
-
-    @NonFinal
-    @Value("${JWT_SIGNER_KEY_BASE64}")
-    protected String SIGNER_KEY;
-
-    @NonFinal
-    @Value("${JWT_VALID_DURATION}")
-    protected Long VALID_DURATION;
-
-    @NonFinal
-    @Value("${JWT_REFRESHABLE_DURATION}")
-    protected Long REFRESHABLE_DURATION;
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final MembershipClaims membershipClaims;
+    private final AuthorityGraph authorityGraph;
+    private final TokenIssuer tokenIssuer;
 
     // implement 1st --> return string role + permission for deep authorization
+    // precomputed "ROLE_x perm ..." fragment per role from AuthorityGraph, no lazy loading of permissions
     private String buildScope(Account account) {
-        StringJoiner stringJoiner = new StringJoiner(" ");
-        if(!CollectionUtils.isEmpty(account.getRoles())) {
-            account.getRoles().forEach(role -> {
-                stringJoiner.add("ROLE_" + role.getName());
-                if(!CollectionUtils.isEmpty(role.getPermissions())) {
-                    role.getPermissions().forEach(permission -> {
-                        stringJoiner.add(permission.getName());
-                    });
-                }
-            });
-        }
-        return stringJoiner.toString();
+        return authorityGraph.scope(account);
     }
 
-    // implement 2nd --> generate a new valid jwt token
+    // implement 2nd --> generate a pair of access and refresh token
     // JWT: header.payload.signature
     // Algo: HS512, Type: Symmetric key --> this means there are one key use for both sign and verify token
     // By the way, Asymmetric key is better but more complicated
-    private String generateToken(Account account) {
-        JWSHeader header = new JWSHeader(JWSAlgorithm.HS512); // this is header
-        JWTClaimsSet jwtClaimsSet = new JWTClaimsSet.Builder() // this is payload
-                .subject(account.getEmail()) // owner of token info
-                .issuer("namdang-fdp") // person who grant this token
-                .issueTime(new Date()) // granted at time
-                .expirationTime(new Date(
-                        Instant.now().plus(VALID_DURATION, ChronoUnit.SECONDS).toEpochMilli()
-                )) // expiration date of this token
-                .jwtID(UUID.randomUUID().toString())
-                .claim("scope", buildScope(account)) // authorized work here
-                .build();
-        Payload payload = new Payload(jwtClaimsSet.toJSONObject());
-        JWSObject jwsObject = new JWSObject(header, payload);
-        try {
-            jwsObject.sign(new MACSigner(SIGNER_KEY)); // signed
-            return jwsObject.serialize();
-        } catch (JOSEException e) {
-            log.error("Cannot create token: Reason ", e);
-            throw new RuntimeException(e);
-        }
-    }
-
-    // generate refresh token. the same logic with other refreshable time
-    private String generateRefreshToken(Account account) {
-        JWSHeader header = new JWSHeader(JWSAlgorithm.HS512);
-        JWTClaimsSet jwtClaimsSet = new JWTClaimsSet.Builder()
-                .subject(account.getEmail())
-                .issuer("namdang-fdp")
-                .issueTime(new Date())
-                .expirationTime(new Date(Instant.now().plus(REFRESHABLE_DURATION, ChronoUnit.SECONDS).toEpochMilli()
-                ))
-                .jwtID(UUID.randomUUID().toString())
-                .claim("scope", buildScope(account))
-                .claim("tok", "REFRESH")
-                .build();
-        Payload payload = new Payload(jwtClaimsSet.toJSONObject());
-        JWSObject jwsObject = new JWSObject(header, payload);
-        try {
-            jwsObject.sign(new MACSigner(SIGNER_KEY)); // signed
-            return jwsObject.serialize();
-        } catch (JOSEException e) {
-            log.error("Cannot create refresh token: Reason ", e);
-            throw new RuntimeException(e);
-        }
-    }
-
-    // generate a pair of access and refresh token
+    // signing, claim templates and ttl live in TokenIssuer; aid / mv / prj go into the access token only, when enabled
     public TokenPair generateTokenPair(Account user) {
-        String accessToken = generateToken(user);
-        String refreshToken = generateRefreshToken(user);
-
-        return TokenPair.builder()
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
-                .accessTtl(VALID_DURATION)
-                .refreshTtl(REFRESHABLE_DURATION)
-                .build();
+        return tokenIssuer.issuePair(user.getEmail(), buildScope(user),
+                claims -> membershipClaims.addClaims(claims, user));
     }
 
     // implement 3rd, this function used to verify token whether it invalid or not
     private SignedJWT verifyToken(String token, boolean isRefresh) throws JOSEException, ParseException {
-        JWSVerifier verifier = new MACVerifier(SIGNER_KEY.getBytes());
         SignedJWT signedJWT = SignedJWT.parse(token);
 
         if(invalidatedTokenRepository.existsById(signedJWT.getJWTClaimsSet().getJWTID())) {
             throw new AppException(ErrorCode.UNAUTHENTICATED_EXCEPTION);
         }
         if (isRefresh) {
-            Object tok = signedJWT.getJWTClaimsSet().getClaim("tok");
-            if (!"REFRESH".equals(tok)) {
+            Object tok = signedJWT.getJWTClaimsSet().getClaim(TokenIssuer.TOKEN_TYPE);
+            if (!TokenIssuer.REFRESH.equals(tok)) {
                 throw new AppException(ErrorCode.UNAUTHENTICATED_EXCEPTION);
             }
         }
@@ -160,10 +86,10 @@ public class AuthenticationService {
         // 2. Token to call API to refresh token.
         // Ex: Access token is revoke, but refresh token still exist
         Date expiryTime = (isRefresh)
-                ? new Date(signedJWT.getJWTClaimsSet().getIssueTime().toInstant().plus(REFRESHABLE_DURATION, ChronoUnit.SECONDS).toEpochMilli())
+                ? new Date(signedJWT.getJWTClaimsSet().getIssueTime().toInstant().plus(tokenIssuer.refreshableDuration(), ChronoUnit.SECONDS).toEpochMilli())
                 : signedJWT.getJWTClaimsSet().getExpirationTime();
 
-        var verified = signedJWT.verify(verifier);
+        var verified = signedJWT.verify(tokenIssuer.verifier());
         if(!(verified && expiryTime.after(new Date()))) {
             throw new AppException(ErrorCode.UNAUTHENTICATED_EXCEPTION);
         }
@@ -185,6 +111,8 @@ public class AuthenticationService {
             invalidatedTokenRepository.save(
                     InvalidatedToken.builder().id(jti).expiryTime(exp).build()
             );
+            tokenRevocationIndex.markRevoked(jti, exp);
+            verifiedTokenCache.evict(accessToken);
         }
 
         if (refreshToken != null && !refreshToken.isBlank()) {
@@ -195,6 +123,7 @@ public class AuthenticationService {
             invalidatedTokenRepository.save(
                     InvalidatedToken.builder().id(jti).expiryTime(exp).build()
             );
+            tokenRevocationIndex.markRevoked(jti, exp);
         }
     }
 
@@ -226,21 +155,11 @@ public class AuthenticationService {
                         .expiryTime(oldExp)
                         .build()
         );
+        tokenRevocationIndex.markRevoked(oldJti, oldExp);
 
-        String newAccess  = generateToken(user);
-        String newRefresh = generateRefreshToken(user);
+        TokenPair pair = generateTokenPair(user);
 
-        TokenPair pair = TokenPair.builder()
-                .accessToken(newAccess)
-                .refreshToken(newRefresh)
-                .accessTtl(VALID_DURATION)
-                .refreshTtl(REFRESHABLE_DURATION)
-                .build();
-
-        String primaryRole = null;
-        if (user.getRoles() != null && !user.getRoles().isEmpty()) {
-            primaryRole = user.getRoles().iterator().next().getName();
-        }
+        String primaryRole = authorityGraph.primaryRole(user);
 
         return LoginResult.builder()
                 .tokenPair(pair)
@@ -262,10 +181,8 @@ public class AuthenticationService {
         Account user = accountRepository.findByEmail(email)
                 .orElseThrow(() -> new AppException(ErrorCode.INVALID_EMAIL));
 
-        user.getRoles().forEach(role -> role.getPermissions().size());
-
-        String role = profileMapper.getPrimaryRole(user);
-        Set<String> permissions = profileMapper.getPermissionNames(user);
+        String role = authorityGraph.primaryRole(user);
+        Set<String> permissions = authorityGraph.permissions(user);
 
         return profileMapper.toProfile(user, role, permissions);
     }
@@ -275,25 +192,20 @@ public class AuthenticationService {
         Account user = accountRepository.findByEmail(authenticationRequest.getEmail())
                 .orElseThrow(() -> new AppException(ErrorCode.INVALID_EMAIL));
 
-        boolean authenticated = passwordEncoder.matches(authenticationRequest.getPassword(), user.getPassword());
-        if (!authenticated) {
+        PasswordHasher.Verification verification =
+                passwordHasher.verify(authenticationRequest.getPassword(), user.getPassword());
+        if (!verification.matches()) {
             throw new AppException(ErrorCode.INVALID_PASSWORD);
         }
+        // stored with an older algorithm / cost --> re-encoded with the current one while the raw password is at hand
+        if (verification.upgradedHash() != null) {
+            user.setPassword(verification.upgradedHash());
+            accountRepository.save(user);
+        }
 
-        String access = generateToken(user);
-        String refresh = generateRefreshToken(user);
+        TokenPair pair = generateTokenPair(user);
 
-        TokenPair pair = TokenPair.builder()
-                .accessToken(access)
-                .refreshToken(refresh)
-                .accessTtl(VALID_DURATION)
-                .refreshTtl(REFRESHABLE_DURATION)
-                .build();
-
-        String primaryRole = null;
-        if (user.getRoles() != null && !user.getRoles().isEmpty()) {
-            primaryRole = user.getRoles().iterator().next().getName();
-        }
+        String primaryRole = authorityGraph.primaryRole(user);
         return LoginResult.builder()
                 .tokenPair(pair)
                 .role(primaryRole)
@@ -312,7 +224,7 @@ public class AuthenticationService {
 
         Account newUser = new Account();
         newUser.setEmail(request.getEmail());
-        newUser.setPassword(passwordEncoder.encode(request.getPassword()));
+        newUser.setPassword(passwordHasher.encode(request.getPassword()));
         newUser.setActive(true);
         newUser.setProvider(AuthProvider.LOCAL);
         newUser.setRoles(Set.of(memberRole));
@@ -336,10 +248,9 @@ public class AuthenticationService {
                 .orElseThrow(() -> new AppException(ErrorCode.INVALID_EMAIL));
 
         user.setName(request.getName());
-        user.getRoles().forEach(role -> role.getPermissions().size());
 
-        String role = profileMapper.getPrimaryRole(user);
-        Set<String> permissions = profileMapper.getPermissionNames(user);
+        String role = authorityGraph.primaryRole(user);
+        Set<String> permissions = authorityGraph.permissions(user);
 
         return profileMapper.toProfile(user, role, permissions);
     }
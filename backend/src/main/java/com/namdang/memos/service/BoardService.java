@@ -0,0 +1,8 @@
+package com.namdang.memos.service;
+
+import java.util.UUID;
+
+public interface BoardService {
+    // board snapshot as a JSON document (features --> ordered tasks --> assignee / label ids)
+    String getSnapshotJson(UUID boardId);
+}
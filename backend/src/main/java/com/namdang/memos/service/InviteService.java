@@ -1,6 +1,8 @@
 package com.namdang.memos.service;
 
+import com.namdang.memos.dto.requests.invite.BulkProjectInviteRequest;
 import com.namdang.memos.dto.requests.invite.ProjectInviteRequest;
+import com.namdang.memos.dto.responses.invite.BulkInviteResponse;
 import com.namdang.memos.dto.responses.invite.InviteInfoResponse;
 import com.namdang.memos.dto.responses.project.ProjectMemberResponse;
 
@@ -10,6 +12,9 @@ public interface InviteService {
     // return project member response so FE can directly update user to list of project's members
     ProjectMemberResponse createInvite(ProjectInviteRequest projectInviteRequest, String email, UUID projectId);
 
+    // per-email outcome instead of failing the whole request on the first duplicate / existing member
+    BulkInviteResponse createInvites(BulkProjectInviteRequest request, String email, UUID projectId);
+
     InviteInfoResponse getInviteInfo(String token);
 
     ProjectMemberResponse acceptInvite(String token, String currentUserEmail);
@@ -0,0 +1,70 @@
+package com.namdang.memos.service;
+
+import com.namdang.memos.entity.MailOutbox;
+import com.namdang.memos.enumType.MailType;
+import com.namdang.memos.repository.MailOutboxRepository;
+import com.namdang.memos.scheduler.MailOutboxDispatcher;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Transactional outbox for mails
+// the row is written in the caller's transaction --> mail exists if and only if the business change commits
+// no SMTP call here: MailOutboxDispatcher sends it after commit (woken up right away, polling as fallback)
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class MailOutboxService {
+    MailOutboxRepository mailOutboxRepository;
+    MailOutboxDispatcher mailOutboxDispatcher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueProjectInvite(String to, String projectName, String inviterName, String inviteToken) {
+        mailOutboxRepository.save(projectInvite(to, projectName, inviterName, inviteToken));
+        wakeUpAfterCommit();
+    }
+
+    // bulk invites: one batched insert and one wake-up for the whole list
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueProjectInvites(String projectName, String inviterName, Map<String, String> inviteTokensByRecipient) {
+        if (inviteTokensByRecipient.isEmpty()) {
+            return;
+        }
+        List<MailOutbox> mails = new ArrayList<>(inviteTokensByRecipient.size());
+        inviteTokensByRecipient.forEach((to, inviteToken) ->
+                mails.add(projectInvite(to, projectName, inviterName, inviteToken)));
+        mailOutboxRepository.saveAll(mails);
+        wakeUpAfterCommit();
+    }
+
+    private static MailOutbox projectInvite(String to, String projectName, String inviterName, String inviteToken) {
+        MailOutbox mail = new MailOutbox();
+        mail.setMailType(MailType.PROJECT_INVITE);
+        mail.setRecipient(to);
+        mail.setPayload(Map.of(
+                "projectName", projectName,
+                "inviterName", inviterName,
+                "inviteToken", inviteToken));
+        mail.setNextAttemptAt(LocalDateTime.now());
+        return mail;
+    }
+
+    private void wakeUpAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                mailOutboxDispatcher.wakeUp();
+            }
+        });
+    }
+}
@@ -2,20 +2,22 @@ package com.namdang.memos.service;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.time.Year;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @Slf4j
@@ -24,6 +26,14 @@ import java.time.Year;
 public class MailService {
     // spring auto create JavaMailSender since we config it in yaml + starter.mail
     final JavaMailSender mailSender;
+    final MailTemplates mailTemplates;
+
+    static final String PROJECT_INVITE = "project-invite";
+    // used when templates/project-invite.html is missing
+    static final MailTemplate PROJECT_INVITE_FALLBACK = MailTemplate.compile(PROJECT_INVITE, """
+            <p>{{INVITER_NAME}} invited you to project <b>{{PROJECT_NAME}}</b> in Memos.</p>
+            <p>Link: <a href="{{INVITE_LINK}}">{{INVITE_LINK}}</a></p>
+            """);
 
     @Value("${memos.mail.from}")
     private String from;
@@ -31,69 +41,64 @@ public class MailService {
     @Value("${memos.app-url}")
     private String appUrl;
 
-    private String projectInviteTemplate;
+    // no per-recipient locale yet: every mail uses this one (with fallback to the default template)
+    @Value("${memos.mail.locale:en}")
+    private Locale locale;
+
+    // parsed once instead of per message, null --> parsed by MimeMessageHelper each time
+    private InternetAddress fromAddress;
+
+    private MailTemplate projectInviteTemplate;
 
     @PostConstruct
     void loadTemplates() {
+        projectInviteTemplate = mailTemplates.find(PROJECT_INVITE, locale).orElseGet(() -> {
+            log.error("No {} email template found, using the plain fallback", PROJECT_INVITE);
+            return PROJECT_INVITE_FALLBACK;
+        });
         try {
-            var resource = new ClassPathResource("templates/project-invite.html");
-            byte[] bytes = resource.getInputStream().readAllBytes();
-            projectInviteTemplate = new String(bytes, StandardCharsets.UTF_8);
-            log.info("Loaded project-invite email template");
-        } catch (IOException e) {
-            log.error("Failed to load project-invite.html template", e);
-            projectInviteTemplate = null;
+            fromAddress = new InternetAddress(from, true);
+        } catch (AddressException e) {
+            log.warn("Cannot pre-parse memos.mail.from '{}': {}", from, e.getMessage());
+            fromAddress = null;
         }
     }
 
-    public void sendProjectInviteMail(
+    // built by MailOutboxDispatcher from an outbox row, failures are thrown so the row can be retried
+    public MimeMessage buildProjectInviteMail(
             String to,
             String projectName,
             String inviterName,
             String inviteToken
-    ) {
+    ) throws MessagingException {
         String subject = "[Memos] Invitation to project \"" + projectName + "\"";
         String inviteLink = appUrl + "/invite?token=" + inviteToken;
-        String html = buildInviteHtml(projectName, inviterName, inviteLink);
+        String html = mailTemplates.render(projectInviteTemplate, Map.of(
+                "PROJECT_NAME", Objects.toString(projectName, ""),
+                "INVITER_NAME", Objects.toString(inviterName, ""),
+                "INVITE_LINK", inviteLink,
+                "CURRENT_YEAR", String.valueOf(Year.now().getValue())));
 
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        // html only, no attachments --> single part message, no multipart scaffolding
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
 
+        if (fromAddress != null) {
+            helper.setFrom(fromAddress);
+        } else {
             helper.setFrom(from);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(html, true);
-
-            mailSender.send(message);
-            log.info("Sent invite email to {}", to);
-        } catch (MessagingException e) {
-            log.error("Failed to send invite email to {}", to, e);
         }
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(html, true);
+        return message;
     }
 
-    private String buildInviteHtml(String projectName, String inviterName, String inviteLink) {
-        String tmpl = projectInviteTemplate;
-        if (tmpl == null) {
-            return """
-                    <p>%s invited you to project <b>%s</b> in Memos.</p>
-                    <p>Link: <a href="%s">%s</a></p>
-                    """.formatted(escapeHtml(inviterName), escapeHtml(projectName), inviteLink, inviteLink);
-        }
-
-        return tmpl
-                .replace("{{PROJECT_NAME}}", escapeHtml(projectName))
-                .replace("{{INVITER_NAME}}", escapeHtml(inviterName))
-                .replace("{{INVITE_LINK}}", inviteLink)
-                .replace("{{CURRENT_YEAR}}", String.valueOf(Year.now().getValue()));
-    }
-
-    private String escapeHtml(String input) {
-        if (input == null) return "";
-        return input
-                .replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;");
+    // one SMTP connection for all messages
+    // MailSendException.getFailedMessages() --> the messages that were not accepted by the server
+    public void send(MimeMessage... messages) {
+        mailSender.send(messages);
+        log.info("Sent {} emails", messages.length);
     }
 }
 
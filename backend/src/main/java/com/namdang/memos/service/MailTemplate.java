@@ -0,0 +1,82 @@
+package com.namdang.memos.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Mail template parsed once into literal / {{PLACEHOLDER}} segments
+// render appends literals and HTML-escaped values straight into the caller's builder:
+// no intermediate full-size string per placeholder like a String.replace chain
+public final class MailTemplate {
+    static final String OPEN = "{{";
+    static final String CLOSE = "}}";
+
+    private final String name;
+    // literals.length == placeholders.length + 1, literal i comes before placeholder i
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int literalLength;
+
+    private MailTemplate(String name, String[] literals, String[] placeholders) {
+        this.name = name;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static MailTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, from);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                break;
+            }
+            literals.add(source.substring(from, open));
+            placeholders.add(source.substring(open + OPEN.length(), close).trim());
+            from = close + CLOSE.length();
+        }
+        literals.add(source.substring(from));
+        return new MailTemplate(name, literals.toArray(String[]::new), placeholders.toArray(String[]::new));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    // lower bound of the rendered size, to presize builders
+    public int literalLength() {
+        return literalLength;
+    }
+
+    // missing values render as empty
+    public void renderTo(StringBuilder out, Map<String, String> values) {
+        out.append(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            appendEscaped(out, values.get(placeholders[i]));
+            out.append(literals[i + 1]);
+        }
+    }
+
+    static void appendEscaped(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
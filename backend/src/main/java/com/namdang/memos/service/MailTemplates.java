@@ -0,0 +1,81 @@
+package com.namdang.memos.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Every templates/*.html compiled once at startup
+// file name = <template>[_<language>[_<COUNTRY>]].html, e.g. project-invite.html, project-invite_vi.html
+@Component
+@Slf4j
+public class MailTemplates {
+    static final String LOCATION = "classpath*:templates/*.html";
+    static final String SUFFIX = ".html";
+    // a builder grown by an unusually large mail is dropped instead of kept per thread
+    static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private final Map<String, MailTemplate> templates = new ConcurrentHashMap<>();
+    // one builder per thread (mail-outbox senders), reused across renders
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    @PostConstruct
+    void load() {
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+                String fileName = resource.getFilename();
+                if (fileName == null || !fileName.endsWith(SUFFIX)) {
+                    continue;
+                }
+                String key = fileName.substring(0, fileName.length() - SUFFIX.length());
+                try (InputStream in = resource.getInputStream()) {
+                    register(key, MailTemplate.compile(key, new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+                }
+            }
+            log.info("Loaded {} email templates: {}", templates.size(), templates.keySet());
+        } catch (IOException e) {
+            log.error("Failed to load email templates", e);
+        }
+    }
+
+    void register(String key, MailTemplate template) {
+        templates.put(key, template);
+    }
+
+    // most specific first: name_vi_VN, name_vi, name
+    public Optional<MailTemplate> find(String name, Locale locale) {
+        if (locale != null && !locale.getLanguage().isEmpty()) {
+            if (!locale.getCountry().isEmpty()) {
+                MailTemplate exact = templates.get(name + "_" + locale.getLanguage() + "_" + locale.getCountry());
+                if (exact != null) {
+                    return Optional.of(exact);
+                }
+            }
+            MailTemplate language = templates.get(name + "_" + locale.getLanguage());
+            if (language != null) {
+                return Optional.of(language);
+            }
+        }
+        return Optional.ofNullable(templates.get(name));
+    }
+
+    public String render(MailTemplate template, Map<String, String> values) {
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        template.renderTo(buffer, values);
+        String html = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffers.remove();
+        }
+        return html;
+    }
+}
@@ -0,0 +1,120 @@
+package com.namdang.memos.service;
+
+import com.namdang.memos.exception.AppException;
+import com.namdang.memos.exception.ErrorCode;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+// Positions for drag & drop ordering, NUMERIC(20, 10) columns
+// A move takes the midpoint of its two neighbours: one row written, nothing else shifts
+// Scale 10 runs out after ~43 halvings of the same STEP gap --> the list is renumbered to STEP, 2 * STEP, ...
+// and the move retried, so a renumber (O(n)) happens at most once per ~43 inserts into one gap
+// Pure in-memory engine: the caller loads a list into an OrderedList (under its parent's lock), places every move
+// of its batch on it and writes back the placed and renumbered() positions (see TaskMoveRepository)
+public final class PositionAllocator {
+    static final int SCALE = 10;
+    static final BigDecimal STEP = BigDecimal.valueOf(1024);
+    // NUMERIC(20, 10) --> 10 integer digits
+    static final BigDecimal MAX = BigDecimal.TEN.pow(10).subtract(BigDecimal.ONE);
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    private PositionAllocator() {
+    }
+
+    // strictly between lower and upper at SCALE, null --> no room left (or lower / upper tie)
+    // lower null --> top of the list (0), upper null --> bottom of the list (lower + STEP)
+    static BigDecimal between(BigDecimal lower, BigDecimal upper) {
+        BigDecimal low = lower == null ? BigDecimal.ZERO : lower;
+        if (upper == null) {
+            BigDecimal next = low.add(STEP).setScale(SCALE, RoundingMode.DOWN);
+            return next.compareTo(MAX) > 0 ? null : next;
+        }
+        BigDecimal mid = low.add(upper).divide(TWO, SCALE, RoundingMode.DOWN);
+        return mid.compareTo(low) > 0 && mid.compareTo(upper) < 0 ? mid : null;
+    }
+
+    // One list (ids in position order) held in memory, no query per move
+    // the caller writes back the positions of the items it placed and renumbered()
+    public static final class OrderedList {
+        // previous item of a move not in this list
+        private final ErrorCode itemNotFound;
+        private final List<UUID> ids = new ArrayList<>();
+        private final Map<UUID, BigDecimal> positions = new HashMap<>();
+        private final Set<UUID> renumbered = new LinkedHashSet<>();
+
+        public OrderedList(ErrorCode itemNotFound) {
+            this.itemNotFound = itemNotFound;
+        }
+
+        // rows must arrive in list order (ORDER BY position, id)
+        public void add(UUID id, BigDecimal position) {
+            ids.add(id);
+            positions.put(id, position);
+        }
+
+        public boolean contains(UUID id) {
+            return positions.containsKey(id);
+        }
+
+        public void remove(UUID id) {
+            if (positions.remove(id) != null) {
+                ids.remove(id);
+                renumbered.remove(id);
+            }
+        }
+
+        // previousId null --> top of the list
+        public BigDecimal insertAfter(UUID previousId, UUID id) {
+            if (contains(id)) {
+                throw new IllegalArgumentException(id + " is already in the list");
+            }
+            int index = 0;
+            if (previousId != null) {
+                index = ids.indexOf(previousId) + 1;
+                if (index == 0) {
+                    throw new AppException(itemNotFound);
+                }
+            }
+            BigDecimal position = between(index);
+            if (position == null) {
+                renumber();
+                position = between(index);
+            }
+            if (position == null) {
+                throw new IllegalStateException("No position left in a list of " + ids.size() + " after renumbering");
+            }
+            ids.add(index, id);
+            positions.put(id, position);
+            return position;
+        }
+
+        public BigDecimal position(UUID id) {
+            return positions.get(id);
+        }
+
+        // items whose position changed because the list was renumbered (placed items included)
+        public Map<UUID, BigDecimal> renumbered() {
+            Map<UUID, BigDecimal> changed = new LinkedHashMap<>();
+            renumbered.forEach(id -> changed.put(id, positions.get(id)));
+            return changed;
+        }
+
+        private BigDecimal between(int index) {
+            BigDecimal lower = index > 0 ? positions.get(ids.get(index - 1)) : null;
+            BigDecimal upper = index < ids.size() ? positions.get(ids.get(index)) : null;
+            return PositionAllocator.between(lower, upper);
+        }
+
+        // STEP, 2 * STEP, ... in the current order
+        private void renumber() {
+            for (int i = 0; i < ids.size(); i++) {
+                BigDecimal position = STEP.multiply(BigDecimal.valueOf(i + 1L)).setScale(SCALE, RoundingMode.DOWN);
+                if (positions.put(ids.get(i), position).compareTo(position) != 0) {
+                    renumbered.add(ids.get(i));
+                }
+            }
+        }
+    }
+}
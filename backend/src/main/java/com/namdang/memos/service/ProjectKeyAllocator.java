@@ -0,0 +1,32 @@
+package com.namdang.memos.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Numbers for project keys, unique across nodes without counting the project table
+// project_key_seq (V8) increments by BLOCK_SIZE: one nextval reserves [value, value + BLOCK_SIZE) for this node,
+// the next BLOCK_SIZE - 1 keys are served from memory
+// Numbers left in a block are lost on restart --> gaps are fine, duplicates are not
+@Component
+@RequiredArgsConstructor
+public class ProjectKeyAllocator {
+    static final int BLOCK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private long next;
+    private long blockEnd;
+
+    public synchronized long nextNumber() {
+        if (next >= blockEnd) {
+            Long blockStart = jdbcTemplate.queryForObject("SELECT nextval('project_key_seq')", Long.class);
+            if (blockStart == null) {
+                throw new IllegalStateException("project_key_seq returned no value");
+            }
+            next = blockStart;
+            blockEnd = blockStart + BLOCK_SIZE;
+        }
+        return next++;
+    }
+}
@@ -2,7 +2,7 @@ package com.namdang.memos.service;
 
 import com.namdang.memos.dto.requests.project.CreateProjectRequest;
 import com.namdang.memos.dto.responses.project.CreateProjectResponse;
-import java.util.List;
+import com.namdang.memos.dto.responses.project.ProjectPageResponse;
 import java.util.UUID;
 
 public interface ProjectService {
@@ -14,5 +14,5 @@ public interface ProjectService {
 
     CreateProjectResponse getProject(UUID projectId);
 
-    List<CreateProjectResponse> getProjects(String email);
+    ProjectPageResponse getProjects(String email, String cursor, Integer size, String namePrefix);
 }
@@ -0,0 +1,313 @@
+package com.namdang.memos.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.namdang.memos.enumType.TaskActivityType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Append-only writer for task_activity (one row per task change, the hottest insert table)
+// Rows never go through the TaskActivity entity: the payload is serialized once when the event is built,
+// rows are written as multi-row INSERTs, or COPY from copy-threshold rows
+// Inside a transaction, events are buffered per transaction and written once:
+//   sync  --> right before commit, in that transaction: activity rows exist if and only if the change commits
+//   async --> after commit, into a bounded queue drained by flush() in batches of batch-size
+//             a crash loses at most queue-capacity + one batch; a full queue writes the overflow synchronously,
+//             in its own transaction (the committed one is finished, its connection must not be reused)
+//             a batch failing on a transient error (connection lost, deadlock, ...) is retried on the next flush()
+// Outside a transaction, events are written (sync) or queued (async) right away
+@Component
+@Slf4j
+public class TaskActivityWriter {
+    static final int INSERT_CHUNK = 500;
+    static final String COLUMNS = "project_id, task_id, actor_id, activity_type, from_feature_id, to_feature_id, payload";
+
+    public enum Mode { SYNC, ASYNC }
+
+    // payloadJson: already serialized (see payload()), null --> no payload
+    public record Event(UUID projectId, UUID taskId, UUID actorId, TaskActivityType type,
+                        UUID fromFeatureId, UUID toFeatureId, String payloadJson) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+    private final Mode mode;
+    private final int batchSize;
+    private final int copyThreshold;
+    private final BlockingQueue<Event> queue;
+    private final Object bufferKey = new Object();
+    // batch that failed on a transient error, written first by the next flush()
+    private List<Event> retry = List.of();
+
+    private final Counter written;
+    private final Counter overflowed;
+    private final Counter lost;
+
+    public TaskActivityWriter(
+            JdbcTemplate jdbcTemplate,
+            EntityManager entityManager,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${memos.task-activity.mode:SYNC}") Mode mode,
+            @Value("${memos.task-activity.queue-capacity:10000}") int queueCapacity,
+            @Value("${memos.task-activity.batch-size:1000}") int batchSize,
+            @Value("${memos.task-activity.copy-threshold:500}") int copyThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = jdbcTemplate.getDataSource();
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.mode = mode;
+        this.batchSize = batchSize;
+        this.copyThreshold = copyThreshold;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.written = Counter.builder("memos.task_activity.written")
+                .description("Task activity rows written")
+                .register(meterRegistry);
+        this.overflowed = Counter.builder("memos.task_activity.overflowed")
+                .description("Async task activities written synchronously because the queue was full")
+                .register(meterRegistry);
+        this.lost = Counter.builder("memos.task_activity.lost")
+                .description("Async task activities dropped after a non-transient write failure")
+                .register(meterRegistry);
+        meterRegistry.gauge("memos.task_activity.queued", queue, BlockingQueue::size);
+    }
+
+    // serialized once here, stored as is (jsonb)
+    public String payload(Map<String, ?> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Task activity payload is not serializable", e);
+        }
+    }
+
+    public void append(Event event) {
+        append(List.of(event));
+    }
+
+    public void append(List<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            buffer().addAll(events);
+        } else if (mode == Mode.ASYNC) {
+            enqueue(events);
+        } else {
+            write(events);
+        }
+    }
+
+    // async mode: everything queued so far, batch-size rows per transaction
+    // a transient failure keeps the batch for the next run and stops this one (the queue keeps filling meanwhile,
+    // then callers write their overflow themselves); only a non-transient failure drops the batch
+    @Scheduled(fixedDelayString = "${memos.task-activity.flush-interval-ms:200}")
+    public synchronized void flush() {
+        if (!retry.isEmpty() && !flush(retry)) {
+            return;
+        }
+        List<Event> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+        while (queue.drainTo(batch, batchSize) > 0) {
+            if (!flush(batch)) {
+                return;
+            }
+            batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+        }
+    }
+
+    // false --> kept in retry
+    private boolean flush(List<Event> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+            retry = List.of();
+            return true;
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                log.warn("Writing {} task activities failed, retrying on the next flush", batch.size(), e);
+                retry = batch;
+                return false;
+            }
+            lost.increment(batch.size());
+            log.error("Dropped {} task activities", batch.size(), e);
+            retry = List.of();
+            return true;
+        }
+    }
+
+    static boolean isTransient(RuntimeException error) {
+        return error instanceof TransientDataAccessException
+                || error instanceof RecoverableDataAccessException
+                || error instanceof DataAccessResourceFailureException
+                || error instanceof CannotCreateTransactionException;
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        flush();
+        if (!retry.isEmpty()) {
+            lost.increment(retry.size());
+            log.error("Dropped {} task activities on shutdown", retry.size());
+        }
+    }
+
+    private List<Event> buffer() {
+        @SuppressWarnings("unchecked")
+        List<Event> buffer = (List<Event>) TransactionSynchronizationManager.getResource(bufferKey);
+        if (buffer != null) {
+            return buffer;
+        }
+        List<Event> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(bufferKey, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (mode == Mode.SYNC && !created.isEmpty()) {
+                    // rows of entities saved in this transaction (task_id foreign key) must exist first
+                    if (entityManager.isJoinedToTransaction()) {
+                        entityManager.flush();
+                    }
+                    write(created);
+                }
+            }
+
+            @Override
+            public void afterCommit() {
+                if (mode == Mode.ASYNC) {
+                    enqueue(created);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(bufferKey);
+            }
+        });
+        return created;
+    }
+
+    private void enqueue(List<Event> events) {
+        List<Event> overflow = new ArrayList<>();
+        for (Event event : events) {
+            if (!queue.offer(event)) {
+                overflow.add(event);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            // back-pressure instead of loss: the caller pays for the write
+            // REQUIRES_NEW: called from afterCommit(), where the finished transaction's connection is still bound
+            overflowed.increment(overflow.size());
+            newTransactionTemplate.executeWithoutResult(status -> write(overflow));
+        }
+    }
+
+    void write(List<Event> events) {
+        if (events.size() >= copyThreshold) {
+            copy(events);
+        } else {
+            for (int from = 0; from < events.size(); from += INSERT_CHUNK) {
+                insert(events.subList(from, Math.min(events.size(), from + INSERT_CHUNK)));
+            }
+        }
+        written.increment(events.size());
+    }
+
+    // one INSERT ... VALUES (...), (...) per chunk, parameters typed up front (no describe round trip for nulls)
+    private void insert(List<Event> events) {
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < events.size(); i++) {
+            values.add("(?, ?, ?, ?, ?, ?, ?::jsonb)");
+        }
+        jdbcTemplate.update("INSERT INTO task_activity (" + COLUMNS + ") VALUES " + values, ps -> {
+            int index = 1;
+            for (Event event : events) {
+                ps.setObject(index++, event.projectId(), Types.OTHER);
+                ps.setObject(index++, event.taskId(), Types.OTHER);
+                ps.setObject(index++, event.actorId(), Types.OTHER);
+                ps.setString(index++, event.type().name());
+                ps.setObject(index++, event.fromFeatureId(), Types.OTHER);
+                ps.setObject(index++, event.toFeatureId(), Types.OTHER);
+                ps.setString(index++, event.payloadJson());
+            }
+        });
+    }
+
+    // COPY ... FROM STDIN on the transaction's connection (same connection JdbcTemplate uses)
+    private void copy(List<Event> events) {
+        StringBuilder rows = new StringBuilder(events.size() * 256);
+        events.forEach(event -> appendCopyRow(rows, event));
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY task_activity (" + COLUMNS + ") FROM STDIN", new StringReader(rows.toString()));
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("COPY into task_activity failed", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    // COPY text format: tab separated, \N for null
+    static void appendCopyRow(StringBuilder rows, Event event) {
+        appendCopyValue(rows, event.projectId()).append('\t');
+        appendCopyValue(rows, event.taskId()).append('\t');
+        appendCopyValue(rows, event.actorId()).append('\t');
+        appendCopyValue(rows, event.type().name()).append('\t');
+        appendCopyValue(rows, event.fromFeatureId()).append('\t');
+        appendCopyValue(rows, event.toFeatureId()).append('\t');
+        appendCopyValue(rows, event.payloadJson()).append('\n');
+    }
+
+    private static StringBuilder appendCopyValue(StringBuilder rows, Object value) {
+        if (value == null) {
+            return rows.append("\\N");
+        }
+        String text = value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> rows.append("\\\\");
+                case '\t' -> rows.append("\\t");
+                case '\n' -> rows.append("\\n");
+                case '\r' -> rows.append("\\r");
+                default -> rows.append(c);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,12 @@
+package com.namdang.memos.service;
+
+import com.namdang.memos.dto.requests.task.MoveTasksRequest;
+import com.namdang.memos.dto.responses.task.TaskMoveResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface TaskService {
+    // all moves apply or none (stale version, unknown task / feature)
+    List<TaskMoveResponse> moveTasks(UUID boardId, MoveTasksRequest request, String email);
+}
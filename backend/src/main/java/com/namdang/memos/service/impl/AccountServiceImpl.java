@@ -11,6 +11,7 @@ import com.namdang.memos.exception.ErrorCode;
 import com.namdang.memos.mapper.auth.AccountMapper;
 import com.namdang.memos.repository.AccountRepository;
 import com.namdang.memos.repository.RoleRepository;
+import com.namdang.memos.security.PasswordHasher;
 import com.namdang.memos.service.AccountService;
 
 import lombok.AccessLevel;
@@ -18,7 +19,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
@@ -32,7 +32,7 @@ import java.util.*;
 public class AccountServiceImpl implements AccountService {
     AccountRepository accountRepository;
     AccountMapper accountMapper;
-    PasswordEncoder passwordEncoder;
+    PasswordHasher passwordHasher;
     RoleRepository roleRepository;
 
     @Override
@@ -44,7 +44,7 @@ public class AccountServiceImpl implements AccountService {
         Account account = accountMapper.toAccount(request);
         Role role = roleRepository.findByName(PreDefinedRole.MEMBER.name());
         account.getRoles().add(role);
-        account.setPassword(passwordEncoder.encode(account.getPassword()));
+        account.setPassword(passwordHasher.encode(account.getPassword()));
         Account saveAccount = accountRepository.save(account);
         return saveAccount.getId();
     }
@@ -72,7 +72,7 @@ public class AccountServiceImpl implements AccountService {
                 .orElseThrow(() -> new AppException(ErrorCode.INVALID_ACCOUNT));
         accountMapper.updateFromDto(request, existingAccount);
         if (!Objects.isNull(request.getPassword())) {
-            existingAccount.setPassword(passwordEncoder.encode(request.getPassword()));
+            existingAccount.setPassword(passwordHasher.encode(request.getPassword()));
         }
         if (!CollectionUtils.isEmpty(request.getRoles())) {
             var roles = roleRepository.findAllById(request.getRoles());
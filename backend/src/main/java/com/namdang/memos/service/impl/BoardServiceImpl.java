@@ -0,0 +1,28 @@
+package com.namdang.memos.service.impl;
+
+import com.namdang.memos.exception.AppException;
+import com.namdang.memos.exception.ErrorCode;
+import com.namdang.memos.repository.BoardRepository;
+import com.namdang.memos.service.BoardService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class BoardServiceImpl implements BoardService {
+    BoardRepository boardRepository;
+
+    // one statement whatever the board size, the JSON comes from Postgres as is (no entity, no DTO tree)
+    @Override
+    @Transactional(readOnly = true)
+    public String getSnapshotJson(UUID boardId) {
+        return boardRepository.findSnapshotJson(boardId)
+                .orElseThrow(() -> new AppException(ErrorCode.BOARD_NOT_FOUND));
+    }
+}
@@ -1,30 +1,42 @@
 package com.namdang.memos.service.impl;
 
+import com.namdang.memos.dto.requests.invite.BulkProjectInviteRequest;
 import com.namdang.memos.dto.requests.invite.ProjectInviteRequest;
+import com.namdang.memos.dto.responses.invite.BulkInviteResponse;
+import com.namdang.memos.dto.responses.invite.BulkInviteResult;
 import com.namdang.memos.dto.responses.invite.InviteInfoResponse;
 import com.namdang.memos.dto.responses.project.ProjectMemberResponse;
 import com.namdang.memos.entity.Account;
 import com.namdang.memos.entity.Project;
 import com.namdang.memos.entity.ProjectMember;
+import com.namdang.memos.enumType.BulkInviteStatus;
 import com.namdang.memos.enumType.InviteStatus;
 import com.namdang.memos.enumType.ProjectRole;
 import com.namdang.memos.exception.AppException;
+import com.namdang.memos.event.ProjectMembershipChangedEvent;
 import com.namdang.memos.exception.ErrorCode;
 import com.namdang.memos.mapper.project.InviteMapper;
 import com.namdang.memos.mapper.project.ProjectMemberMapper;
 import com.namdang.memos.repository.AccountRepository;
 import com.namdang.memos.repository.ProjectMemberRepository;
 import com.namdang.memos.repository.ProjectRepository;
+import com.namdang.memos.security.AuthorizationContext;
 import com.namdang.memos.service.InviteService;
-import com.namdang.memos.service.MailService;
+import com.namdang.memos.service.MailOutboxService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -35,9 +47,17 @@ public class InviteServiceImpl implements InviteService {
     ProjectMemberRepository projectMemberRepository;
     ProjectMemberMapper projectMemberMapper;
     InviteMapper inviteMapper;
-    MailService mailService;
+    MailOutboxService mailOutboxService;
+    AuthorizationContext authorizationContext;
+    ApplicationEventPublisher eventPublisher;
 
     static int INVITE_EXPIRE_DAYS = 7;
+    // deliberately loose, the invite mail itself is the real check
+    static Pattern EMAIL_PATTERN = Pattern.compile("^[^\\s@]+@[^\\s@]+\\.[^\\s@]+$");
+
+    @NonFinal
+    @Value("${memos.invite.bulk-max-emails:500}")
+    int bulkMaxEmails;
 
     @Override
     @Transactional
@@ -45,7 +65,8 @@ public class InviteServiceImpl implements InviteService {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new AppException(ErrorCode.PROJECT_NOT_FOUND));
 
-        Account projectOwner = accountRepository.findByEmail(email)
+        // already resolved by canInviteToProject in this request
+        Account projectOwner = authorizationContext.currentAccount(email)
                 .orElseThrow(() -> new AppException(ErrorCode.INVALID_EMAIL));
 
         // check if user is already have account or not
@@ -60,21 +81,13 @@ public class InviteServiceImpl implements InviteService {
             throw new AppException(ErrorCode.INVITE_ALREADY_SENT);
         }
 
-        ProjectMember member = new ProjectMember();
-        member.setProject(project);
-        member.setRole(ProjectRole.MEMBER);
-        member.setInvitedEmail(request.getTargetUserEmail());
-        member.setInvitedStatus(InviteStatus.PENDING);
-        member.setInviteToken(UUID.randomUUID().toString());
-        member.setInviteExpiredAt(LocalDateTime.now().plusDays(INVITE_EXPIRE_DAYS));
-
-        if(existingAccount != null) {
-            member.setAccount(existingAccount);
-        }
+        ProjectMember member = newInvite(project, request.getTargetUserEmail(), existingAccount);
         projectMemberRepository.save(member);
+        publishMembershipChanged(member);
 
+        // sent by MailOutboxDispatcher after commit, no SMTP round trip inside this transaction
         String inviterName = projectOwner.getEmail();
-        mailService.sendProjectInviteMail(
+        mailOutboxService.enqueueProjectInvite(
                 request.getTargetUserEmail(),
                 project.getName(),
                 inviterName,
@@ -83,6 +96,91 @@ public class InviteServiceImpl implements InviteService {
         return projectMemberMapper.mapToProjectMemberResponse(member);
     }
 
+    // same rules as createInvite, checked for the whole list with a fixed number of queries:
+    // accounts by email, existing members, pending invites, then one JDBC batch for members and one for mails
+    @Override
+    @Transactional
+    public BulkInviteResponse createInvites(BulkProjectInviteRequest request, String email, UUID projectId) {
+        List<String> requestedEmails = request.getTargetUserEmails() == null ? List.of() : request.getTargetUserEmails();
+        if(requestedEmails.size() > bulkMaxEmails) {
+            throw new AppException(ErrorCode.BULK_INVITE_TOO_LARGE);
+        }
+
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new AppException(ErrorCode.PROJECT_NOT_FOUND));
+        Account projectOwner = authorizationContext.currentAccount(email)
+                .orElseThrow(() -> new AppException(ErrorCode.INVALID_EMAIL));
+
+        // syntax and duplicates first, no query needed
+        BulkInviteResult[] results = new BulkInviteResult[requestedEmails.size()];
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        Set<String> seen = new HashSet<>();
+        for(int i = 0; i < requestedEmails.size(); i++) {
+            String targetEmail = requestedEmails.get(i) == null ? "" : requestedEmails.get(i).trim();
+            if(!EMAIL_PATTERN.matcher(targetEmail).matches()) {
+                results[i] = bulkResult(targetEmail, BulkInviteStatus.INVALID_EMAIL, null);
+            } else if(!seen.add(targetEmail.toLowerCase(Locale.ROOT))) {
+                results[i] = bulkResult(targetEmail, BulkInviteStatus.DUPLICATE, null);
+            } else {
+                candidates.put(targetEmail, i);
+            }
+        }
+
+        int invitedCount = 0;
+        if(!candidates.isEmpty()) {
+            Map<String, Account> accounts = accountRepository.findByEmailIn(candidates.keySet()).stream()
+                    .collect(Collectors.toMap(Account::getEmail, Function.identity()));
+            Set<UUID> memberAccountIds = accounts.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(projectMemberRepository.findAccountIdsInProject(
+                            projectId, accounts.values().stream().map(Account::getId).toList()));
+            Set<String> pendingEmails = new HashSet<>(
+                    projectMemberRepository.findPendingInvitedEmails(projectId, candidates.keySet()));
+
+            List<ProjectMember> members = new ArrayList<>();
+            List<Integer> memberIndexes = new ArrayList<>();
+            Map<String, String> inviteTokens = new LinkedHashMap<>();
+            for(Map.Entry<String, Integer> candidate : candidates.entrySet()) {
+                String targetEmail = candidate.getKey();
+                Account existingAccount = accounts.get(targetEmail);
+                if(existingAccount != null && memberAccountIds.contains(existingAccount.getId())) {
+                    results[candidate.getValue()] = bulkResult(targetEmail, BulkInviteStatus.ALREADY_MEMBER, null);
+                } else if(pendingEmails.contains(targetEmail)) {
+                    results[candidate.getValue()] = bulkResult(targetEmail, BulkInviteStatus.ALREADY_INVITED, null);
+                } else {
+                    ProjectMember member = newInvite(project, targetEmail, existingAccount);
+                    members.add(member);
+                    memberIndexes.add(candidate.getValue());
+                    inviteTokens.put(targetEmail, member.getInviteToken());
+                }
+            }
+
+            if(!members.isEmpty()) {
+                projectMemberRepository.saveAll(members);
+                // only the invited accounts: one set-based version bump, other members keep their tokens and cache
+                List<UUID> invitedAccountIds = members.stream()
+                        .filter(member -> member.getAccount() != null)
+                        .map(member -> member.getAccount().getId())
+                        .toList();
+                if(!invitedAccountIds.isEmpty()) {
+                    eventPublisher.publishEvent(ProjectMembershipChangedEvent.ofAccounts(projectId, invitedAccountIds));
+                }
+                mailOutboxService.enqueueProjectInvites(project.getName(), projectOwner.getEmail(), inviteTokens);
+            }
+            for(int i = 0; i < members.size(); i++) {
+                ProjectMember member = members.get(i);
+                results[memberIndexes.get(i)] = bulkResult(member.getInvitedEmail(), BulkInviteStatus.INVITED,
+                        projectMemberMapper.mapToProjectMemberResponse(member));
+            }
+            invitedCount = members.size();
+        }
+
+        return BulkInviteResponse.builder()
+                .invitedCount(invitedCount)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
     @Override
     @Transactional
     public InviteInfoResponse getInviteInfo(String token) {
@@ -118,6 +216,7 @@ public class InviteServiceImpl implements InviteService {
         projectMember.setJoinedAt(LocalDateTime.now());
         projectMember.setInvitedStatus(InviteStatus.ACCEPTED);
         projectMember.setInviteToken(null);
+        publishMembershipChanged(projectMember);
 
         return projectMemberMapper.mapToProjectMemberResponse(projectMember);
     }
@@ -135,5 +234,38 @@ public class InviteServiceImpl implements InviteService {
         }
         projectMember.setInvitedStatus(InviteStatus.DECLINED);
         projectMember.setInviteToken(null);
+        publishMembershipChanged(projectMember);
+    }
+
+    private static ProjectMember newInvite(Project project, String targetEmail, Account existingAccount) {
+        ProjectMember member = new ProjectMember();
+        member.setProject(project);
+        member.setRole(ProjectRole.MEMBER);
+        member.setInvitedEmail(targetEmail);
+        member.setInvitedStatus(InviteStatus.PENDING);
+        member.setInviteToken(UUID.randomUUID().toString());
+        member.setInviteExpiredAt(LocalDateTime.now().plusDays(INVITE_EXPIRE_DAYS));
+
+        if(existingAccount != null) {
+            member.setAccount(existingAccount);
+        }
+        return member;
+    }
+
+    private static BulkInviteResult bulkResult(String email, BulkInviteStatus status, ProjectMemberResponse member) {
+        return BulkInviteResult.builder()
+                .email(email)
+                .status(status)
+                .member(member)
+                .build();
+    }
+
+    // membership cache of every node drops this (project, account) after commit
+    private void publishMembershipChanged(ProjectMember member) {
+        if(member.getProject() == null || member.getAccount() == null) {
+            return;
+        }
+        eventPublisher.publishEvent(
+                new ProjectMembershipChangedEvent(member.getProject().getId(), member.getAccount().getId()));
     }
 }
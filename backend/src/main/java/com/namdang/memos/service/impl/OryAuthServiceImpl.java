@@ -12,6 +12,9 @@ import com.namdang.memos.exception.AppException;
 import com.namdang.memos.exception.ErrorCode;
 import com.namdang.memos.repository.AccountRepository;
 import com.namdang.memos.repository.RoleRepository;
+import com.namdang.memos.security.AuthorityGraph;
+import com.namdang.memos.security.OrySessionCache;
+import com.namdang.memos.security.OrySessionCache.OryIdentity;
 import com.namdang.memos.service.AuthenticationService;
 import com.namdang.memos.service.OryAuthService;
 import jakarta.transaction.Transactional;
@@ -23,11 +26,13 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.Locale;
+import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -41,6 +46,8 @@ public class OryAuthServiceImpl implements OryAuthService {
     private final AccountRepository accountRepository;
     private final RoleRepository roleRepository;
     private final AuthenticationService authenticationService;
+    private final OrySessionCache orySessionCache;
+    private final AuthorityGraph authorityGraph;
 
     // function to read user session info base on ory cookies
     @Override
@@ -50,7 +57,17 @@ public class OryAuthServiceImpl implements OryAuthService {
         HttpHeaders headers = new HttpHeaders();
         headers.set(HttpHeaders.COOKIE, cookie);
         HttpEntity<Void> request = new HttpEntity<>(headers);
-        return restTemplate.exchange(url, HttpMethod.GET, request, OryResponse.class);
+        try {
+            return restTemplate.exchange(url, HttpMethod.GET, request, OryResponse.class);
+        } catch (HttpClientErrorException.Unauthorized e) {
+            // Ory: no active session for this cookie
+            orySessionCache.evict(cookieName, cookieValue);
+            throw new AppException(ErrorCode.INVALID_ORY_COOKIES);
+        } catch (ResourceAccessException e) {
+            // connect / pool / read timeout (see OryHttpClientConfig) or connection refused
+            log.warn("Ory whoami failed: {}", e.getMessage());
+            throw new AppException(ErrorCode.ORY_UNAVAILABLE);
+        }
     }
 
     // After get session info, create or read user
@@ -61,19 +78,11 @@ public class OryAuthServiceImpl implements OryAuthService {
         if(cookieValue == null || cookieValue.isBlank() || cookieName == null || cookieName.isBlank()) {
             throw new AppException(ErrorCode.MISSING_ORY_COOKIES);
         }
-        ResponseEntity<OryResponse> response = callWhoAmI(cookieName, cookieValue);
-
-        OryResponse session = response.getBody();
-        if (session == null || !session.isActive() || session.getIdentity() == null
-                || session.getIdentity().getTraits() == null
-                || session.getIdentity().getTraits().getEmail() == null) {
-            throw new AppException(ErrorCode.INVALID_ORY_COOKIES);
-        }
-        System.out.println(session);
+        OryIdentity oryIdentity = resolveSession(cookieName, cookieValue);
 
-        String identityId = session.getIdentity().getId();
-        String email = session.getIdentity().getTraits().getEmail();
-        AuthProvider provider = resolveProvider(session);
+        String identityId = oryIdentity.identityId();
+        String email = oryIdentity.email();
+        AuthProvider provider = oryIdentity.provider();
 
         // in my application, when some OIDC login request occur, I try to look
         // for the oryIdentity 1st, since it unique, after that is look for mail
@@ -141,14 +150,8 @@ public class OryAuthServiceImpl implements OryAuthService {
         }
         TokenPair tokenPair = authenticationService.generateTokenPair(user);
 
-        user.getRoles().forEach(r -> r.getPermissions().size());
-
-        String roleName = user.getRoles().iterator().next().getName();
-
-        Set<String> permissionNames = user.getRoles().stream()
-                .flatMap(r -> r.getPermissions().stream())
-                .map(p -> p.getName())
-                .collect(Collectors.toSet());
+        String roleName = authorityGraph.primaryRole(user);
+        Set<String> permissionNames = authorityGraph.permissions(user);
         RegisterResponse registerResponse = RegisterResponse.builder()
                 .accessToken(tokenPair.getAccessToken())
                 .role(roleName)
@@ -161,6 +164,32 @@ public class OryAuthServiceImpl implements OryAuthService {
                 .build();
     }
 
+    // whoami result of this cookie, from OrySessionCache when it was resolved a moment ago
+    private OryIdentity resolveSession(String cookieName, String cookieValue) {
+        Optional<OryIdentity> cached = orySessionCache.get(cookieName, cookieValue);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        OryResponse session = callWhoAmI(cookieName, cookieValue).getBody();
+        if (session == null || !session.isActive() || session.getIdentity() == null
+                || session.getIdentity().getTraits() == null
+                || session.getIdentity().getTraits().getEmail() == null) {
+            // e.g. logged out / revoked in Ory: a concurrent request may have cached it while still active
+            orySessionCache.evict(cookieName, cookieValue);
+            throw new AppException(ErrorCode.INVALID_ORY_COOKIES);
+        }
+        log.debug("Resolved Ory session {}", session.getId());
+
+        OryIdentity oryIdentity = new OryIdentity(
+                session.getIdentity().getId(),
+                session.getIdentity().getTraits().getEmail(),
+                resolveProvider(session),
+                session.getExpiresAt() == null ? null : session.getExpiresAt().toInstant());
+        orySessionCache.put(cookieName, cookieValue, oryIdentity);
+        return oryIdentity;
+    }
+
     // helpers to map provider of my app (my business logic)
     // if user login by email + password --> local
     // if user login by ory, map base on oidc. ex: facebook --> FACEBOOK
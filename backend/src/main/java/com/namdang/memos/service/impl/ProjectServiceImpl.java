@@ -1,29 +1,40 @@
 package com.namdang.memos.service.impl;
 
 import com.namdang.memos.dto.requests.project.CreateProjectRequest;
+import com.namdang.memos.dto.requests.project.ProjectCursor;
 import com.namdang.memos.dto.responses.project.CreateProjectResponse;
+import com.namdang.memos.dto.responses.project.ProjectPageResponse;
 import com.namdang.memos.entity.Account;
 import com.namdang.memos.entity.Project;
 import com.namdang.memos.entity.ProjectMember;
 import com.namdang.memos.enumType.InviteStatus;
 import com.namdang.memos.enumType.ProjectRole;
 import com.namdang.memos.exception.AppException;
+import com.namdang.memos.event.ProjectMembershipChangedEvent;
 import com.namdang.memos.exception.ErrorCode;
 import com.namdang.memos.mapper.project.ProjectMapper;
-import com.namdang.memos.repository.AccountRepository;
 import com.namdang.memos.repository.ProjectMemberRepository;
 import com.namdang.memos.repository.ProjectRepository;
-import com.namdang.memos.security.UserPermission;
+import com.namdang.memos.repository.projection.MemberProjectView;
+import com.namdang.memos.security.AuthorityResolver;
+import com.namdang.memos.security.AuthorizationContext;
+import com.namdang.memos.security.MembershipCache;
+import com.namdang.memos.service.ProjectKeyAllocator;
 import com.namdang.memos.service.ProjectService;
 import com.namdang.memos.validator.ProjectValidator;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 
@@ -34,17 +45,28 @@ public class ProjectServiceImpl implements ProjectService {
 
     ProjectRepository projectRepository;
     ProjectMemberRepository projectMemberRepository;
-    AccountRepository accountRepository;
     ProjectMapper projectMapper;
     ProjectValidator projectValidator;
-    UserPermission userPermission;
+    AuthorityResolver authorityResolver;
+    AuthorizationContext authorizationContext;
+    MembershipCache membershipCache;
+    ApplicationEventPublisher eventPublisher;
+    ProjectKeyAllocator projectKeyAllocator;
+
+    @NonFinal
+    @Value("${memos.projects.page-size.default:50}")
+    int defaultPageSize;
+
+    @NonFinal
+    @Value("${memos.projects.page-size.max:200}")
+    int maxPageSize;
 
     // Rule:
-    // If name has one word --> get 2 chars + (countProject + 1)
+    // If name has one word --> get 2 chars + next number of ProjectKeyAllocator
     // Ex: Test --> TE-1
-    // If name has more than one word --> get 1st chars of words (max 3) + (countProject + 1)
-    // Ex: Test Project --> TP-1
-    // Ex: Test Project Memos Final --> TPM-1
+    // If name has more than one word --> get 1st chars of words (max 3) + next number of ProjectKeyAllocator
+    // Ex: Test Project --> TP-2
+    // Ex: Test Project Memos Final --> TPM-3
     private String generateProjectKey(String projectName) {
         if(projectName == null || projectName.trim().isEmpty()) {
             projectName = "PROJECT";
@@ -75,8 +97,7 @@ public class ProjectServiceImpl implements ProjectService {
         if(prefix.isEmpty()) {
             prefix = "PR";
         }
-        long count = projectRepository.count();
-        long nextNumber = count + 1;
+        long nextNumber = projectKeyAllocator.nextNumber();
 
         return prefix + "-" + nextNumber;
     }
@@ -86,7 +107,7 @@ public class ProjectServiceImpl implements ProjectService {
     @Transactional
     public void createProject(CreateProjectRequest request, String creatorEmail) {
         projectValidator.validatorProjectName(request.getName());
-        Account projectCreator = accountRepository.findByEmail(creatorEmail)
+        Account projectCreator = authorizationContext.currentAccount(creatorEmail)
                 .orElseThrow(() -> new AppException(ErrorCode.INVALID_EMAIL));
 
         Project project = projectMapper.mapToProject(request);
@@ -104,6 +125,7 @@ public class ProjectServiceImpl implements ProjectService {
         owner.setInvitedStatus(InviteStatus.ACCEPTED);
 
         projectMemberRepository.save(owner);
+        eventPublisher.publishEvent(new ProjectMembershipChangedEvent(project.getId(), projectCreator.getId()));
     }
 
     // soft delete project
@@ -118,6 +140,7 @@ public class ProjectServiceImpl implements ProjectService {
 
         project.setArchived(true);
         projectRepository.save(project);
+        eventPublisher.publishEvent(ProjectMembershipChangedEvent.ofProject(projectId));
     }
 
     @Override
@@ -151,33 +174,82 @@ public class ProjectServiceImpl implements ProjectService {
         return projectMapper.mapToCreateProjectResponse(project);
     }
 
-    // get all projects
+    // get one page of projects (admin --> every active project, member --> own accepted memberships)
     @Override
-    @Transactional
-    public List<CreateProjectResponse> getProjects(String email) {
-        if(userPermission.isAdminByEmail(email)) {
-            return getProjectsForAdmin();
+    @Transactional(readOnly = true)
+    public ProjectPageResponse getProjects(String email, String cursor, Integer size, String namePrefix) {
+        ProjectCursor after = ProjectCursor.decode(cursor);
+        int pageSize = resolvePageSize(size);
+        String namePattern = toNamePattern(namePrefix);
+        // one extra row tells whether there is a next page
+        Limit limit = Limit.of(pageSize + 1);
+        if(authorityResolver.isAdmin(email)) {
+            return getProjectsForAdmin(after, namePattern, limit, pageSize);
         } else {
-            return getProjectForMember(email);
+            return getProjectForMember(email, after, namePattern, limit, pageSize);
         }
     }
 
-    private List<CreateProjectResponse> getProjectsForAdmin() {
-        return projectRepository.findByArchivedFalse()
-                .stream()
-                .map(projectMapper::mapToCreateProjectResponse)
-                .toList();
+    private int resolvePageSize(Integer size) {
+        if(size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
     }
 
-    private List<CreateProjectResponse> getProjectForMember(String email) {
-        Account account = accountRepository.findByEmail(email)
+    // prefix match on lower(name), LIKE wildcards typed by the user are taken literally
+    private static String toNamePattern(String namePrefix) {
+        if(namePrefix == null || namePrefix.isBlank()) {
+            return "%";
+        }
+        String escaped = namePrefix.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return escaped + "%";
+    }
+
+    private ProjectPageResponse getProjectsForAdmin(
+            ProjectCursor after, String namePattern, Limit limit, int pageSize) {
+        List<Project> rows = after == null
+                ? projectRepository.findActivePage(namePattern, limit)
+                : projectRepository.findActivePageAfter(namePattern, after.createdAt(), after.id(), limit);
+        List<Project> page = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if(rows.size() > pageSize) {
+            Project last = page.get(page.size() - 1);
+            nextCursor = new ProjectCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return ProjectPageResponse.builder()
+                .items(page.stream().map(projectMapper::mapToCreateProjectResponse).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private ProjectPageResponse getProjectForMember(
+            String email, ProjectCursor after, String namePattern, Limit limit, int pageSize) {
+        Account account = authorizationContext.currentAccount(email)
                 .orElseThrow(() -> new AppException(ErrorCode.INVALID_EMAIL));
-        return projectMemberRepository.findByAccountId(account.getId())
-                .stream()
-                .map(ProjectMember::getProject)
-                .filter(project -> !project.isArchived())
-                .map(projectMapper::mapToCreateProjectResponse)
-                .toList();
+        long cacheGeneration = membershipCache.generation();
+        List<MemberProjectView> rows = after == null
+                ? projectMemberRepository.findActiveProjectsOfMember(account.getId(), namePattern, limit)
+                : projectMemberRepository.findActiveProjectsOfMemberAfter(
+                        account.getId(), namePattern, after.createdAt(), after.id(), limit);
+        List<MemberProjectView> page = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if(rows.size() > pageSize) {
+            MemberProjectView last = page.get(page.size() - 1);
+            nextCursor = new ProjectCursor(last.createdAt(), last.id()).encode();
+        }
+        // the roles were loaded anyway: warm the membership cache for the project pages opened next
+        // (skipped if a membership change was evicted since the query, see MembershipCache.warm)
+        page.forEach(view -> membershipCache.warm(cacheGeneration, view.id(), account.getId(), view.role()));
+        return ProjectPageResponse.builder()
+                .items(page.stream()
+                        .map(projectMapper::mapMemberProjectToCreateProjectResponse)
+                        .toList())
+                .nextCursor(nextCursor)
+                .build();
     }
 
 }
@@ -0,0 +1,165 @@
+package com.namdang.memos.service.impl;
+
+import com.namdang.memos.dto.requests.task.MoveTasksRequest;
+import com.namdang.memos.dto.requests.task.TaskMoveRequest;
+import com.namdang.memos.dto.responses.task.TaskMoveResponse;
+import com.namdang.memos.entity.Account;
+import com.namdang.memos.enumType.TaskActivityType;
+import com.namdang.memos.exception.AppException;
+import com.namdang.memos.exception.ErrorCode;
+import com.namdang.memos.repository.TaskMoveRepository;
+import com.namdang.memos.repository.TaskMoveRepository.MovedTask;
+import com.namdang.memos.repository.TaskMoveRepository.MovingTask;
+import com.namdang.memos.repository.TaskMoveRepository.RenumberedTask;
+import com.namdang.memos.security.AuthorizationContext;
+import com.namdang.memos.service.PositionAllocator.OrderedList;
+import com.namdang.memos.service.TaskActivityWriter;
+import com.namdang.memos.service.TaskActivityWriter.Event;
+import com.namdang.memos.service.TaskService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class TaskServiceImpl implements TaskService {
+    TaskMoveRepository taskMoveRepository;
+    TaskActivityWriter taskActivityWriter;
+    AuthorizationContext authorizationContext;
+
+    @NonFinal
+    @Value("${memos.task.move.max-batch:200}")
+    int maxMoves;
+
+    // Multi-select drag / column sort: every move is placed in memory on the locked target lists,
+    // then written with one batched UPDATE (version checked per row), activities are buffered by TaskActivityWriter
+    // Nothing is locked between requests: a client that moved from an old snapshot gets TASK_VERSION_CONFLICT
+    // WIP limits are checked on the counters the whole batch leaves behind (V14), not row by row: swapping cards
+    // between two full columns is fine --> WIP_LIMIT_EXCEEDED, whole batch rolled back
+    @Override
+    @Transactional
+    public List<TaskMoveResponse> moveTasks(UUID boardId, MoveTasksRequest request, String email) {
+        List<TaskMoveRequest> moves = request.getMoves() == null ? List.of() : request.getMoves();
+        if (moves.isEmpty()) {
+            return List.of();
+        }
+        if (moves.size() > maxMoves) {
+            throw new AppException(ErrorCode.TASK_MOVE_BATCH_TOO_LARGE);
+        }
+        Set<UUID> taskIds = new LinkedHashSet<>();
+        Set<UUID> featureIds = new HashSet<>();
+        for (TaskMoveRequest move : moves) {
+            if (move == null || move.getTaskId() == null || move.getToFeatureId() == null || move.getVersion() == null
+                    || move.getTaskId().equals(move.getPreviousTaskId()) || !taskIds.add(move.getTaskId())) {
+                throw new AppException(ErrorCode.INVALID_TASK_MOVE);
+            }
+            featureIds.add(move.getToFeatureId());
+        }
+        UUID actorId = authorizationContext.currentAccount(email)
+                .map(Account::getId)
+                .orElseThrow(() -> new AppException(ErrorCode.INVALID_ACCOUNT));
+
+        Map<UUID, MovingTask> current = taskMoveRepository.findMovingTasks(boardId, taskIds);
+        if (current.size() != taskIds.size()) {
+            throw new AppException(ErrorCode.TASK_NOT_FOUND);
+        }
+        for (TaskMoveRequest move : moves) {
+            if (current.get(move.getTaskId()).version() != move.getVersion()) {
+                throw new AppException(ErrorCode.TASK_VERSION_CONFLICT);
+            }
+        }
+
+        // target lists are locked for the rest of the transaction: concurrent moves into them wait here
+        // source features too (their WIP counters are decremented), all in id order --> no lock cycle between batches
+        Set<UUID> lockIds = new HashSet<>(featureIds);
+        current.values().forEach(task -> lockIds.add(task.featureId()));
+        if (!taskMoveRepository.lockFeatures(boardId, lockIds).containsAll(featureIds)) {
+            throw new AppException(ErrorCode.FEATURE_NOT_FOUND);
+        }
+
+        Map<UUID, OrderedList> lists = taskMoveRepository.findOrderedLists(featureIds);
+        LocalDateTime now = LocalDateTime.now();
+        Map<UUID, LocalDateTime> completedAt = new HashMap<>();
+        for (TaskMoveRequest move : moves) {
+            MovingTask task = current.get(move.getTaskId());
+            lists.values().forEach(list -> list.remove(task.id()));
+            lists.get(move.getToFeatureId()).insertAfter(move.getPreviousTaskId(), task.id());
+            completedAt.put(task.id(), completedAt(task.completedAt(), move.getCompleted(), now));
+        }
+
+        // final positions: a later move may have renumbered the list an earlier one landed in
+        List<MovedTask> moved = new ArrayList<>();
+        List<TaskMoveResponse> responses = new ArrayList<>();
+        List<Event> activities = new ArrayList<>();
+        for (TaskMoveRequest move : moves) {
+            MovingTask task = current.get(move.getTaskId());
+            OrderedList list = lists.get(move.getToFeatureId());
+            MovedTask movedTask = new MovedTask(task.id(), move.getToFeatureId(), list.position(task.id()),
+                    completedAt.get(task.id()), task.version());
+            moved.add(movedTask);
+            responses.add(TaskMoveResponse.builder()
+                    .taskId(task.id())
+                    .featureId(movedTask.featureId())
+                    .position(movedTask.position())
+                    .version(task.version() + 1)
+                    .completedAt(movedTask.completedAt())
+                    .build());
+            activities.addAll(activities(task, movedTask, actorId));
+        }
+
+        List<RenumberedTask> renumbered = new ArrayList<>();
+        lists.forEach((featureId, list) -> list.renumbered().forEach((id, position) -> {
+            if (!taskIds.contains(id)) {
+                renumbered.add(new RenumberedTask(id, featureId, position));
+            }
+        }));
+
+        // id order: two batches sharing tasks lock the rows in the same order
+        moved.sort(Comparator.comparing(MovedTask::id));
+        if (!taskMoveRepository.updateMoved(moved).isEmpty()) {
+            throw new AppException(ErrorCode.TASK_VERSION_CONFLICT);
+        }
+        // a neighbour that left its list meanwhile: the order this batch computed is stale
+        if (!taskMoveRepository.updatePositions(renumbered).isEmpty()) {
+            throw new AppException(ErrorCode.TASK_VERSION_CONFLICT);
+        }
+        taskMoveRepository.checkWipLimits();
+        taskActivityWriter.append(activities);
+        return responses;
+    }
+
+    private static LocalDateTime completedAt(LocalDateTime current, Boolean completed, LocalDateTime now) {
+        if (completed == null) {
+            return current;
+        }
+        if (completed) {
+            return current != null ? current : now;
+        }
+        return null;
+    }
+
+    // TASK_MOVED for every move (reorder inside a feature too), TASK_COMPLETED / TASK_REOPENED when that changed
+    private List<Event> activities(MovingTask task, MovedTask moved, UUID actorId) {
+        String payload = taskActivityWriter.payload(Map.of("position", moved.position(), "version", task.version() + 1));
+        List<Event> activities = new ArrayList<>(2);
+        activities.add(activity(task, moved, actorId, TaskActivityType.TASK_MOVED, payload));
+        if (task.completedAt() == null && moved.completedAt() != null) {
+            activities.add(activity(task, moved, actorId, TaskActivityType.TASK_COMPLETED, payload));
+        } else if (task.completedAt() != null && moved.completedAt() == null) {
+            activities.add(activity(task, moved, actorId, TaskActivityType.TASK_REOPENED, payload));
+        }
+        return activities;
+    }
+
+    private static Event activity(MovingTask task, MovedTask moved, UUID actorId, TaskActivityType type, String payload) {
+        return new Event(task.projectId(), task.id(), actorId, type, task.featureId(), moved.featureId(), payload);
+    }
+}
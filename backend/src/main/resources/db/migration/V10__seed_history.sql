@@ -0,0 +1,8 @@
+-- SEED HISTORY
+-- one row per seed descriptor (resources seed/<name>.json) applied by StartupSeeder
+-- content_hash = sha-256 of the descriptor file: same hash on the next boot --> descriptor skipped, no queries
+CREATE TABLE IF NOT EXISTS seed_history (
+    name            VARCHAR(100) PRIMARY KEY,
+    content_hash    VARCHAR(64) NOT NULL,
+    applied_at      TIMESTAMP NOT NULL DEFAULT now()
+);
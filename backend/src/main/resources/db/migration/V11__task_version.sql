@@ -0,0 +1,3 @@
+-- optimistic concurrency for task moves: a client sends back the version it last saw (board snapshot),
+-- the move only applies while the row still has it
+ALTER TABLE task ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,56 @@
+-- active (not deleted, not archived) tasks per feature, maintained by trg_task_active_count
+-- read by the board snapshot and by the WIP limit check instead of COUNT(*) over task
+ALTER TABLE feature ADD COLUMN IF NOT EXISTS active_task_count INT NOT NULL DEFAULT 0;
+
+UPDATE feature f
+SET active_task_count = c.cnt
+FROM (
+    SELECT feature_id, count(*) AS cnt
+    FROM task
+    WHERE is_deleted = false AND is_archived = false
+    GROUP BY feature_id
+) c
+WHERE f.id = c.feature_id;
+
+-- A task entering a feature (insert, move, restore from archive / soft delete) increments the counter
+-- only while it stays within wip_limit: the UPDATE takes the feature row lock and re-checks the condition
+-- on the latest row, so two concurrent moves into a full column cannot both pass
+-- Leaving a feature always decrements
+-- Lowering wip_limit below the current count is allowed, the column just accepts nothing until it drains
+CREATE OR REPLACE FUNCTION task_active_count()
+RETURNS TRIGGER AS $$
+DECLARE
+    was_active BOOLEAN := false;
+    is_active  BOOLEAN := false;
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        was_active := NOT OLD.is_deleted AND NOT OLD.is_archived;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        is_active := NOT NEW.is_deleted AND NOT NEW.is_archived;
+    END IF;
+    -- same feature, same state (reorder, title change ...) --> nothing to count
+    IF TG_OP = 'UPDATE' AND was_active = is_active AND OLD.feature_id = NEW.feature_id THEN
+        RETURN NULL;
+    END IF;
+
+    IF was_active THEN
+        UPDATE feature SET active_task_count = active_task_count - 1 WHERE id = OLD.feature_id;
+    END IF;
+
+    IF is_active THEN
+        UPDATE feature SET active_task_count = active_task_count + 1
+        WHERE id = NEW.feature_id
+          AND (wip_limit IS NULL OR active_task_count < wip_limit);
+        IF NOT FOUND AND EXISTS (SELECT 1 FROM feature WHERE id = NEW.feature_id) THEN
+            -- SQLSTATE MW001 --> ErrorCode.WIP_LIMIT_EXCEEDED (GlobalExceptionHandler)
+            RAISE EXCEPTION 'WIP limit reached for feature %', NEW.feature_id USING ERRCODE = 'MW001';
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_task_active_count
+AFTER INSERT OR DELETE OR UPDATE OF feature_id, is_deleted, is_archived ON task
+FOR EACH ROW EXECUTE FUNCTION task_active_count();
@@ -0,0 +1,8 @@
+-- INVALIDATED TOKEN revoke time
+-- every node polls the rows revoked since its last sync (TokenRevocationIndex.sync) so a logout / refresh
+-- rotation done on another node reaches its revocation filter within seconds instead of at the next full reload
+ALTER TABLE invalidated_token
+ADD COLUMN IF NOT EXISTS revoked_at TIMESTAMP NOT NULL DEFAULT now();
+
+CREATE INDEX IF NOT EXISTS idx_invalidated_token_revoked_at
+ON invalidated_token (revoked_at);
@@ -0,0 +1,59 @@
+-- WIP limit checked on the final counts of the transaction instead of row by row
+-- V12 rejected a task entering a full feature inside its own row trigger, so a batch whose end state respects
+-- every limit could still fail on the order its rows were written (two full columns swapping one card each:
+-- whichever row goes first enters a column the other one has not left yet)
+-- Now the row trigger only maintains the counter and a deferred constraint trigger on feature compares it
+-- with wip_limit at commit (or at SET CONSTRAINTS trg_feature_wip_limit IMMEDIATE, see TaskMoveRepository)
+-- The increment still takes the feature row lock until commit: a concurrent move into the same column waits,
+-- then counts on top of the committed value, so two moves into a full column cannot both pass
+CREATE OR REPLACE FUNCTION task_active_count()
+RETURNS TRIGGER AS $$
+DECLARE
+    was_active BOOLEAN := false;
+    is_active  BOOLEAN := false;
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        was_active := NOT OLD.is_deleted AND NOT OLD.is_archived;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        is_active := NOT NEW.is_deleted AND NOT NEW.is_archived;
+    END IF;
+    -- same feature, same state (reorder, title change ...) --> nothing to count
+    IF TG_OP = 'UPDATE' AND was_active = is_active AND OLD.feature_id = NEW.feature_id THEN
+        RETURN NULL;
+    END IF;
+
+    IF was_active THEN
+        UPDATE feature SET active_task_count = active_task_count - 1 WHERE id = OLD.feature_id;
+    END IF;
+
+    IF is_active THEN
+        UPDATE feature SET active_task_count = active_task_count + 1 WHERE id = NEW.feature_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- reads the row as it is when the check runs, not as it was when the event was queued
+-- Lowering wip_limit below the current count is still allowed, the column just accepts nothing until it drains
+CREATE OR REPLACE FUNCTION feature_wip_limit_check()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF EXISTS (
+        SELECT 1 FROM feature
+        WHERE id = NEW.id AND wip_limit IS NOT NULL AND active_task_count > wip_limit
+    ) THEN
+        -- SQLSTATE MW001 --> ErrorCode.WIP_LIMIT_EXCEEDED (GlobalExceptionHandler)
+        RAISE EXCEPTION 'WIP limit reached for feature %', NEW.id USING ERRCODE = 'MW001';
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- only counters that went up can break a limit
+CREATE CONSTRAINT TRIGGER trg_feature_wip_limit
+AFTER UPDATE OF active_task_count ON feature
+DEFERRABLE INITIALLY DEFERRED
+FOR EACH ROW
+WHEN (NEW.active_task_count > OLD.active_task_count)
+EXECUTE FUNCTION feature_wip_limit_check();
@@ -0,0 +1,83 @@
+-- INVALIDATED TOKEN partitions over rows already sitting in the default partition
+-- V5 moved the existing rows in before any daily partition existed, and rows of a day without its partition
+-- land in invalidated_token_default too. CREATE TABLE ... PARTITION OF then fails with check_violation for
+-- those days, which V5 only reported as a NOTICE: they were never partitioned and only ever purged row by row
+-- Now such a day is built aside and attached: its rows are moved out of the default partition first
+
+-- daily partition for d, true when it was created
+-- The usual case (no row of d in the default partition) is a plain CREATE ... PARTITION OF
+-- the default partition is only locked for the move when an indexed probe found rows of d there,
+-- or when one was inserted between the probe and the CREATE (check_violation)
+CREATE OR REPLACE FUNCTION create_invalidated_token_partition(d DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    part_name TEXT := 'invalidated_token_p' || to_char(d, 'YYYYMMDD');
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE relname = part_name) THEN
+        RETURN false;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM invalidated_token_default WHERE expiry_time >= d AND expiry_time < d + 1) THEN
+        BEGIN
+            EXECUTE format(
+                'CREATE TABLE %I PARTITION OF invalidated_token FOR VALUES FROM (%L) TO (%L)',
+                part_name, d, d + 1);
+            RETURN true;
+        EXCEPTION WHEN check_violation THEN
+            -- a row of this day arrived after the probe, moved below
+            NULL;
+        END;
+    END IF;
+
+    -- no insert may route another row of this day into the default partition until it is attached
+    LOCK TABLE invalidated_token_default IN ACCESS EXCLUSIVE MODE;
+    EXECUTE format('CREATE TABLE %I (LIKE invalidated_token INCLUDING DEFAULTS)', part_name);
+    EXECUTE format(
+        'WITH moved AS ('
+        || 'DELETE FROM invalidated_token_default WHERE expiry_time >= %L AND expiry_time < %L '
+        || 'RETURNING id, expiry_time, revoked_at) '
+        || 'INSERT INTO %I (id, expiry_time, revoked_at) SELECT id, expiry_time, revoked_at FROM moved',
+        d, d + 1, part_name);
+    EXECUTE format(
+        'ALTER TABLE invalidated_token ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+        part_name, d, d + 1);
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
+
+-- create daily partitions from yesterday to today + days_ahead, returns how many were created
+-- no-op when the table is not partitioned
+CREATE OR REPLACE FUNCTION ensure_invalidated_token_partitions(days_ahead INT)
+RETURNS INT AS $$
+DECLARE
+    d       DATE;
+    created INT := 0;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_class WHERE relname = 'invalidated_token' AND relkind = 'p') THEN
+        RETURN 0;
+    END IF;
+
+    FOR d IN SELECT generate_series(current_date - 1, current_date + days_ahead, INTERVAL '1 day')::DATE LOOP
+        IF create_invalidated_token_partition(d) THEN
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- days stuck in the default partition so far (V5 backfill, skipped days), whatever their distance from today
+DO $$
+DECLARE
+    d DATE;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE relname = 'invalidated_token' AND relkind = 'p') THEN
+        FOR d IN
+            SELECT DISTINCT expiry_time::DATE FROM invalidated_token_default
+            WHERE expiry_time >= current_date - 1
+            ORDER BY 1
+        LOOP
+            PERFORM create_invalidated_token_partition(d);
+        END LOOP;
+    END IF;
+END $$;
@@ -0,0 +1,87 @@
+-- INVALIDATED TOKEN housekeeping
+-- rows are useless once expiry_time has passed, the purge job deletes them in batches
+CREATE INDEX IF NOT EXISTS idx_invalidated_token_expiry_time
+ON invalidated_token (expiry_time);
+
+-- Optional layout: daily range partitions on expiry_time (spring.flyway.placeholders.token_partitioning=true)
+-- expired days are dropped as whole partitions instead of being deleted row by row
+DO $$
+BEGIN
+    IF '${token_partitioning}' = 'true' AND NOT EXISTS (
+        SELECT 1 FROM pg_class WHERE relname = 'invalidated_token' AND relkind = 'p'
+    ) THEN
+        ALTER TABLE invalidated_token RENAME TO invalidated_token_legacy;
+
+        CREATE TABLE invalidated_token (
+            id          VARCHAR(255) NOT NULL,
+            expiry_time TIMESTAMP NOT NULL,
+            PRIMARY KEY (id, expiry_time)
+        ) PARTITION BY RANGE (expiry_time);
+
+        -- catches rows outside of the pre-created daily partitions
+        CREATE TABLE invalidated_token_default PARTITION OF invalidated_token DEFAULT;
+
+        INSERT INTO invalidated_token (id, expiry_time)
+        SELECT id, expiry_time FROM invalidated_token_legacy
+        WHERE expiry_time > now();
+
+        DROP TABLE invalidated_token_legacy;
+
+        CREATE INDEX IF NOT EXISTS idx_invalidated_token_expiry_time
+        ON invalidated_token (expiry_time);
+    END IF;
+END $$;
+
+-- create daily partitions from yesterday to today + days_ahead, returns how many were created
+-- no-op when the table is not partitioned
+CREATE OR REPLACE FUNCTION ensure_invalidated_token_partitions(days_ahead INT)
+RETURNS INT AS $$
+DECLARE
+    d         DATE;
+    created   INT := 0;
+    part_name TEXT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_class WHERE relname = 'invalidated_token' AND relkind = 'p') THEN
+        RETURN 0;
+    END IF;
+
+    FOR d IN SELECT generate_series(current_date - 1, current_date + days_ahead, INTERVAL '1 day')::DATE LOOP
+        part_name := 'invalidated_token_p' || to_char(d, 'YYYYMMDD');
+        IF NOT EXISTS (SELECT 1 FROM pg_class WHERE relname = part_name) THEN
+            BEGIN
+                EXECUTE format(
+                    'CREATE TABLE %I PARTITION OF invalidated_token FOR VALUES FROM (%L) TO (%L)',
+                    part_name, d, d + 1);
+                created := created + 1;
+            EXCEPTION WHEN check_violation THEN
+                -- default partition already holds rows of this day, they are purged row by row
+                RAISE NOTICE 'Skip partition %: rows already in default partition', part_name;
+            END;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- drop daily partitions whose whole range is already expired, returns how many were dropped
+CREATE OR REPLACE FUNCTION drop_expired_invalidated_token_partitions()
+RETURNS INT AS $$
+DECLARE
+    part    RECORD;
+    dropped INT := 0;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        JOIN pg_class p ON p.oid = i.inhparent
+        WHERE p.relname = 'invalidated_token'
+          AND c.relname ~ '^invalidated_token_p[0-9]{8}$'
+          AND to_date(substring(c.relname FROM '[0-9]{8}$'), 'YYYYMMDD') + 1 <= current_date
+    LOOP
+        EXECUTE format('DROP TABLE %I', part.relname);
+        dropped := dropped + 1;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,5 @@
+-- ACCOUNT membership version
+-- bumped whenever a project_member row of the account changes,
+-- access tokens carrying a project role digest are only trusted while their version is current
+ALTER TABLE account
+ADD COLUMN IF NOT EXISTS membership_version BIGINT NOT NULL DEFAULT 0;
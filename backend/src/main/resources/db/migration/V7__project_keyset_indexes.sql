@@ -0,0 +1,15 @@
+-- PROJECT list keyset pagination: ORDER BY created_at DESC, id DESC
+-- a page after a cursor is an index range scan, deep pages cost the same as the first one
+CREATE INDEX IF NOT EXISTS idx_project_active_keyset
+ON project (created_at DESC, id DESC)
+WHERE is_archived = false;
+
+-- name prefix filter: lower(name) LIKE 'abc%'
+CREATE INDEX IF NOT EXISTS idx_project_active_name_prefix
+ON project (lower(name) text_pattern_ops)
+WHERE is_archived = false;
+
+-- member list: accepted memberships of one account
+CREATE INDEX IF NOT EXISTS idx_project_member_accepted
+ON project_member (account_id, project_id)
+WHERE invited_status = 'ACCEPTED';
@@ -0,0 +1,11 @@
+-- PROJECT key numbers (the "42" of TP-42)
+-- handed out by ProjectKeyAllocator in blocks of 50: one nextval reserves [value, value + 50)
+-- INCREMENT BY must stay equal to ProjectKeyAllocator.BLOCK_SIZE
+CREATE SEQUENCE IF NOT EXISTS project_key_seq INCREMENT BY 50 MINVALUE 1;
+
+-- continue after the highest number already used by the count() based keys
+SELECT setval(
+    'project_key_seq',
+    COALESCE((SELECT MAX(substring(project_key FROM '-([0-9]+)$')::BIGINT) FROM project), 0) + 1,
+    false
+);
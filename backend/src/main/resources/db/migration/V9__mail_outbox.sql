@@ -0,0 +1,22 @@
+-- MAIL OUTBOX
+-- written in the same transaction as the business change (ex: invite), sent later by MailOutboxDispatcher
+-- a row is deleted once the mail is sent, FAILED rows are kept for inspection
+CREATE TABLE IF NOT EXISTS mail_outbox (
+    id              UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    created_at      TIMESTAMP NOT NULL DEFAULT now(),
+    updated_at      TIMESTAMP NULL,
+    is_deleted      BOOLEAN NOT NULL DEFAULT false,
+    mail_type       VARCHAR(50) NOT NULL,
+    recipient       VARCHAR(255) NOT NULL,
+    payload         JSONB NOT NULL,
+    status          VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts        INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT now(),
+    locked_until    TIMESTAMP NULL,
+    last_error      TEXT NULL
+);
+
+-- dispatcher poll: due PENDING rows + SENDING rows whose lock expired (node crashed while sending)
+CREATE INDEX IF NOT EXISTS idx_mail_outbox_due
+ON mail_outbox (next_attempt_at)
+WHERE status IN ('PENDING', 'SENDING');
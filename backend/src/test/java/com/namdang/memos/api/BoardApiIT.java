@@ -0,0 +1,175 @@
+package com.namdang.memos.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.namdang.memos.BaseIntegrationTest;
+import com.namdang.memos.dto.requests.auth.AuthenticationRequest;
+import com.namdang.memos.dto.requests.project.CreateProjectRequest;
+import com.namdang.memos.dto.requests.task.MoveTasksRequest;
+import com.namdang.memos.dto.requests.task.TaskMoveRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class BoardApiIT extends BaseIntegrationTest {
+
+    @Autowired ObjectMapper objectMapper;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    private String registerAndLogin(String email) throws Exception {
+        AuthenticationRequest req = AuthenticationRequest.builder().email(email).password("123456").build();
+        mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk());
+        var res = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(res.getResponse().getContentAsString()).path("result").path("token").asText();
+    }
+
+    private UUID createProject(String access, String name) throws Exception {
+        CreateProjectRequest createReq = new CreateProjectRequest();
+        createReq.setName(name);
+        createReq.setImageUrl("img");
+        createReq.setDescription("desc");
+        mockMvc.perform(post("/project")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + access)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createReq)))
+                .andExpect(status().isOk());
+        return jdbcTemplate.queryForObject("SELECT id FROM project WHERE name = ?", UUID.class, name);
+    }
+
+    private UUID insertFeature(UUID boardId, String name, String position) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO feature (board_id, name, position) VALUES (?, ?, ?) RETURNING id",
+                UUID.class, boardId, name, new BigDecimal(position));
+    }
+
+    private UUID insertTask(UUID projectId, UUID featureId, UUID createdBy, String title, String position) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO task (project_id, feature_id, created_by, title, position) VALUES (?, ?, ?, ?, ?) RETURNING id",
+                UUID.class, projectId, featureId, createdBy, title, new BigDecimal(position));
+    }
+
+    @Test
+    void snapshot_member_getsOrderedFeaturesTasksAndIds_nonMemberForbidden() throws Exception {
+        long now = System.currentTimeMillis();
+        String ownerEmail = "it_board_owner_" + now + "@test.com";
+        String owner = registerAndLogin(ownerEmail);
+        UUID ownerId = jdbcTemplate.queryForObject("SELECT id FROM account WHERE email = ?", UUID.class, ownerEmail);
+        UUID projectId = createProject(owner, "IT Board " + now);
+
+        UUID boardId = jdbcTemplate.queryForObject(
+                "INSERT INTO board (project_id, name) VALUES (?, 'Main') RETURNING id", UUID.class, projectId);
+        UUID done = insertFeature(boardId, "Done", "2");
+        UUID todo = insertFeature(boardId, "Todo", "1");
+        UUID archived = insertFeature(boardId, "Old", "0.5");
+        jdbcTemplate.update("UPDATE feature SET is_archived = true WHERE id = ?", archived);
+
+        UUID second = insertTask(projectId, todo, ownerId, "second", "2");
+        UUID first = insertTask(projectId, todo, ownerId, "first", "1");
+        UUID deleted = insertTask(projectId, todo, ownerId, "deleted", "3");
+        jdbcTemplate.update("UPDATE task SET is_deleted = true WHERE id = ?", deleted);
+        insertTask(projectId, done, ownerId, "shipped", "1");
+
+        UUID labelId = jdbcTemplate.queryForObject(
+                "INSERT INTO label (project_id, name) VALUES (?, 'bug') RETURNING id", UUID.class, projectId);
+        jdbcTemplate.update("INSERT INTO task_assignee (task_id, account_id) VALUES (?, ?)", first, ownerId);
+        jdbcTemplate.update("INSERT INTO task_label (task_id, label_id) VALUES (?, ?)", first, labelId);
+
+        var res = mockMvc.perform(get("/board/{id}/snapshot", boardId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + owner))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.code").value(1000))
+                .andReturn();
+
+        JsonNode board = objectMapper.readTree(res.getResponse().getContentAsString()).path("result");
+        assertThat(board.path("id").asText()).isEqualTo(boardId.toString());
+        assertThat(board.path("features")).hasSize(2);
+        JsonNode todoNode = board.path("features").get(0);
+        assertThat(todoNode.path("name").asText()).isEqualTo("Todo");
+        assertThat(todoNode.path("tasks")).hasSize(2);
+        assertThat(todoNode.path("tasks").get(0).path("id").asText()).isEqualTo(first.toString());
+        assertThat(todoNode.path("tasks").get(0).path("assigneeIds").get(0).asText()).isEqualTo(ownerId.toString());
+        assertThat(todoNode.path("tasks").get(0).path("labelIds").get(0).asText()).isEqualTo(labelId.toString());
+        assertThat(todoNode.path("tasks").get(1).path("id").asText()).isEqualTo(second.toString());
+        assertThat(todoNode.path("tasks").get(1).path("assigneeIds")).isEmpty();
+        assertThat(board.path("features").get(1).path("name").asText()).isEqualTo("Done");
+
+        String outsider = registerAndLogin("it_board_outsider_" + now + "@test.com");
+        mockMvc.perform(get("/board/{id}/snapshot", boardId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + outsider))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/board/{id}/snapshot", UUID.randomUUID())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + owner))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void moveTasks_batchAppliesWithActivities_staleVersionRejectedAsConflict() throws Exception {
+        long now = System.currentTimeMillis();
+        String ownerEmail = "it_move_owner_" + now + "@test.com";
+        String owner = registerAndLogin(ownerEmail);
+        UUID ownerId = jdbcTemplate.queryForObject("SELECT id FROM account WHERE email = ?", UUID.class, ownerEmail);
+        UUID projectId = createProject(owner, "IT Move " + now);
+
+        UUID boardId = jdbcTemplate.queryForObject(
+                "INSERT INTO board (project_id, name) VALUES (?, 'Main') RETURNING id", UUID.class, projectId);
+        UUID todo = insertFeature(boardId, "Todo", "1");
+        UUID done = insertFeature(boardId, "Done", "2");
+        UUID a = insertTask(projectId, todo, ownerId, "a", "1");
+        UUID b = insertTask(projectId, todo, ownerId, "b", "2");
+        UUID shipped = insertTask(projectId, done, ownerId, "shipped", "1");
+
+        MoveTasksRequest request = new MoveTasksRequest(List.of(
+                TaskMoveRequest.builder().taskId(a).toFeatureId(done).previousTaskId(shipped).version(0L).completed(true).build(),
+                TaskMoveRequest.builder().taskId(b).toFeatureId(done).previousTaskId(a).version(0L).completed(true).build()));
+
+        mockMvc.perform(post("/board/{id}/tasks/move", boardId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + owner)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result[0].taskId").value(a.toString()))
+                .andExpect(jsonPath("$.result[0].featureId").value(done.toString()))
+                .andExpect(jsonPath("$.result[0].version").value(1))
+                .andExpect(jsonPath("$.result[1].version").value(1));
+
+        List<UUID> doneOrder = jdbcTemplate.queryForList(
+                "SELECT id FROM task WHERE feature_id = ? ORDER BY position", UUID.class, done);
+        assertThat(doneOrder).containsExactly(shipped, a, b);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM task_activity WHERE task_id IN (?, ?) AND from_feature_id = ? AND to_feature_id = ?",
+                Long.class, a, b, todo, done)).isEqualTo(4L);
+
+        // same request again: versions are 1 now
+        mockMvc.perform(post("/board/{id}/tasks/move", boardId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + owner)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value(1031));
+
+        String outsider = registerAndLogin("it_move_outsider_" + now + "@test.com");
+        mockMvc.perform(post("/board/{id}/tasks/move", boardId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + outsider)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isForbidden());
+    }
+}
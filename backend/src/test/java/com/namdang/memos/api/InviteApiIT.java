@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.namdang.memos.BaseIntegrationTest;
 import com.namdang.memos.dto.requests.auth.AuthenticationRequest;
+import com.namdang.memos.dto.requests.invite.BulkProjectInviteRequest;
 import com.namdang.memos.dto.requests.invite.ProjectInviteRequest;
 import com.namdang.memos.dto.requests.project.CreateProjectRequest;
 import com.namdang.memos.entity.ProjectMember;
@@ -16,6 +17,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -92,11 +94,11 @@ class InviteApiIT extends BaseIntegrationTest {
                                 .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
                 )
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.result").isArray())
+                .andExpect(jsonPath("$.result.items").isArray())
                 .andReturn();
 
         JsonNode root = objectMapper.readTree(listRes.getResponse().getContentAsString());
-        for (JsonNode p : root.path("result")) {
+        for (JsonNode p : root.path("result").path("items")) {
             if (projectName.equals(p.path("name").asText())) {
                 return UUID.fromString(p.path("id").asText());
             }
@@ -152,8 +154,8 @@ class InviteApiIT extends BaseIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.result").exists());
 
-        // verify MailService called (mocked)
-        verify(mailService, times(1)).sendProjectInviteMail(
+        // mail goes through the outbox: built by MailOutboxDispatcher after commit (MailService mocked)
+        verify(mailService, timeout(10_000).times(1)).buildProjectInviteMail(
                 eq(invitedEmail),
                 anyString(),          // project name
                 eq(ownerEmail),       // inviterName uses owner email in service
@@ -215,4 +217,53 @@ class InviteApiIT extends BaseIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.result").value("Decline invite successfully"));
     }
+
+    @Test
+    void bulkInvite_reportsPerEmailResult_andQueuesOneMailPerInvite() throws Exception {
+        String pass = "123456";
+        long now = System.currentTimeMillis();
+        String ownerEmail = "it_bulk_owner_" + now + "@test.com";
+        String ownerToken = registerAndLoginGetAccessToken(ownerEmail, pass);
+        UUID projectId = createProjectAndGetId(ownerToken, "Bulk Project " + now);
+
+        String registeredEmail = "it_bulk_registered_" + now + "@test.com";
+        registerAndLoginGetAccessToken(registeredEmail, pass);
+        String newEmail = "it_bulk_new_" + now + "@test.com";
+
+        BulkProjectInviteRequest request = new BulkProjectInviteRequest(
+                List.of(registeredEmail, newEmail, ownerEmail, newEmail, "not-an-email"));
+
+        mockMvc.perform(
+                        post("/invite/project/{id}/bulk", projectId)
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ownerToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.invitedCount").value(2))
+                .andExpect(jsonPath("$.result.results[0].status").value("INVITED"))
+                .andExpect(jsonPath("$.result.results[1].status").value("INVITED"))
+                .andExpect(jsonPath("$.result.results[2].status").value("ALREADY_MEMBER"))
+                .andExpect(jsonPath("$.result.results[3].status").value("DUPLICATE"))
+                .andExpect(jsonPath("$.result.results[4].status").value("INVALID_EMAIL"));
+
+        assertThat(findInviteToken(projectId, registeredEmail)).isNotBlank();
+        assertThat(findInviteToken(projectId, newEmail)).isNotBlank();
+        verify(mailService, timeout(10_000)).buildProjectInviteMail(
+                eq(registeredEmail), anyString(), eq(ownerEmail), anyString());
+        verify(mailService, timeout(10_000)).buildProjectInviteMail(
+                eq(newEmail), anyString(), eq(ownerEmail), anyString());
+
+        // second call: both are pending now
+        mockMvc.perform(
+                        post("/invite/project/{id}/bulk", projectId)
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ownerToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(
+                                        new BulkProjectInviteRequest(List.of(newEmail))))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.invitedCount").value(0))
+                .andExpect(jsonPath("$.result.results[0].status").value("ALREADY_INVITED"));
+    }
 }
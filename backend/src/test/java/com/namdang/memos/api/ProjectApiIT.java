@@ -45,7 +45,7 @@ class ProjectApiIT extends BaseIntegrationTest {
 
     private static UUID extractProjectIdByName(String responseBody, String expectedName) throws Exception {
         JsonNode root = new ObjectMapper().readTree(responseBody);
-        JsonNode arr = root.path("result");
+        JsonNode arr = root.path("result").path("items");
         assertThat(arr.isArray()).isTrue();
 
         Optional<JsonNode> match = Optional.empty();
@@ -127,7 +127,7 @@ class ProjectApiIT extends BaseIntegrationTest {
                                 .header(HttpHeaders.AUTHORIZATION, "Bearer " + access1)
                 )
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.result").isArray())
+                .andExpect(jsonPath("$.result.items").isArray())
                 .andReturn();
 
         UUID projectId = extractProjectIdByName(listRes.getResponse().getContentAsString(), projectName);
@@ -0,0 +1,100 @@
+package com.namdang.memos.benchmark;
+
+import com.namdang.memos.config.CustomJwtDecoder;
+import com.namdang.memos.security.TokenRevocationIndex;
+import com.namdang.memos.security.VerifiedTokenCache;
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Per-token decode cost: old pipeline (parse + verify, then NimbusJwtDecoder parse + verify again)
+// vs CustomJwtDecoder (parse once, verify once with a shared verifier)
+// vs CustomJwtDecoder with the verified-token cache warm (burst of calls with the same token)
+// Run: mvn test-compile, then run main() from the IDE
+// (or java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main JwtDecodeBenchmark)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtDecodeBenchmark {
+    static final String SIGNER_KEY =
+            "XT/Y//x7C1ohLLN2cUdVMLjXPDsLcWFLZvMCEJ9JC7Z8mHU83QxdJ8hYqyTZdknlVJPtujJP7IpTneFyJUDGVA==";
+
+    String token;
+    CustomJwtDecoder customJwtDecoder;
+    CustomJwtDecoder cachingJwtDecoder;
+    NimbusJwtDecoder nimbusJwtDecoder;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("member@test.com")
+                .issuer("namdang-fdp")
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plus(1, ChronoUnit.HOURS)))
+                .jwtID(UUID.randomUUID().toString())
+                .claim("scope", "ROLE_MEMBER ACCOUNT.UPDATE_SELF ACCOUNT.DELETE_SELF PROJECT.CREATE VIEW.PUBLIC_CONTENT")
+                .build();
+        JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS512), new Payload(claims.toJSONObject()));
+        jwsObject.sign(new MACSigner(SIGNER_KEY));
+        token = jwsObject.serialize();
+
+        TokenRevocationIndex revocationIndex = Mockito.mock(TokenRevocationIndex.class);
+        // mocked cache never hits --> full decode every time
+        customJwtDecoder = new CustomJwtDecoder(revocationIndex, Mockito.mock(VerifiedTokenCache.class), SIGNER_KEY, 60);
+        cachingJwtDecoder = new CustomJwtDecoder(
+                revocationIndex, new VerifiedTokenCache(new SimpleMeterRegistry(), 10_000, 60), SIGNER_KEY, 60);
+
+        nimbusJwtDecoder = NimbusJwtDecoder
+                .withSecretKey(new SecretKeySpec(SIGNER_KEY.getBytes(), "HS512"))
+                .macAlgorithm(MacAlgorithm.HS512)
+                .build();
+    }
+
+    @Benchmark
+    public Jwt legacyDoubleDecode() throws Exception {
+        JWSVerifier verifier = new MACVerifier(SIGNER_KEY.getBytes());
+        SignedJWT signedJWT = SignedJWT.parse(token);
+        signedJWT.getJWTClaimsSet().getJWTID();
+        if (!signedJWT.verify(verifier) || !signedJWT.getJWTClaimsSet().getExpirationTime().after(new Date())) {
+            throw new IllegalStateException();
+        }
+        return nimbusJwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt singlePassDecode() {
+        return customJwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt cachedDecode() {
+        return cachingJwtDecoder.decode(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtDecodeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
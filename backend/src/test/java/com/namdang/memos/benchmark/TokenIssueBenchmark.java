@@ -0,0 +1,85 @@
+package com.namdang.memos.benchmark;
+
+import com.namdang.memos.dto.responses.auth.TokenPair;
+import com.namdang.memos.security.TokenIssuer;
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Access + refresh pair per login / refresh: old AuthenticationService
+// (new JWSHeader, claims built from scratch, new MACSigner(key) per token)
+// vs TokenIssuer (per-thread keyed Mac, pre-encoded header, claim templates)
+// Throughput on one thread = token pairs per second per core; add -prof gc for bytes per pair
+// Run: mvn test-compile, then run main() from the IDE
+// (or java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main TokenIssueBenchmark)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class TokenIssueBenchmark {
+    static final String SIGNER_KEY =
+            "XT/Y//x7C1ohLLN2cUdVMLjXPDsLcWFLZvMCEJ9JC7Z8mHU83QxdJ8hYqyTZdknlVJPtujJP7IpTneFyJUDGVA==";
+    static final long VALID_DURATION = 3600;
+    static final long REFRESHABLE_DURATION = 86400;
+
+    String subject = "member@test.com";
+    String scope = "ROLE_MEMBER ACCOUNT.UPDATE_SELF ACCOUNT.DELETE_SELF PROJECT.CREATE VIEW.PUBLIC_CONTENT";
+    TokenIssuer tokenIssuer;
+
+    @Setup
+    public void setUp() {
+        tokenIssuer = new TokenIssuer(SIGNER_KEY, VALID_DURATION, REFRESHABLE_DURATION);
+    }
+
+    @Benchmark
+    public TokenPair macSignerPerToken() throws JOSEException {
+        return TokenPair.builder()
+                .accessToken(legacyToken(VALID_DURATION, false))
+                .refreshToken(legacyToken(REFRESHABLE_DURATION, true))
+                .accessTtl(VALID_DURATION)
+                .refreshTtl(REFRESHABLE_DURATION)
+                .build();
+    }
+
+    @Benchmark
+    public TokenPair tokenIssuer() {
+        return tokenIssuer.issuePair(subject, scope, claims -> { });
+    }
+
+    private String legacyToken(long duration, boolean refresh) throws JOSEException {
+        JWSHeader header = new JWSHeader(JWSAlgorithm.HS512);
+        JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder()
+                .subject(subject)
+                .issuer("namdang-fdp")
+                .issueTime(new Date())
+                .expirationTime(new Date(Instant.now().plus(duration, ChronoUnit.SECONDS).toEpochMilli()))
+                .jwtID(UUID.randomUUID().toString())
+                .claim("scope", scope);
+        if (refresh) {
+            builder.claim("tok", "REFRESH");
+        }
+        JWSObject jwsObject = new JWSObject(header, new Payload(builder.build().toJSONObject()));
+        jwsObject.sign(new MACSigner(SIGNER_KEY));
+        return jwsObject.serialize();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenIssueBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,61 @@
+package com.namdang.memos.config;
+
+import com.namdang.memos.security.TokenRevocationIndex;
+import com.namdang.memos.security.VerifiedTokenCache;
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class CustomJwtDecoderTest {
+    static final String SIGNER_KEY =
+            "XT/Y//x7C1ohLLN2cUdVMLjXPDsLcWFLZvMCEJ9JC7Z8mHU83QxdJ8hYqyTZdknlVJPtujJP7IpTneFyJUDGVA==";
+
+    // 30s clock skew (nbf only)
+    private final CustomJwtDecoder decoder = new CustomJwtDecoder(mock(TokenRevocationIndex.class),
+            new VerifiedTokenCache(new SimpleMeterRegistry(), 100, 60), SIGNER_KEY, 30);
+
+    private static String token(Instant notBefore, Instant expiresAt) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("member@test.com")
+                .jwtID(UUID.randomUUID().toString())
+                .issueTime(Date.from(expiresAt.minusSeconds(3600)))
+                .notBeforeTime(notBefore == null ? null : Date.from(notBefore))
+                .expirationTime(Date.from(expiresAt))
+                .build();
+        JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS512), new Payload(claims.toJSONObject()));
+        jwsObject.sign(new MACSigner(SIGNER_KEY));
+        return jwsObject.serialize();
+    }
+
+    @Test
+    void decode_notBeforeInTheFuture_rejected_withinSkew_accepted() throws Exception {
+        Instant now = Instant.now();
+
+        assertThatThrownBy(() -> decoder.decode(token(now.plusSeconds(120), now.plusSeconds(3600))))
+                .isInstanceOf(JwtException.class);
+        assertThat(decoder.decode(token(now.plusSeconds(10), now.plusSeconds(3600))).getSubject())
+                .isEqualTo("member@test.com");
+    }
+
+    @Test
+    void decode_expired_rejected_evenWithinSkew() throws Exception {
+        Instant now = Instant.now();
+
+        assertThatThrownBy(() -> decoder.decode(token(null, now.minusSeconds(10))))
+                .isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> decoder.decode(token(null, now.minusSeconds(120))))
+                .isInstanceOf(JwtException.class);
+        assertThat(decoder.decode(token(null, now.plusSeconds(10))).getSubject()).isEqualTo("member@test.com");
+    }
+}
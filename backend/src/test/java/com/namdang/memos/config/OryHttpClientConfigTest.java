@@ -0,0 +1,117 @@
+package com.namdang.memos.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OryHttpClientConfigTest {
+
+    private HttpServer ory;
+    private ExecutorService serverThreads;
+    private String baseUrl;
+    // client ports seen by the stub --> one entry per TCP connection
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // local stand-in for Ory: /sessions/whoami answers right away, /slow after 3s
+    @BeforeEach
+    void startStub() throws IOException {
+        ory = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ory.createContext("/sessions/whoami", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "{\"active\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        ory.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(3_000);
+                exchange.sendResponseHeaders(200, -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        serverThreads = Executors.newFixedThreadPool(4);
+        ory.setExecutor(serverThreads);
+        ory.start();
+        baseUrl = "http://127.0.0.1:" + ory.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopStub() {
+        ory.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    private RestTemplate restTemplate(HttpClient.Version version) {
+        ClientHttpRequestFactory requestFactory = new OryHttpClientConfig().oryRequestFactory(
+                meterRegistry, version,
+                Duration.ofMillis(500), Duration.ofMillis(300), Duration.ofMillis(500),
+                10, 5, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        return new RestTemplate(requestFactory);
+    }
+
+    @Test
+    void pooled_reusesKeepAliveConnection_andExposesPoolGauges() {
+        RestTemplate restTemplate = restTemplate(HttpClient.Version.HTTP_1_1);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(restTemplate.getForObject(baseUrl + "/sessions/whoami", String.class)).contains("active");
+        }
+
+        assertThat(clientPorts).hasSize(1);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", OryHttpClientConfig.METRICS_NAME).gauge().value()).isEqualTo(10);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "available").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "leased").gauge().value()).isZero();
+    }
+
+    @Test
+    void pooled_slowOry_failsAfterReadTimeout() {
+        RestTemplate restTemplate = restTemplate(HttpClient.Version.HTTP_1_1);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> restTemplate.getForObject(baseUrl + "/slow", String.class))
+                .isInstanceOf(ResourceAccessException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void http2Mode_callsOry_andSlowOryFailsAfterReadTimeout() {
+        RestTemplate restTemplate = restTemplate(HttpClient.Version.HTTP_2);
+
+        // the stub only speaks HTTP/1.1: the JDK client falls back after the h2c upgrade attempt
+        assertThat(restTemplate.getForObject(baseUrl + "/sessions/whoami", String.class)).contains("active");
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> restTemplate.getForObject(baseUrl + "/slow", String.class))
+                .isInstanceOf(ResourceAccessException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+    }
+}
@@ -0,0 +1,25 @@
+package com.namdang.memos.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.UncategorizedSQLException;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStateErrorsTest {
+
+    @Test
+    void errorCode_findsRaisedStateInBatchChain_ignoresOtherStates() {
+        // what a JDBC batch reports: generic batch error first, the trigger's error chained behind it
+        BatchUpdateException batch = new BatchUpdateException("Batch entry 0 was aborted", "25P02", new int[0]);
+        batch.setNextException(new SQLException("WIP limit reached", SqlStateErrors.WIP_LIMIT_EXCEEDED));
+        UncategorizedSQLException translated = new UncategorizedSQLException("batch", "UPDATE task", batch);
+
+        assertThat(SqlStateErrors.errorCode(translated)).contains(ErrorCode.WIP_LIMIT_EXCEEDED);
+        assertThat(SqlStateErrors.errorCode(new DataIntegrityViolationException("fk",
+                new SQLException("fk violation", "23503")))).isEmpty();
+    }
+}
@@ -0,0 +1,118 @@
+package com.namdang.memos.initializer;
+
+import com.namdang.memos.entity.Account;
+import com.namdang.memos.entity.Permission;
+import com.namdang.memos.entity.Role;
+import com.namdang.memos.entity.SeedHistory;
+import com.namdang.memos.repository.AccountRepository;
+import com.namdang.memos.repository.PermissionRepository;
+import com.namdang.memos.repository.RoleRepository;
+import com.namdang.memos.repository.SeedHistoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DescriptorSeederTest {
+
+    @Mock SeedHistoryRepository seedHistoryRepository;
+    @Mock PermissionRepository permissionRepository;
+    @Mock RoleRepository roleRepository;
+    @Mock AccountRepository accountRepository;
+    @Mock PasswordEncoder passwordEncoder;
+
+    @InjectMocks DescriptorSeeder descriptorSeeder;
+
+    static final byte[] CONTENT = """
+            {
+              "permissions": [ { "name": "BOARD.EXPORT", "description": "Export boards" } ],
+              "roles": [ { "name": "MEMBER", "permissions": ["BOARD.EXPORT", "PROJECT.CREATE"] } ],
+              "accounts": [
+                { "email": "alice@demo.local", "name": "Alice", "password": "pw" },
+                { "email": "taken@demo.local", "name": "Taken" }
+              ]
+            }
+            """.getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void seed_sameContentHash_skipped_withoutReadingAnythingElse() throws Exception {
+        when(seedHistoryRepository.findById("demo")).thenReturn(Optional.of(
+                new SeedHistory("demo", DescriptorSeeder.sha256(CONTENT), LocalDateTime.now())));
+
+        assertThat(descriptorSeeder.seed("demo", CONTENT)).isFalse();
+
+        verifyNoInteractions(permissionRepository, roleRepository, accountRepository, passwordEncoder);
+        verify(seedHistoryRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void seed_newContent_insertsMissingRows_grants_andRecordsHash() throws Exception {
+        Permission projectCreate = new Permission();
+        projectCreate.setName("PROJECT.CREATE");
+        Role member = new Role();
+        member.setName("MEMBER");
+        member.setPermissions(new HashSet<>(List.of(projectCreate)));
+        Account taken = new Account();
+        taken.setEmail("taken@demo.local");
+
+        when(seedHistoryRepository.findById("demo")).thenReturn(Optional.empty());
+        when(permissionRepository.findByNameIn(anyCollection())).thenReturn(List.of(projectCreate));
+        when(roleRepository.findByNameInWithPermissions(anyCollection())).thenReturn(List.of(member));
+        when(accountRepository.findByEmailIn(anyCollection())).thenReturn(List.of(taken));
+        when(passwordEncoder.encode("pw")).thenReturn("{bcrypt}pw");
+
+        assertThat(descriptorSeeder.seed("demo", CONTENT)).isTrue();
+
+        ArgumentCaptor<List<Permission>> permissions = ArgumentCaptor.forClass(List.class);
+        verify(permissionRepository).saveAll(permissions.capture());
+        assertThat(permissions.getValue()).extracting(Permission::getName).containsExactly("BOARD.EXPORT");
+
+        // PROJECT.CREATE already granted, BOARD.EXPORT added
+        assertThat(member.getPermissions()).extracting(Permission::getName)
+                .containsExactlyInAnyOrder("PROJECT.CREATE", "BOARD.EXPORT");
+        verify(roleRepository).saveAll(List.of(member));
+
+        ArgumentCaptor<List<Account>> accounts = ArgumentCaptor.forClass(List.class);
+        verify(accountRepository).saveAll(accounts.capture());
+        assertThat(accounts.getValue()).singleElement().satisfies(account -> {
+            assertThat(account.getEmail()).isEqualTo("alice@demo.local");
+            assertThat(account.getPassword()).isEqualTo("{bcrypt}pw");
+            assertThat(account.getRoles()).containsExactly(member);
+        });
+
+        ArgumentCaptor<SeedHistory> history = ArgumentCaptor.forClass(SeedHistory.class);
+        verify(seedHistoryRepository).save(history.capture());
+        assertThat(history.getValue().getContentHash()).isEqualTo(DescriptorSeeder.sha256(CONTENT));
+    }
+
+    @Test
+    void seed_roleGrantsUnknownPermission_fails() {
+        byte[] content = """
+                { "roles": [ { "name": "MEMBER", "permissions": ["NOPE"] } ] }
+                """.getBytes(StandardCharsets.UTF_8);
+        when(seedHistoryRepository.findById("bad")).thenReturn(Optional.empty());
+        when(permissionRepository.findByNameIn(anyCollection())).thenReturn(List.of());
+        when(roleRepository.findByNameInWithPermissions(anyCollection())).thenReturn(List.of());
+
+        assertThatThrownBy(() -> descriptorSeeder.seed("bad", content))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("NOPE");
+        verify(seedHistoryRepository, never()).save(any());
+    }
+}
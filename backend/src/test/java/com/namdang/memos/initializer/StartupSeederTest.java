@@ -0,0 +1,92 @@
+package com.namdang.memos.initializer;
+
+import com.namdang.memos.entity.Account;
+import com.namdang.memos.entity.Role;
+import com.namdang.memos.repository.AccountRepository;
+import com.namdang.memos.repository.RoleRepository;
+import com.namdang.memos.security.AuthorityGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StartupSeederTest {
+
+    @Mock RoleRepository roleRepository;
+    @Mock AccountRepository accountRepository;
+    @Mock PasswordEncoder passwordEncoder;
+    @Mock DescriptorSeeder descriptorSeeder;
+    @Mock AuthorityGraph authorityGraph;
+    @Mock TransactionTemplate transactionTemplate;
+
+    @InjectMocks StartupSeeder startupSeeder;
+
+    private Role adminRole;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(startupSeeder, "adminEmail", "admin@test.com");
+        ReflectionTestUtils.setField(startupSeeder, "adminPassword", "secret");
+        adminRole = new Role();
+        adminRole.setName("ADMIN");
+    }
+
+    @Test
+    void seedAdminAccount_upToDate_noHashing_noWrite() {
+        Account admin = new Account();
+        admin.setEmail("admin@test.com");
+        admin.setPassword("{bcrypt}hash");
+        admin.getRoles().add(adminRole);
+        when(roleRepository.findByName("ADMIN")).thenReturn(adminRole);
+        when(accountRepository.findByEmail("admin@test.com")).thenReturn(Optional.of(admin));
+        when(passwordEncoder.matches("secret", "{bcrypt}hash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("{bcrypt}hash")).thenReturn(false);
+
+        startupSeeder.seedAdminAccount();
+
+        verify(passwordEncoder, never()).encode(any());
+        verify(accountRepository, never()).save(any());
+    }
+
+    @Test
+    void seedAdminAccount_passwordChanged_andRoleMissing_singleSave() {
+        Account admin = new Account();
+        admin.setEmail("admin@test.com");
+        admin.setPassword("{bcrypt}old");
+        when(roleRepository.findByName("ADMIN")).thenReturn(adminRole);
+        when(accountRepository.findByEmail("admin@test.com")).thenReturn(Optional.of(admin));
+        when(passwordEncoder.matches("secret", "{bcrypt}old")).thenReturn(false);
+        when(passwordEncoder.encode("secret")).thenReturn("{bcrypt}new");
+
+        startupSeeder.seedAdminAccount();
+
+        assertThat(admin.getPassword()).isEqualTo("{bcrypt}new");
+        assertThat(admin.getRoles()).containsExactly(adminRole);
+        verify(accountRepository, times(1)).save(admin);
+    }
+
+    @Test
+    void seedDescriptors_unchanged_noGraphRefresh_missingFileSkipped() throws Exception {
+        ReflectionTestUtils.setField(startupSeeder, "descriptors", List.of("demo", "does-not-exist"));
+        when(descriptorSeeder.seed(eq("demo"), any())).thenReturn(false);
+
+        startupSeeder.seedDescriptors();
+
+        verify(descriptorSeeder).seed(eq("demo"), any());
+        verifyNoMoreInteractions(descriptorSeeder);
+        verifyNoInteractions(authorityGraph);
+    }
+}
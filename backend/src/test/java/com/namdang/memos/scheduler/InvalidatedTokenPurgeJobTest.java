@@ -0,0 +1,58 @@
+package com.namdang.memos.scheduler;
+
+import com.namdang.memos.repository.InvalidatedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvalidatedTokenPurgeJobTest {
+
+    @Mock InvalidatedTokenRepository invalidatedTokenRepository;
+    @Mock JdbcTemplate jdbcTemplate;
+
+    SimpleMeterRegistry meterRegistry;
+    InvalidatedTokenPurgeJob job;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new InvalidatedTokenPurgeJob(invalidatedTokenRepository, jdbcTemplate, meterRegistry);
+        ReflectionTestUtils.setField(job, "batchSize", 100);
+        ReflectionTestUtils.setField(job, "maxBatches", 5);
+    }
+
+    @Test
+    void deleteExpiredRows_stopsWhenBatchIsNotFull() {
+        when(invalidatedTokenRepository.deleteExpiredBatch(any(Date.class), eq(100)))
+                .thenReturn(100, 100, 30);
+
+        long deleted = job.deleteExpiredRows();
+
+        assertThat(deleted).isEqualTo(230);
+        verify(invalidatedTokenRepository, times(3)).deleteExpiredBatch(any(Date.class), eq(100));
+        assertThat(meterRegistry.get("memos.invalidated_token.purged.rows").counter().count()).isEqualTo(230);
+    }
+
+    @Test
+    void deleteExpiredRows_neverRunsMoreThanMaxBatches() {
+        when(invalidatedTokenRepository.deleteExpiredBatch(any(Date.class), eq(100))).thenReturn(100);
+
+        long deleted = job.deleteExpiredRows();
+
+        assertThat(deleted).isEqualTo(500);
+        verify(invalidatedTokenRepository, times(5)).deleteExpiredBatch(any(Date.class), eq(100));
+    }
+}
@@ -0,0 +1,152 @@
+package com.namdang.memos.scheduler;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.namdang.memos.entity.MailOutbox;
+import com.namdang.memos.enumType.MailType;
+import com.namdang.memos.enumType.OutboxStatus;
+import com.namdang.memos.repository.MailOutboxRepository;
+import com.namdang.memos.service.MailService;
+import com.namdang.memos.service.MailTemplates;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MailOutboxDispatcherTest {
+
+    // local fake SMTP server
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final MailOutboxRepository mailOutboxRepository = mock(MailOutboxRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MailService mailService(int smtpPort) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtpPort);
+        MailTemplates mailTemplates = new MailTemplates();
+        ReflectionTestUtils.invokeMethod(mailTemplates, "load");
+        MailService mailService = new MailService(mailSender, mailTemplates);
+        ReflectionTestUtils.setField(mailService, "from", "Memos <no-reply@memos.app>");
+        ReflectionTestUtils.setField(mailService, "appUrl", "http://localhost:3000");
+        ReflectionTestUtils.setField(mailService, "locale", Locale.ENGLISH);
+        ReflectionTestUtils.invokeMethod(mailService, "loadTemplates");
+        return mailService;
+    }
+
+    // batch 10, chunks of 3, 2 parallel connections, FAILED after 2 attempts, SMTP timeouts 5s / 10s / 10s
+    private MailOutboxDispatcher dispatcher(MailService mailService) {
+        return new MailOutboxDispatcher(mailOutboxRepository, mailService, mock(PlatformTransactionManager.class),
+                meterRegistry, 10, 3, 2, 2, 5000, 10000, 10000, 30, 30, 3600);
+    }
+
+    @BeforeEach
+    void locksStillHeld() {
+        when(mailOutboxRepository.renewLocks(anyCollection(), any(), any(), any()))
+                .thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+    }
+
+    private static MailOutbox invite(int i, int attempts) {
+        MailOutbox mail = new MailOutbox();
+        mail.setId(UUID.randomUUID());
+        mail.setMailType(MailType.PROJECT_INVITE);
+        mail.setRecipient("user" + i + "@test.com");
+        mail.setPayload(Map.of("projectName", "Memos", "inviterName", "owner@test.com", "inviteToken", "token-" + i));
+        mail.setStatus(OutboxStatus.SENDING);
+        mail.setAttempts(attempts);
+        mail.setNextAttemptAt(LocalDateTime.now());
+        return mail;
+    }
+
+    @Test
+    void deliver_sendsEveryRowThroughSmtp_andDeletesThem() throws Exception {
+        List<MailOutbox> batch = IntStream.range(0, 7).mapToObj(i -> invite(i, 1)).toList();
+
+        dispatcher(mailService(greenMail.getSmtp().getPort())).deliver(batch);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(7);
+        assertThat(received[0].getSubject()).isEqualTo("[Memos] Invitation to project \"Memos\"");
+        assertThat((String) received[0].getContent()).contains("http://localhost:3000/invite?token=token-");
+
+        // 7 rows, chunks of 3 --> 3 SMTP connections, one delete per chunk
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<UUID>> deletedIds = ArgumentCaptor.forClass(Iterable.class);
+        verify(mailOutboxRepository, times(3)).deleteAllByIdInBatch(deletedIds.capture());
+        List<UUID> deleted = new ArrayList<>();
+        deletedIds.getAllValues().forEach(ids -> ids.forEach(deleted::add));
+        assertThat(deleted).containsExactlyInAnyOrderElementsOf(batch.stream().map(MailOutbox::getId).toList());
+        verify(mailOutboxRepository, never()).saveAll(any());
+        assertThat(meterRegistry.get("memos.mail_outbox.sent").counter().count()).isEqualTo(7);
+    }
+
+    @Test
+    void deliver_smtpDown_reschedulesWithBackoff_thenGivesUp() {
+        MailOutbox firstAttempt = invite(1, 1);
+        MailOutbox lastAttempt = invite(2, 2);
+        // nothing listens there
+        int closedPort = greenMail.getSmtp().getPort() + 1;
+
+        dispatcher(mailService(closedPort)).deliver(List.of(firstAttempt, lastAttempt));
+
+        assertThat(firstAttempt.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(firstAttempt.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(25));
+        assertThat(firstAttempt.getLockedUntil()).isNull();
+        assertThat(firstAttempt.getLastError()).isNotBlank();
+        assertThat(lastAttempt.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        verify(mailOutboxRepository).saveAll(List.of(firstAttempt, lastAttempt));
+        verify(mailOutboxRepository, never()).deleteAllByIdInBatch(any());
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    void deliver_skipsRowsWhoseLockExpired_beforeSending() throws Exception {
+        List<MailOutbox> chunk = IntStream.range(0, 3).mapToObj(i -> invite(i, 1)).toList();
+        // only the first row is still held by this claim, the others were re-claimed by another node
+        when(mailOutboxRepository.renewLocks(anyCollection(), any(), any(), any())).thenReturn(1);
+        when(mailOutboxRepository.findIdsLockedUntil(anyCollection(), any())).thenReturn(List.of(chunk.get(0).getId()));
+
+        dispatcher(mailService(greenMail.getSmtp().getPort())).deliver(chunk);
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(greenMail.getReceivedMessages()[0].getAllRecipients()[0].toString()).isEqualTo("user0@test.com");
+        verify(mailOutboxRepository).deleteAllByIdInBatch(List.of(chunk.get(0).getId()));
+    }
+
+    @Test
+    void lockDuration_coversEveryWaveOfChunks() {
+        // 10 rows in chunks of 3 --> 4 chunks, 2 at a time --> 2 waves of (5s + 3 * (10s + 10s) + 30s)
+        assertThat(dispatcher(mock(MailService.class)).lockDuration()).isEqualTo(Duration.ofSeconds(190));
+    }
+
+    @Test
+    void backoff_doublesPerAttempt_upToMax() {
+        MailOutboxDispatcher dispatcher = dispatcher(mock(MailService.class));
+
+        assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(dispatcher.backoff(2)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(dispatcher.backoff(4)).isEqualTo(Duration.ofSeconds(240));
+        assertThat(dispatcher.backoff(20)).isEqualTo(Duration.ofSeconds(3600));
+    }
+}
@@ -0,0 +1,84 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.entity.Account;
+import com.namdang.memos.entity.Permission;
+import com.namdang.memos.entity.Role;
+import com.namdang.memos.repository.AccountRepository;
+import com.namdang.memos.repository.RoleRepository;
+import org.hibernate.collection.spi.PersistentSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class AuthorityGraphTest {
+
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final AuthorityGraph authorityGraph = new AuthorityGraph(roleRepository, accountRepository);
+
+    private static Role role(String name, String... permissions) {
+        Role role = new Role();
+        role.setId(UUID.randomUUID());
+        role.setName(name);
+        Set<Permission> set = new HashSet<>();
+        for (String p : permissions) {
+            Permission permission = new Permission();
+            permission.setName(p);
+            set.add(permission);
+        }
+        role.setPermissions(set);
+        return role;
+    }
+
+    @Test
+    void scope_usesPrecomputedFragments_withSortedPermissions() {
+        Role admin = role("ADMIN", "USER.MANAGE", "ADMIN.FULL_ACCESS");
+        when(roleRepository.findAllWithPermissions()).thenReturn(List.of(admin));
+        authorityGraph.refresh();
+
+        Account account = new Account();
+        account.setRoles(Set.of(admin));
+
+        assertThat(authorityGraph.scope(account)).isEqualTo("ROLE_ADMIN ADMIN.FULL_ACCESS USER.MANAGE");
+        assertThat(authorityGraph.primaryRole(account)).isEqualTo("ADMIN");
+        assertThat(authorityGraph.permissions(account)).containsExactly("ADMIN.FULL_ACCESS", "USER.MANAGE");
+    }
+
+    @Test
+    void rolesNotLoaded_resolvedFromRoleIdQuery_withoutTouchingEntities() {
+        Role member = role("MEMBER", "TASK.READ");
+        when(roleRepository.findAllWithPermissions()).thenReturn(List.of(member));
+        authorityGraph.refresh();
+
+        Account account = new Account();
+        account.setId(UUID.randomUUID());
+        // uninitialized Hibernate collection, as on a freshly loaded Account
+        account.setRoles(new PersistentSet<>());
+        when(accountRepository.findRoleIdsById(account.getId())).thenReturn(List.of(member.getId()));
+
+        assertThat(authorityGraph.scope(account)).isEqualTo("ROLE_MEMBER TASK.READ");
+        assertThat(authorityGraph.permissions(account)).containsExactly("TASK.READ");
+    }
+
+    @Test
+    void hasPermission_unknownRole_refreshesOnce_thenRateLimited() {
+        when(roleRepository.findAllWithPermissions()).thenReturn(List.of());
+        authorityGraph.refresh();
+        // last refresh long ago --> a miss may reload
+        ((AtomicLong) ReflectionTestUtils.getField(authorityGraph, "lastRefresh")).set(0);
+
+        Role admin = role("ADMIN", "ADMIN.FULL_ACCESS");
+        when(roleRepository.findAllWithPermissions()).thenReturn(List.of(admin));
+
+        assertThat(authorityGraph.hasPermission(List.of(admin.getId()), "ADMIN.FULL_ACCESS")).isTrue();
+        assertThat(authorityGraph.hasPermission(List.of(UUID.randomUUID()), "ADMIN.FULL_ACCESS")).isFalse();
+
+        // startup + one reload on the first miss, second miss is within the rate limit
+        verify(roleRepository, times(2)).findAllWithPermissions();
+    }
+}
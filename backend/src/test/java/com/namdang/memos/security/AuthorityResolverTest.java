@@ -0,0 +1,63 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class AuthorityResolverTest {
+
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final AuthorityGraph authorityGraph = mock(AuthorityGraph.class);
+    private final AuthorityResolver resolver =
+            new AuthorityResolver(accountRepository, authorityGraph, new SimpleMeterRegistry(), 100, 60);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void authenticate(String email, String... authorities) {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "HS512").subject(email).build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt,
+                Arrays.stream(authorities).map(SimpleGrantedAuthority::new).toList()));
+    }
+
+    @Test
+    void jwtCaller_answeredFromGrantedAuthorities_withoutQueries() {
+        authenticate("admin@test.com", "ROLE_ADMIN", "ADMIN.FULL_ACCESS");
+        assertThat(resolver.isAdmin("admin@test.com")).isTrue();
+
+        authenticate("member@test.com", "ROLE_MEMBER", "TASK.READ");
+        assertThat(resolver.isAdmin("member@test.com")).isFalse();
+
+        verifyNoInteractions(accountRepository, authorityGraph);
+    }
+
+    @Test
+    void otherCaller_fallsBackToCachedRoleIds() {
+        // authenticated as someone else --> the token says nothing about this email
+        authenticate("member@test.com", "ROLE_MEMBER");
+        List<UUID> roleIds = List.of(UUID.randomUUID());
+        when(accountRepository.findRoleIdsByEmail("admin@test.com")).thenReturn(roleIds);
+        when(authorityGraph.hasPermission(roleIds, AuthorityResolver.ADMIN_FULL_ACCESS)).thenReturn(true);
+
+        assertThat(resolver.isAdmin("admin@test.com")).isTrue();
+        SecurityContextHolder.clearContext();
+        assertThat(resolver.isAdmin("admin@test.com")).isTrue();
+
+        verify(accountRepository, times(1)).findRoleIdsByEmail("admin@test.com");
+        assertThat(resolver.isAdmin(null)).isFalse();
+    }
+}
@@ -0,0 +1,80 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.entity.Account;
+import com.namdang.memos.enumType.ProjectRole;
+import com.namdang.memos.repository.AccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorizationContextTest {
+
+    @Mock AccountRepository accountRepository;
+    @Mock MembershipCache membershipCache;
+
+    @InjectMocks AuthorizationContext authorizationContext;
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @Test
+    void currentAccount_insideRequest_loadsOnce() {
+        startRequest();
+        Account acc = new Account();
+        acc.setEmail("member@test.com");
+        when(accountRepository.findByEmail("member@test.com")).thenReturn(Optional.of(acc));
+
+        assertThat(authorizationContext.currentAccount("member@test.com")).containsSame(acc);
+        assertThat(authorizationContext.currentAccount("member@test.com")).containsSame(acc);
+
+        verify(accountRepository, times(1)).findByEmail("member@test.com");
+    }
+
+    @Test
+    void currentAccount_outsideRequest_goesToDbEveryTime() {
+        when(accountRepository.findByEmail("member@test.com")).thenReturn(Optional.empty());
+
+        authorizationContext.currentAccount("member@test.com");
+        authorizationContext.currentAccount("member@test.com");
+
+        verify(accountRepository, times(2)).findByEmail("member@test.com");
+    }
+
+    @Test
+    void projectRole_insideRequest_cachesMembershipAndMiss() {
+        startRequest();
+        UUID projectId = UUID.randomUUID();
+        UUID otherProjectId = UUID.randomUUID();
+        UUID accountId = UUID.randomUUID();
+
+        when(membershipCache.projectRole(projectId, accountId)).thenReturn(Optional.of(ProjectRole.OWNER));
+        when(membershipCache.projectRole(otherProjectId, accountId)).thenReturn(Optional.empty());
+
+        assertThat(authorizationContext.projectRole(projectId, accountId)).contains(ProjectRole.OWNER);
+        assertThat(authorizationContext.projectRole(projectId, accountId)).contains(ProjectRole.OWNER);
+        assertThat(authorizationContext.projectRole(otherProjectId, accountId)).isEmpty();
+        assertThat(authorizationContext.projectRole(otherProjectId, accountId)).isEmpty();
+
+        verify(membershipCache, times(1)).projectRole(projectId, accountId);
+        verify(membershipCache, times(1)).projectRole(otherProjectId, accountId);
+    }
+}
@@ -0,0 +1,104 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.entity.ProjectMember;
+import com.namdang.memos.enumType.ProjectRole;
+import com.namdang.memos.event.ProjectMembershipChangedEvent;
+import com.namdang.memos.repository.ProjectMemberRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class MembershipCacheTest {
+
+    private final ProjectMemberRepository projectMemberRepository = mock(ProjectMemberRepository.class);
+    private final LocalMembershipInvalidationBus bus = new LocalMembershipInvalidationBus();
+    private final UUID projectId = UUID.randomUUID();
+    private final UUID accountId = UUID.randomUUID();
+
+    private MembershipCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MembershipCache(projectMemberRepository, bus, new SimpleMeterRegistry(), 100, 600);
+        ProjectMember member = new ProjectMember();
+        member.setRole(ProjectRole.MEMBER);
+        when(projectMemberRepository.findByProjectIdAndAccountId(projectId, accountId)).thenReturn(Optional.of(member));
+    }
+
+    @Test
+    void projectRole_loadsOnce_acrossCalls() {
+        assertThat(cache.projectRole(projectId, accountId)).contains(ProjectRole.MEMBER);
+        assertThat(cache.projectRole(projectId, accountId)).contains(ProjectRole.MEMBER);
+
+        verify(projectMemberRepository, times(1)).findByProjectIdAndAccountId(projectId, accountId);
+    }
+
+    @Test
+    void onMembershipChanged_evictsEntry_andPublishesToBus() {
+        ProjectMembershipChangedEvent[] received = new ProjectMembershipChangedEvent[1];
+        bus.subscribe(event -> received[0] = event);
+        cache.projectRole(projectId, accountId);
+
+        ProjectMembershipChangedEvent event = new ProjectMembershipChangedEvent(projectId, accountId);
+        cache.onMembershipChanged(event);
+        cache.projectRole(projectId, accountId);
+
+        assertThat(received[0]).isEqualTo(event);
+        verify(projectMemberRepository, times(2)).findByProjectIdAndAccountId(projectId, accountId);
+    }
+
+    @Test
+    void projectWideEvent_fromPeer_evictsEveryAccountOfProject() {
+        UUID otherAccountId = UUID.randomUUID();
+        cache.warm(cache.generation(), projectId, otherAccountId, ProjectRole.OWNER);
+        cache.projectRole(projectId, accountId);
+
+        // a peer node publishing on the bus
+        bus.publish(ProjectMembershipChangedEvent.ofProject(projectId));
+
+        when(projectMemberRepository.findByProjectIdAndAccountId(projectId, otherAccountId)).thenReturn(Optional.empty());
+        assertThat(cache.projectRole(projectId, otherAccountId)).isEmpty();
+        cache.projectRole(projectId, accountId);
+        verify(projectMemberRepository, times(2)).findByProjectIdAndAccountId(projectId, accountId);
+    }
+
+    @Test
+    void accountsEvent_evictsOnlyThoseAccounts() {
+        UUID otherAccountId = UUID.randomUUID();
+        cache.warm(cache.generation(), projectId, otherAccountId, ProjectRole.OWNER);
+        cache.projectRole(projectId, accountId);
+
+        bus.publish(ProjectMembershipChangedEvent.ofAccounts(projectId, List.of(accountId)));
+
+        assertThat(cache.projectRole(projectId, otherAccountId)).contains(ProjectRole.OWNER);
+        verify(projectMemberRepository, never()).findByProjectIdAndAccountId(projectId, otherAccountId);
+        cache.projectRole(projectId, accountId);
+        verify(projectMemberRepository, times(2)).findByProjectIdAndAccountId(projectId, accountId);
+    }
+
+    @Test
+    void warm_withRowsReadBeforeAnEviction_doesNotRestoreTheOldRole() {
+        // the listing reads OWNER, then the member is removed and the eviction runs before the warm up
+        long loadedAt = cache.generation();
+        cache.onMembershipChanged(new ProjectMembershipChangedEvent(projectId, accountId));
+        cache.warm(loadedAt, projectId, accountId, ProjectRole.OWNER);
+
+        when(projectMemberRepository.findByProjectIdAndAccountId(projectId, accountId)).thenReturn(Optional.empty());
+        assertThat(cache.projectRole(projectId, accountId)).isEmpty();
+    }
+
+    @Test
+    void warm_withoutEviction_isServedFromCache() {
+        cache.warm(cache.generation(), projectId, accountId, ProjectRole.OWNER);
+
+        assertThat(cache.projectRole(projectId, accountId)).contains(ProjectRole.OWNER);
+        verify(projectMemberRepository, never()).findByProjectIdAndAccountId(projectId, accountId);
+    }
+}
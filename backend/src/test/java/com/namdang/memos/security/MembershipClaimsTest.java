@@ -0,0 +1,102 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.entity.Account;
+import com.namdang.memos.entity.Project;
+import com.namdang.memos.entity.ProjectMember;
+import com.namdang.memos.enumType.ProjectRole;
+import com.namdang.memos.repository.ProjectMemberRepository;
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class MembershipClaimsTest {
+
+    private final ProjectMemberRepository projectMemberRepository = mock(ProjectMemberRepository.class);
+    private final MembershipVersions membershipVersions = mock(MembershipVersions.class);
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID projectId = UUID.randomUUID();
+
+    private MembershipClaims claims(boolean enabled, int maxProjects) {
+        return new MembershipClaims(projectMemberRepository, membershipVersions, enabled, maxProjects);
+    }
+
+    private Account account() {
+        Account account = new Account();
+        account.setId(accountId);
+        return account;
+    }
+
+    private ProjectMember owner() {
+        Project project = new Project();
+        project.setId(projectId);
+        ProjectMember member = new ProjectMember();
+        member.setProject(project);
+        member.setRole(ProjectRole.OWNER);
+        return member;
+    }
+
+    // issue the claims, then read them back the way CustomJwtDecoder hands them over
+    private static Jwt toJwt(JWTClaimsSet.Builder builder) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS512")
+                .subject("owner@test.com")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .claims(c -> c.putAll(builder.build().getClaims()))
+                .build();
+    }
+
+    @Test
+    void disabled_addsNothing_andReadsNothing() {
+        JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder();
+        claims(false, 50).addClaims(builder, account());
+
+        assertThat(builder.build().getClaims()).isEmpty();
+        verifyNoInteractions(projectMemberRepository, membershipVersions);
+    }
+
+    @Test
+    void currentVersion_projectRolesComeFromToken() {
+        when(membershipVersions.currentVersion(accountId)).thenReturn(3L);
+        when(projectMemberRepository.findByAccountId(accountId)).thenReturn(List.of(owner()));
+        MembershipClaims membershipClaims = claims(true, 50);
+
+        JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder();
+        membershipClaims.addClaims(builder, account());
+        Jwt jwt = toJwt(builder);
+
+        assertThat(membershipClaims.accountId(jwt)).contains(accountId);
+        assertThat(membershipClaims.projectRoles(jwt, accountId)).contains(Map.of(projectId, ProjectRole.OWNER));
+    }
+
+    @Test
+    void staleVersion_projectRolesIgnored() {
+        when(membershipVersions.currentVersion(accountId)).thenReturn(3L, 4L);
+        when(projectMemberRepository.findByAccountId(accountId)).thenReturn(List.of(owner()));
+        MembershipClaims membershipClaims = claims(true, 50);
+
+        JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder();
+        membershipClaims.addClaims(builder, account());
+
+        assertThat(membershipClaims.projectRoles(toJwt(builder), accountId)).isEmpty();
+    }
+
+    @Test
+    void tooManyProjects_onlyAccountIdIssued() {
+        when(membershipVersions.currentVersion(accountId)).thenReturn(0L);
+        when(projectMemberRepository.findByAccountId(accountId)).thenReturn(List.of(owner(), owner()));
+
+        JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder();
+        claims(true, 1).addClaims(builder, account());
+
+        assertThat(builder.build().getClaims()).containsOnlyKeys(MembershipClaims.ACCOUNT_ID);
+    }
+}
@@ -0,0 +1,34 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class MembershipVersionsTest {
+
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final MembershipVersions membershipVersions = new MembershipVersions(accountRepository);
+
+    @Test
+    void currentVersion_readsDbEveryTime_soBumpsFromOtherNodesAreSeen() {
+        UUID accountId = UUID.randomUUID();
+        // another node bumps the version between the two checks
+        when(accountRepository.findMembershipVersionById(accountId)).thenReturn(Optional.of(3L), Optional.of(4L));
+
+        assertThat(membershipVersions.currentVersion(accountId)).isEqualTo(3L);
+        assertThat(membershipVersions.currentVersion(accountId)).isEqualTo(4L);
+        verify(accountRepository, times(2)).findMembershipVersionById(accountId);
+    }
+
+    @Test
+    void currentVersion_unknownAccount_isMinusOne() {
+        when(accountRepository.findMembershipVersionById(any())).thenReturn(Optional.empty());
+
+        assertThat(membershipVersions.currentVersion(UUID.randomUUID())).isEqualTo(-1L);
+    }
+}
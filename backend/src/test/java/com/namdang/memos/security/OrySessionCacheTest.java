@@ -0,0 +1,46 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.enumType.AuthProvider;
+import com.namdang.memos.security.OrySessionCache.OryIdentity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrySessionCacheTest {
+
+    private final OrySessionCache cache = new OrySessionCache(new SimpleMeterRegistry(), 100, 30);
+
+    private static OryIdentity identity(Instant expiresAt) {
+        return new OryIdentity("ory-id", "a@test.com", AuthProvider.GOOGLE, expiresAt);
+    }
+
+    @Test
+    void put_thenGet_byCookie_andEvict() {
+        OryIdentity identity = identity(Instant.now().plusSeconds(3600));
+        cache.put("ory_kratos_session", "abc", identity);
+
+        assertThat(cache.get("ory_kratos_session", "abc")).containsSame(identity);
+        assertThat(cache.get("ory_kratos_session", "other")).isEmpty();
+
+        cache.evict("ory_kratos_session", "abc");
+        assertThat(cache.get("ory_kratos_session", "abc")).isEmpty();
+    }
+
+    @Test
+    void entry_neverOutlivesSessionExpiry() throws InterruptedException {
+        cache.put("c", "expired", identity(Instant.now().minusSeconds(1)));
+        cache.put("c", "expiring", identity(Instant.now().plusMillis(150)));
+        cache.put("c", "unknown-expiry", identity(null));
+
+        assertThat(cache.get("c", "expired")).isEmpty();
+        assertThat(cache.get("c", "expiring")).isPresent();
+
+        Thread.sleep(300);
+        assertThat(cache.get("c", "expiring")).isEmpty();
+        // ttl only
+        assertThat(cache.get("c", "unknown-expiry")).isPresent();
+    }
+}
@@ -0,0 +1,81 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.exception.AppException;
+import com.namdang.memos.exception.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class PasswordHasherTest {
+
+    @Test
+    void verify_legacyUnprefixedHash_matches_andIsUpgraded() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        PasswordHasher hasher = new PasswordHasher(encoder, new SimpleMeterRegistry(), 1, 4, Duration.ofSeconds(5));
+
+        String legacy = bcrypt.encode("secret");
+        PasswordHasher.Verification verification = hasher.verify("secret", legacy);
+        assertThat(verification.matches()).isTrue();
+        assertThat(verification.upgradedHash()).startsWith("{bcrypt}");
+        assertThat(encoder.matches("secret", verification.upgradedHash())).isTrue();
+
+        // current format --> nothing to upgrade
+        assertThat(hasher.verify("secret", verification.upgradedHash()).upgradedHash()).isNull();
+        assertThat(hasher.verify("wrong", legacy)).isEqualTo(new PasswordHasher.Verification(false, null));
+        hasher.shutdown();
+    }
+
+    @Test
+    void saturated_poolAndQueue_rejectsImmediately_withHashingBusy() throws Exception {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(encoder.encode(anyString())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+        // 1 thread + 1 queued
+        PasswordHasher hasher = new PasswordHasher(encoder, new SimpleMeterRegistry(), 1, 1, Duration.ofSeconds(5));
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.encode("b"));
+        // wait until the second task sits in the queue
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!queuedTaskPresent(hasher) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertThatThrownBy(() -> hasher.encode("c"))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.PASSWORD_HASHING_BUSY);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        hasher.shutdown();
+    }
+
+    private static boolean queuedTaskPresent(PasswordHasher hasher) {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(hasher, "executor");
+        return !executor.getQueue().isEmpty();
+    }
+}
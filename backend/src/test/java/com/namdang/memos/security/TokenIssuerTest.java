@@ -0,0 +1,64 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.dto.responses.auth.TokenPair;
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TokenIssuerTest {
+    static final String SIGNER_KEY =
+            "XT/Y//x7C1ohLLN2cUdVMLjXPDsLcWFLZvMCEJ9JC7Z8mHU83QxdJ8hYqyTZdknlVJPtujJP7IpTneFyJUDGVA==";
+
+    private final TokenIssuer tokenIssuer = new TokenIssuer(SIGNER_KEY, 3600, 86400);
+
+    @Test
+    void sign_sameOutputAsJwsObjectWithMacSigner() throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("member@test.com")
+                .issuer(TokenIssuer.ISSUER)
+                .issueTime(new Date(1_700_000_000_000L))
+                .claim("scope", "ROLE_MEMBER TASK.READ")
+                .build();
+        JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS512), new Payload(claims.toJSONObject()));
+        jwsObject.sign(new MACSigner(SIGNER_KEY));
+
+        assertThat(tokenIssuer.sign(claims)).isEqualTo(jwsObject.serialize());
+    }
+
+    @Test
+    void issuePair_verifiable_withScope_refreshMarker_andAccessOnlyClaims() throws Exception {
+        TokenPair pair = tokenIssuer.issuePair("member@test.com", "ROLE_MEMBER TASK.READ",
+                claims -> claims.claim("aid", "account-id"));
+
+        SignedJWT access = SignedJWT.parse(pair.getAccessToken());
+        SignedJWT refresh = SignedJWT.parse(pair.getRefreshToken());
+        MACVerifier verifier = new MACVerifier(SIGNER_KEY.getBytes());
+        assertThat(access.verify(verifier)).isTrue();
+        assertThat(refresh.verify(verifier)).isTrue();
+
+        JWTClaimsSet a = access.getJWTClaimsSet();
+        JWTClaimsSet r = refresh.getJWTClaimsSet();
+        assertThat(a.getSubject()).isEqualTo("member@test.com");
+        assertThat(a.getIssuer()).isEqualTo(TokenIssuer.ISSUER);
+        assertThat(a.getStringClaim("scope")).isEqualTo("ROLE_MEMBER TASK.READ");
+        assertThat(a.getStringClaim("aid")).isEqualTo("account-id");
+        assertThat(a.getClaim(TokenIssuer.TOKEN_TYPE)).isNull();
+        assertThat(a.getExpirationTime().getTime() - a.getIssueTime().getTime()).isEqualTo(3600_000L);
+
+        assertThat(r.getClaim(TokenIssuer.TOKEN_TYPE)).isEqualTo(TokenIssuer.REFRESH);
+        assertThat(r.getClaim("aid")).isNull();
+        assertThat(r.getIssueTime()).isEqualTo(a.getIssueTime());
+        assertThat(r.getJWTID()).isNotEqualTo(a.getJWTID());
+        assertThat(r.getExpirationTime().getTime()).isCloseTo(a.getIssueTime().getTime() + 86400_000L, within(1000L));
+        assertThat(pair.getAccessTtl()).isEqualTo(3600);
+        assertThat(pair.getRefreshTtl()).isEqualTo(86400);
+    }
+}
@@ -0,0 +1,99 @@
+package com.namdang.memos.security;
+
+import com.namdang.memos.repository.InvalidatedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationIndexTest {
+
+    @Mock InvalidatedTokenRepository invalidatedTokenRepository;
+
+    @InjectMocks TokenRevocationIndex tokenRevocationIndex;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenRevocationIndex, "expectedInsertions", 1000);
+        ReflectionTestUtils.setField(tokenRevocationIndex, "falsePositiveRate", 0.0001);
+        ReflectionTestUtils.setField(tokenRevocationIndex, "maxExactEntries", 1000);
+    }
+
+    @Test
+    void isRevoked_unknownJti_doesNotHitDb() {
+        when(invalidatedTokenRepository.findIdsByExpiryTimeAfter(any(Date.class))).thenReturn(List.of());
+        tokenRevocationIndex.reload();
+
+        assertThat(tokenRevocationIndex.isRevoked(UUID.randomUUID().toString())).isFalse();
+
+        verify(invalidatedTokenRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    void isRevoked_loadedFromDb_confirmsWithDb() {
+        String jti = UUID.randomUUID().toString();
+        when(invalidatedTokenRepository.findIdsByExpiryTimeAfter(any(Date.class))).thenReturn(List.of(jti));
+        when(invalidatedTokenRepository.existsById(jti)).thenReturn(true);
+        tokenRevocationIndex.reload();
+
+        assertThat(tokenRevocationIndex.isRevoked(jti)).isTrue();
+
+        verify(invalidatedTokenRepository).existsById(jti);
+    }
+
+    @Test
+    void markRevoked_outsideTransaction_isVisibleWithoutDb() {
+        when(invalidatedTokenRepository.findIdsByExpiryTimeAfter(any(Date.class))).thenReturn(List.of());
+        tokenRevocationIndex.reload();
+
+        String jti = UUID.randomUUID().toString();
+        tokenRevocationIndex.markRevoked(jti, Date.from(Instant.now().plus(1, ChronoUnit.HOURS)));
+
+        assertThat(tokenRevocationIndex.isRevoked(jti)).isTrue();
+        verify(invalidatedTokenRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    void sync_picksUpRevokesOfOtherNodes_beforeTheNextReload() {
+        when(invalidatedTokenRepository.findIdsByExpiryTimeAfter(any(Date.class))).thenReturn(List.of());
+        tokenRevocationIndex.reload();
+
+        // revoked on another node after this node's reload
+        String jti = UUID.randomUUID().toString();
+        assertThat(tokenRevocationIndex.isRevoked(jti)).isFalse();
+        when(invalidatedTokenRepository.findIdsRevokedWithin(anyLong())).thenReturn(List.of(jti));
+        when(invalidatedTokenRepository.existsById(jti)).thenReturn(true);
+
+        tokenRevocationIndex.sync();
+
+        assertThat(tokenRevocationIndex.isRevoked(jti)).isTrue();
+    }
+
+    @Test
+    void reload_dropsExpiredLocalRevokes() {
+        when(invalidatedTokenRepository.findIdsByExpiryTimeAfter(any(Date.class))).thenReturn(List.of());
+        tokenRevocationIndex.reload();
+
+        String jti = UUID.randomUUID().toString();
+        tokenRevocationIndex.markRevoked(jti, Date.from(Instant.now().minus(1, ChronoUnit.MINUTES)));
+        tokenRevocationIndex.reload();
+
+        assertThat(tokenRevocationIndex.isRevoked(jti)).isFalse();
+    }
+}
@@ -0,0 +1,48 @@
+package com.namdang.memos.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(new SimpleMeterRegistry(), 100, 60);
+
+    private static Jwt jwt(Instant exp) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS512")
+                .subject("member@test.com")
+                .issuedAt(Instant.now().minusSeconds(5))
+                .expiresAt(exp)
+                .build();
+    }
+
+    @Test
+    void put_thenGet_returnsSameJwt() {
+        Jwt jwt = jwt(Instant.now().plus(1, ChronoUnit.HOURS));
+        cache.put("a.b.c", jwt);
+
+        assertThat(cache.get("a.b.c")).isSameAs(jwt);
+        assertThat(cache.get("x.y.z")).isNull();
+    }
+
+    @Test
+    void put_expiredToken_isNotCached() {
+        cache.put("a.b.c", jwt(Instant.now().minusSeconds(1)));
+
+        assertThat(cache.get("a.b.c")).isNull();
+    }
+
+    @Test
+    void evict_removesEntry() {
+        cache.put("a.b.c", jwt(Instant.now().plus(1, ChronoUnit.HOURS)));
+        cache.evict("a.b.c");
+
+        assertThat(cache.get("a.b.c")).isNull();
+    }
+}
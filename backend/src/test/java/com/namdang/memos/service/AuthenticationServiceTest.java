@@ -5,6 +5,7 @@ import com.namdang.memos.dto.requests.auth.AuthenticationRequest;
 import com.namdang.memos.dto.responses.auth.*;
 import com.namdang.memos.entity.Account;
 import com.namdang.memos.entity.InvalidatedToken;
+import com.namdang.memos.entity.Permission;
 import com.namdang.memos.entity.Role;
 import com.namdang.memos.enumType.AuthProvider;
 import com.namdang.memos.exception.AppException;
@@ -14,6 +15,12 @@ import com.namdang.memos.mapper.auth.RegisterMapper;
 import com.namdang.memos.repository.AccountRepository;
 import com.namdang.memos.repository.InvalidatedTokenRepository;
 import com.namdang.memos.repository.RoleRepository;
+import com.namdang.memos.security.AuthorityGraph;
+import com.namdang.memos.security.MembershipClaims;
+import com.namdang.memos.security.PasswordHasher;
+import com.namdang.memos.security.TokenIssuer;
+import com.namdang.memos.security.TokenRevocationIndex;
+import com.namdang.memos.security.VerifiedTokenCache;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jwt.JWTClaimsSet;
@@ -21,7 +28,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Instant;
@@ -36,12 +42,16 @@ import static org.mockito.Mockito.*;
 @ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
 class AuthenticationServiceTest {
 
-    @Mock PasswordEncoder passwordEncoder;
+    @Mock PasswordHasher passwordHasher;
     @Mock AccountRepository accountRepository;
     @Mock InvalidatedTokenRepository invalidatedTokenRepository;
     @Mock RoleRepository roleRepository;
     @Mock RegisterMapper registerMapper;
     @Mock ProfileMapper profileMapper;
+    @Mock TokenRevocationIndex tokenRevocationIndex;
+    @Mock VerifiedTokenCache verifiedTokenCache;
+    @Mock MembershipClaims membershipClaims;
+    @Spy AuthorityGraph authorityGraph = new AuthorityGraph(mock(RoleRepository.class), mock(AccountRepository.class));
 
     @InjectMocks AuthenticationService authenticationService;
 
@@ -55,9 +65,8 @@ class AuthenticationServiceTest {
         validDuration = 3600L;
         refreshableDuration = 86400L;
 
-        ReflectionTestUtils.setField(authenticationService, "SIGNER_KEY", signerKeyBase64);
-        ReflectionTestUtils.setField(authenticationService, "VALID_DURATION", validDuration);
-        ReflectionTestUtils.setField(authenticationService, "REFRESHABLE_DURATION", refreshableDuration);
+        ReflectionTestUtils.setField(authenticationService, "tokenIssuer",
+                new TokenIssuer(signerKeyBase64, validDuration, refreshableDuration));
     }
 
     private String signedToken(String email, String jti, Date issueTime, Date expTime, boolean isRefresh) {
@@ -128,6 +137,7 @@ class AuthenticationServiceTest {
         // one second diff is valid
         assertThat(captor.getValue().getExpiryTime())
                 .isCloseTo(exp, 1000L);
+        verify(tokenRevocationIndex).markRevoked(eq(oldJti), any(Date.class));
 
     }
 
@@ -156,6 +166,9 @@ class AuthenticationServiceTest {
         List<InvalidatedToken> saved = captor.getAllValues();
         assertThat(saved).extracting(InvalidatedToken::getId)
                 .containsExactlyInAnyOrder(accessJti, refreshJti);
+        verify(tokenRevocationIndex).markRevoked(eq(accessJti), any(Date.class));
+        verify(tokenRevocationIndex).markRevoked(eq(refreshJti), any(Date.class));
+        verify(verifiedTokenCache).evict(access);
     }
 
     @Test
@@ -188,7 +201,7 @@ class AuthenticationServiceTest {
 
         when(accountRepository.existsByEmail("new@test.com")).thenReturn(false);
         when(roleRepository.findByName("MEMBER")).thenReturn(member);
-        when(passwordEncoder.encode("123")).thenReturn("hashed");
+        when(passwordHasher.encode("123")).thenReturn("hashed");
 
         when(accountRepository.save(any(Account.class))).thenAnswer(inv -> inv.getArgument(0));
 
@@ -211,6 +224,41 @@ class AuthenticationServiceTest {
         assertThat(saved.getProvider()).isEqualTo(AuthProvider.LOCAL);
     }
 
+    @Test
+    void authenticate_wrongPassword_throwsInvalidPassword() {
+        Account acc = new Account();
+        acc.setEmail("member@test.com");
+        acc.setPassword("$2a$10$hash");
+        when(accountRepository.findByEmail("member@test.com")).thenReturn(Optional.of(acc));
+        when(passwordHasher.verify("bad", "$2a$10$hash")).thenReturn(new PasswordHasher.Verification(false, null));
+
+        AuthenticationRequest req = AuthenticationRequest.builder().email("member@test.com").password("bad").build();
+
+        assertThatThrownBy(() -> authenticationService.authenticate(req))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.INVALID_PASSWORD);
+        verify(accountRepository, never()).save(any());
+    }
+
+    @Test
+    void authenticate_outdatedHash_isUpgraded_andReturnsTokenPair() {
+        Account acc = new Account();
+        acc.setEmail("member@test.com");
+        acc.setPassword("$2a$10$hash");
+        when(accountRepository.findByEmail("member@test.com")).thenReturn(Optional.of(acc));
+        when(passwordHasher.verify("123", "$2a$10$hash"))
+                .thenReturn(new PasswordHasher.Verification(true, "{argon2}new"));
+
+        AuthenticationRequest req = AuthenticationRequest.builder().email("member@test.com").password("123").build();
+
+        LoginResult result = authenticationService.authenticate(req);
+
+        assertThat(result.getTokenPair().getAccessToken()).isNotBlank();
+        assertThat(acc.getPassword()).isEqualTo("{argon2}new");
+        verify(accountRepository).save(acc);
+    }
+
     @Test
     void me_missingAuthHeader_throwsMissingAuthHeader() {
         assertThatThrownBy(() -> authenticationService.me(null))
@@ -235,7 +283,9 @@ class AuthenticationServiceTest {
 
         Role role = new Role();
         role.setName("MEMBER");
-        role.setPermissions(Collections.emptySet());
+        Permission taskRead = new Permission();
+        taskRead.setName("TASK.READ");
+        role.setPermissions(Set.of(taskRead));
 
         Account acc = new Account();
         acc.setEmail(email);
@@ -244,9 +294,6 @@ class AuthenticationServiceTest {
         when(invalidatedTokenRepository.existsById(jti)).thenReturn(false);
         when(accountRepository.findByEmail(email)).thenReturn(Optional.of(acc));
 
-        when(profileMapper.getPrimaryRole(acc)).thenReturn("MEMBER");
-        when(profileMapper.getPermissionNames(acc)).thenReturn(Set.of("TASK.READ"));
-
         MeResponse mapped = mock(MeResponse.class);
         when(profileMapper.toProfile(acc, "MEMBER", Set.of("TASK.READ"))).thenReturn(mapped);
 
@@ -274,7 +321,9 @@ class AuthenticationServiceTest {
 
         Role role = new Role();
         role.setName("MEMBER");
-        role.setPermissions(Collections.emptySet());
+        Permission taskRead = new Permission();
+        taskRead.setName("TASK.READ");
+        role.setPermissions(Set.of(taskRead));
 
         Account acc = new Account();
         acc.setEmail(email);
@@ -283,9 +332,6 @@ class AuthenticationServiceTest {
 
         when(accountRepository.findByEmail(email)).thenReturn(Optional.of(acc));
 
-        when(profileMapper.getPrimaryRole(acc)).thenReturn("MEMBER");
-        when(profileMapper.getPermissionNames(acc)).thenReturn(Set.of("TASK.READ"));
-
         MeResponse mapped = mock(MeResponse.class);
         when(profileMapper.toProfile(acc, "MEMBER", Set.of("TASK.READ"))).thenReturn(mapped);
 
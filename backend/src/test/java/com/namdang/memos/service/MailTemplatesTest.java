@@ -0,0 +1,68 @@
+package com.namdang.memos.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailTemplatesTest {
+
+    @Test
+    void compile_rendersLiteralsAndEscapedValues_inOrder() {
+        MailTemplate template = MailTemplate.compile("t", "<p>{{ NAME }} joined {{PROJECT}}</p>{{NAME}}");
+
+        StringBuilder out = new StringBuilder();
+        template.renderTo(out, Map.of("NAME", "<b>Nam & co</b>", "PROJECT", "\"Memos\""));
+
+        assertThat(out.toString()).isEqualTo(
+                "<p>&lt;b&gt;Nam &amp; co&lt;/b&gt; joined &quot;Memos&quot;</p>&lt;b&gt;Nam &amp; co&lt;/b&gt;");
+        assertThat(template.literalLength()).isEqualTo("<p> joined </p>".length());
+    }
+
+    @Test
+    void compile_missingValuesAndUnclosedBraces() {
+        MailTemplate template = MailTemplate.compile("t", "a{{X}}b{{unclosed");
+
+        StringBuilder out = new StringBuilder();
+        template.renderTo(out, Map.of());
+
+        assertThat(out.toString()).isEqualTo("ab{{unclosed");
+    }
+
+    @Test
+    void load_compilesClasspathTemplates_sameOutputAsReplaceChain() {
+        MailTemplates mailTemplates = new MailTemplates();
+        mailTemplates.load();
+
+        MailTemplate invite = mailTemplates.find("project-invite", Locale.ENGLISH).orElseThrow();
+        String html = mailTemplates.render(invite, Map.of(
+                "PROJECT_NAME", "Memos",
+                "INVITER_NAME", "owner@test.com",
+                "INVITE_LINK", "http://localhost:3000/invite?token=abc",
+                "CURRENT_YEAR", "2026"));
+
+        assertThat(html).contains("owner@test.com", "“Memos”", "href=\"http://localhost:3000/invite?token=abc\"", "© 2026");
+        assertThat(html).doesNotContain("{{");
+        // the reused builder does not leak the previous render
+        assertThat(mailTemplates.render(MailTemplate.compile("x", "{{A}}"), Map.of("A", "a"))).isEqualTo("a");
+    }
+
+    @Test
+    void find_prefersMostSpecificLocale_thenFallsBackToDefault() {
+        MailTemplates mailTemplates = new MailTemplates();
+        MailTemplate base = MailTemplate.compile("invite", "en");
+        MailTemplate vi = MailTemplate.compile("invite_vi", "vi");
+        MailTemplate viVn = MailTemplate.compile("invite_vi_VN", "vi-VN");
+        mailTemplates.register("invite", base);
+        mailTemplates.register("invite_vi", vi);
+        mailTemplates.register("invite_vi_VN", viVn);
+
+        assertThat(mailTemplates.find("invite", Locale.of("vi", "VN"))).containsSame(viVn);
+        assertThat(mailTemplates.find("invite", Locale.of("vi", "US"))).containsSame(vi);
+        assertThat(mailTemplates.find("invite", Locale.FRENCH)).containsSame(base);
+        assertThat(mailTemplates.find("invite", null)).containsSame(base);
+        assertThat(mailTemplates.find("other", Locale.ENGLISH)).isEmpty();
+    }
+}
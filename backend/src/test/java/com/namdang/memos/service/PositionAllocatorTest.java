@@ -0,0 +1,92 @@
+package com.namdang.memos.service;
+
+import com.namdang.memos.exception.AppException;
+import com.namdang.memos.exception.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PositionAllocatorTest {
+
+    private static BigDecimal pos(String value) {
+        return new BigDecimal(value);
+    }
+
+    @Test
+    void between_midpointTopBottom_andNoRoom() {
+        assertThat(PositionAllocator.between(pos("1024"), pos("2048"))).isEqualByComparingTo("1536");
+        assertThat(PositionAllocator.between(null, pos("1024"))).isEqualByComparingTo("512");
+        assertThat(PositionAllocator.between(pos("2048"), null)).isEqualByComparingTo("3072");
+        assertThat(PositionAllocator.between(null, null)).isEqualByComparingTo(PositionAllocator.STEP);
+
+        // tie, adjacent at scale 10, past NUMERIC(20, 10)
+        assertThat(PositionAllocator.between(pos("7"), pos("7"))).isNull();
+        assertThat(PositionAllocator.between(pos("1.0000000001"), pos("1.0000000002"))).isNull();
+        assertThat(PositionAllocator.between(PositionAllocator.MAX, null)).isNull();
+        assertThat(PositionAllocator.between(null, pos("-5"))).isNull();
+    }
+
+    @Test
+    void between_repeatedDragIntoSameGap_staysOrdered_untilExhaustionIsReported() {
+        BigDecimal lower = PositionAllocator.STEP;
+        BigDecimal upper = PositionAllocator.STEP.multiply(BigDecimal.valueOf(2));
+        int inserts = 0;
+        BigDecimal next;
+        while ((next = PositionAllocator.between(lower, upper)) != null) {
+            assertThat(next).isGreaterThan(lower).isLessThan(upper);
+            upper = next;
+            inserts++;
+        }
+        // ~30 drags used to collide, a STEP gap holds more and then asks for a renumber instead
+        assertThat(inserts).isGreaterThan(40);
+    }
+
+    @Test
+    void orderedList_topOfList_takesHalfTheFirstPosition_andWritesNothingElse() {
+        UUID a = UUID.randomUUID();
+        UUID top = UUID.randomUUID();
+        PositionAllocator.OrderedList list = new PositionAllocator.OrderedList(ErrorCode.FEATURE_NOT_FOUND);
+        list.add(a, pos("1024"));
+
+        assertThat(list.insertAfter(null, top)).isEqualByComparingTo("512");
+        assertThat(list.renumbered()).isEmpty();
+
+        assertThatThrownBy(() -> list.insertAfter(UUID.randomUUID(), UUID.randomUUID()))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.FEATURE_NOT_FOUND);
+    }
+
+    @Test
+    void orderedList_insertsInMemory_renumbersOnlyWhenGapIsExhausted() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        PositionAllocator.OrderedList list = new PositionAllocator.OrderedList(ErrorCode.TASK_NOT_FOUND);
+        list.add(a, pos("1024"));
+        list.add(b, pos("2048"));
+
+        assertThat(list.insertAfter(a, c)).isEqualByComparingTo("1536");
+        assertThat(list.renumbered()).isEmpty();
+
+        // keep dropping right after a until the gap runs out --> whole list renumbered once, order kept
+        UUID last = c;
+        for (int i = 0; i < 60; i++) {
+            UUID next = UUID.randomUUID();
+            list.insertAfter(a, next);
+            assertThat(list.position(next)).isGreaterThan(list.position(a)).isLessThan(list.position(last));
+            last = next;
+        }
+        assertThat(list.renumbered()).containsKeys(b, c);
+        assertThat(list.position(a)).isEqualByComparingTo(PositionAllocator.STEP);
+
+        assertThatThrownBy(() -> list.insertAfter(UUID.randomUUID(), UUID.randomUUID()))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.TASK_NOT_FOUND);
+    }
+}
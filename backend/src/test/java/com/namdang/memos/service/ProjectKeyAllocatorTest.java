@@ -0,0 +1,71 @@
+package com.namdang.memos.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProjectKeyAllocatorTest {
+
+    // behaves like project_key_seq: INCREMENT BY BLOCK_SIZE, shared by every node
+    private static JdbcTemplate sequence(AtomicLong value) {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+                .thenAnswer(inv -> value.getAndAdd(ProjectKeyAllocator.BLOCK_SIZE));
+        return jdbcTemplate;
+    }
+
+    @Test
+    void nextNumber_servesWholeBlock_beforeCallingSequenceAgain() {
+        JdbcTemplate jdbcTemplate = sequence(new AtomicLong(101));
+        ProjectKeyAllocator allocator = new ProjectKeyAllocator(jdbcTemplate);
+
+        for (int i = 0; i < ProjectKeyAllocator.BLOCK_SIZE; i++) {
+            assertThat(allocator.nextNumber()).isEqualTo(101 + i);
+        }
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(Long.class));
+
+        assertThat(allocator.nextNumber()).isEqualTo(101 + ProjectKeyAllocator.BLOCK_SIZE);
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    void nextNumber_concurrentCallsOnTwoNodes_neverDuplicate() throws Exception {
+        AtomicLong sharedSequence = new AtomicLong(1);
+        List<ProjectKeyAllocator> nodes = List.of(
+                new ProjectKeyAllocator(sequence(sharedSequence)),
+                new ProjectKeyAllocator(sequence(sharedSequence)));
+
+        int threads = 8;
+        int perThread = 500;
+        Set<Long> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                ProjectKeyAllocator node = nodes.get(t % nodes.size());
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        numbers.add(node.nextNumber());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(numbers).hasSize(threads * perThread);
+    }
+}
@@ -0,0 +1,122 @@
+package com.namdang.memos.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.namdang.memos.BaseIntegrationTest;
+import com.namdang.memos.dto.requests.auth.AuthenticationRequest;
+import com.namdang.memos.enumType.TaskActivityType;
+import com.namdang.memos.service.TaskActivityWriter.Event;
+import com.namdang.memos.service.TaskActivityWriter.Mode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TaskActivityWriterIT extends BaseIntegrationTest {
+
+    @Autowired ObjectMapper objectMapper;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired TaskActivityWriter taskActivityWriter;
+    @Autowired EntityManager entityManager;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    private record Fixture(UUID accountId, UUID projectId, UUID featureId, UUID taskId) {
+    }
+
+    private Fixture fixture(String prefix, String keyPrefix) throws Exception {
+        long now = System.currentTimeMillis();
+        String email = "it_" + prefix + "_" + now + "@test.com";
+        mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                AuthenticationRequest.builder().email(email).password("123456").build())))
+                .andExpect(status().isOk());
+        UUID accountId = jdbcTemplate.queryForObject("SELECT id FROM account WHERE email = ?", UUID.class, email);
+        UUID projectId = jdbcTemplate.queryForObject(
+                "INSERT INTO project (name, project_key, created_by) VALUES (?, ?, ?) RETURNING id",
+                UUID.class, "IT " + prefix + " " + now, keyPrefix + now, accountId);
+        UUID boardId = jdbcTemplate.queryForObject(
+                "INSERT INTO board (project_id, name) VALUES (?, 'Main') RETURNING id", UUID.class, projectId);
+        UUID featureId = jdbcTemplate.queryForObject(
+                "INSERT INTO feature (board_id, name, position) VALUES (?, 'Todo', 1) RETURNING id", UUID.class, boardId);
+        UUID taskId = jdbcTemplate.queryForObject(
+                "INSERT INTO task (project_id, feature_id, created_by, title, position) VALUES (?, ?, ?, 't', ?) RETURNING id",
+                UUID.class, projectId, featureId, accountId, BigDecimal.ONE);
+        return new Fixture(accountId, projectId, featureId, taskId);
+    }
+
+    @Test
+    void copyAndInsertPaths_writeSameRows_onlyWhenTransactionCommits() throws Exception {
+        Fixture fixture = fixture("activity", "ACT");
+        UUID accountId = fixture.accountId();
+        UUID projectId = fixture.projectId();
+        UUID featureId = fixture.featureId();
+        UUID taskId = fixture.taskId();
+
+        // tab, newline, backslash and quotes survive both COPY and INSERT
+        String payload = taskActivityWriter.payload(Map.of("title", "a\tb\nc\\d \"e\""));
+        List<Event> copied = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            copied.add(new Event(projectId, taskId, accountId, TaskActivityType.TASK_UPDATED, null, featureId, payload));
+        }
+        transactionTemplate.executeWithoutResult(status -> taskActivityWriter.append(copied));
+        transactionTemplate.executeWithoutResult(status -> taskActivityWriter.append(
+                new Event(projectId, taskId, accountId, TaskActivityType.TASK_MOVED, featureId, featureId, payload)));
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            taskActivityWriter.append(new Event(projectId, taskId, accountId, TaskActivityType.TASK_REOPENED, null, null, null));
+            throw new IllegalStateException("rollback");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM task_activity WHERE task_id = ? AND activity_type = 'TASK_UPDATED'", Long.class, taskId))
+                .isEqualTo(600L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM task_activity WHERE task_id = ? AND activity_type = 'TASK_REOPENED'", Long.class, taskId))
+                .isZero();
+        List<String> titles = jdbcTemplate.queryForList(
+                "SELECT DISTINCT payload ->> 'title' FROM task_activity WHERE task_id = ?", String.class, taskId);
+        assertThat(titles).containsExactly("a\tb\nc\\d \"e\"");
+    }
+
+    @Test
+    void async_overflowWrittenInAfterCommit_isCommittedInItsOwnTransaction() throws Exception {
+        Fixture fixture = fixture("overflow", "OVF");
+        TaskActivityWriter writer = new TaskActivityWriter(jdbcTemplate, entityManager, objectMapper,
+                transactionManager, new SimpleMeterRegistry(), Mode.ASYNC, 1, 1000, 500);
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            events.add(new Event(fixture.projectId(), fixture.taskId(), fixture.accountId(), TaskActivityType.TASK_MOVED,
+                    fixture.featureId(), fixture.featureId(), null));
+        }
+
+        // 3 events for 1 queue slot --> 2 written by the caller from afterCommit()
+        transactionTemplate.executeWithoutResult(status -> writer.append(events));
+
+        // counted on another connection: committed, not left behind in the finished transaction
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM task_activity WHERE task_id = ?", Long.class, fixture.taskId()))
+                .isEqualTo(2L);
+
+        writer.flush();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM task_activity WHERE task_id = ?", Long.class, fixture.taskId()))
+                .isEqualTo(3L);
+    }
+}
@@ -0,0 +1,158 @@
+package com.namdang.memos.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.namdang.memos.enumType.TaskActivityType;
+import com.namdang.memos.service.TaskActivityWriter.Event;
+import com.namdang.memos.service.TaskActivityWriter.Mode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TaskActivityWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TaskActivityWriter writer(Mode mode, int queueCapacity) {
+        when(jdbcTemplate.getDataSource()).thenReturn(mock(DataSource.class));
+        return new TaskActivityWriter(jdbcTemplate, entityManager, new ObjectMapper(),
+                mock(PlatformTransactionManager.class), meterRegistry, mode, queueCapacity, 1000, 500);
+    }
+
+    private static Event event(String payloadJson) {
+        return new Event(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), TaskActivityType.TASK_MOVED,
+                UUID.randomUUID(), UUID.randomUUID(), payloadJson);
+    }
+
+    private List<String> insertedStatements(int times) {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(times)).update(sql.capture(), any(PreparedStatementSetter.class));
+        return sql.getAllValues();
+    }
+
+    private static int rows(String sql) {
+        return sql.split("\\?::jsonb", -1).length - 1;
+    }
+
+    private static void complete(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (committed) {
+            synchronizations.forEach(s -> s.beforeCommit(false));
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(s -> s.afterCompletion(committed
+                ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void sync_inTransaction_buffersEveryAppend_thenOneMultiRowInsertBeforeCommit() {
+        TaskActivityWriter writer = writer(Mode.SYNC, 10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        writer.append(event(writer.payload(Map.of("position", 1536))));
+        writer.append(List.of(event(null), event(null)));
+        verifyNoInteractions(entityManager);
+        verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+
+        complete(true);
+
+        List<String> statements = insertedStatements(1);
+        assertThat(statements.get(0)).startsWith("INSERT INTO task_activity (" + TaskActivityWriter.COLUMNS + ") VALUES");
+        assertThat(rows(statements.get(0))).isEqualTo(3);
+        assertThat(meterRegistry.counter("memos.task_activity.written").count()).isEqualTo(3);
+    }
+
+    @Test
+    void async_queuesOnlyCommittedEvents_overflowWrittenByCaller_flushDrainsInOneInsert() {
+        TaskActivityWriter writer = writer(Mode.ASYNC, 2);
+
+        // rolled back --> never queued
+        TransactionSynchronizationManager.initSynchronization();
+        writer.append(event(null));
+        complete(false);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // committed, 3 events for 2 slots --> 1 written right away
+        TransactionSynchronizationManager.initSynchronization();
+        writer.append(List.of(event(null), event(null), event(null)));
+        complete(true);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(rows(insertedStatements(1).get(0))).isEqualTo(1);
+        assertThat(meterRegistry.counter("memos.task_activity.overflowed").count()).isEqualTo(1);
+
+        writer.flush();
+
+        List<String> statements = insertedStatements(2);
+        assertThat(rows(statements.get(1))).isEqualTo(2);
+        assertThat(meterRegistry.counter("memos.task_activity.written").count()).isEqualTo(3);
+    }
+
+    @Test
+    void async_transientFailure_keepsBatchForNextFlush_nonTransientFailureDropsIt() {
+        TaskActivityWriter writer = writer(Mode.ASYNC, 10);
+        writer.append(List.of(event(null), event(null)));
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenThrow(new TransientDataAccessResourceException("connection reset"))
+                .thenReturn(2)
+                .thenThrow(new DataIntegrityViolationException("task_id"));
+
+        writer.flush();
+        assertThat(meterRegistry.counter("memos.task_activity.written").count()).isZero();
+        assertThat(meterRegistry.counter("memos.task_activity.lost").count()).isZero();
+
+        writer.flush();
+        List<String> statements = insertedStatements(2);
+        assertThat(rows(statements.get(1))).isEqualTo(2);
+        assertThat(meterRegistry.counter("memos.task_activity.written").count()).isEqualTo(2);
+
+        writer.append(event(null));
+        writer.flush();
+        writer.flush();
+        insertedStatements(3);
+        assertThat(meterRegistry.counter("memos.task_activity.lost").count()).isEqualTo(1);
+    }
+
+    @Test
+    void copyRow_escapesTextFormat_andWritesNullMarker() {
+        Event event = new Event(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), TaskActivityType.TASK_UPDATED,
+                null, null, "{\"title\":\"a\\tb\\\\c\"}\tx\ny");
+        StringBuilder row = new StringBuilder();
+
+        TaskActivityWriter.appendCopyRow(row, event);
+
+        String[] columns = row.toString().split("\t", -1);
+        assertThat(columns).hasSize(7);
+        assertThat(columns[3]).isEqualTo("TASK_UPDATED");
+        assertThat(columns[4]).isEqualTo("\\N");
+        assertThat(columns[5]).isEqualTo("\\N");
+        assertThat(columns[6]).isEqualTo("{\"title\":\"a\\\\tb\\\\\\\\c\"}\\tx\\ny\n");
+    }
+}
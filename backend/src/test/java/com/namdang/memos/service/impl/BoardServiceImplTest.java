@@ -0,0 +1,45 @@
+package com.namdang.memos.service.impl;
+
+import com.namdang.memos.exception.AppException;
+import com.namdang.memos.exception.ErrorCode;
+import com.namdang.memos.repository.BoardRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BoardServiceImplTest {
+
+    @Mock BoardRepository boardRepository;
+
+    @InjectMocks BoardServiceImpl boardService;
+
+    @Test
+    void getSnapshotJson_returnsDocumentFromSingleQuery() {
+        UUID boardId = UUID.randomUUID();
+        String json = "{\"id\":\"" + boardId + "\",\"features\":[]}";
+        when(boardRepository.findSnapshotJson(boardId)).thenReturn(Optional.of(json));
+
+        assertThat(boardService.getSnapshotJson(boardId)).isSameAs(json);
+    }
+
+    @Test
+    void getSnapshotJson_missingBoard_throwsBoardNotFound() {
+        UUID boardId = UUID.randomUUID();
+        when(boardRepository.findSnapshotJson(boardId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> boardService.getSnapshotJson(boardId))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.BOARD_NOT_FOUND);
+    }
+}
@@ -1,13 +1,18 @@
 package com.namdang.memos.service.impl;
 
+import com.namdang.memos.dto.requests.invite.BulkProjectInviteRequest;
 import com.namdang.memos.dto.requests.invite.ProjectInviteRequest;
+import com.namdang.memos.dto.responses.invite.BulkInviteResponse;
+import com.namdang.memos.dto.responses.invite.BulkInviteResult;
 import com.namdang.memos.dto.responses.invite.InviteInfoResponse;
 import com.namdang.memos.dto.responses.project.ProjectMemberResponse;
 import com.namdang.memos.entity.Account;
 import com.namdang.memos.entity.Project;
 import com.namdang.memos.entity.ProjectMember;
+import com.namdang.memos.enumType.BulkInviteStatus;
 import com.namdang.memos.enumType.InviteStatus;
 import com.namdang.memos.enumType.ProjectRole;
+import com.namdang.memos.event.ProjectMembershipChangedEvent;
 import com.namdang.memos.exception.AppException;
 import com.namdang.memos.exception.ErrorCode;
 import com.namdang.memos.mapper.project.InviteMapper;
@@ -15,13 +20,19 @@ import com.namdang.memos.mapper.project.ProjectMemberMapper;
 import com.namdang.memos.repository.AccountRepository;
 import com.namdang.memos.repository.ProjectMemberRepository;
 import com.namdang.memos.repository.ProjectRepository;
-import com.namdang.memos.service.MailService;
+import com.namdang.memos.security.AuthorizationContext;
+import com.namdang.memos.service.MailOutboxService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -37,7 +48,9 @@ class InviteServiceImplTest {
     @Mock ProjectMemberRepository projectMemberRepository;
     @Mock ProjectMemberMapper projectMemberMapper;
     @Mock InviteMapper inviteMapper;
-    @Mock MailService mailService;
+    @Mock MailOutboxService mailOutboxService;
+    @Mock AuthorizationContext authorizationContext;
+    @Mock ApplicationEventPublisher eventPublisher;
 
     @InjectMocks InviteServiceImpl inviteService;
 
@@ -57,7 +70,7 @@ class InviteServiceImplTest {
                 .extracting(e -> ((AppException) e).getErrorCode())
                 .isEqualTo(ErrorCode.PROJECT_NOT_FOUND);
 
-        verifyNoInteractions(mailService, projectMemberRepository, accountRepository);
+        verifyNoInteractions(mailOutboxService, projectMemberRepository, accountRepository, authorizationContext);
     }
 
     @Test
@@ -68,14 +81,14 @@ class InviteServiceImplTest {
         project.setName("P");
 
         when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
-        when(accountRepository.findByEmail("owner@test.com")).thenReturn(Optional.empty());
+        when(authorizationContext.currentAccount("owner@test.com")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> inviteService.createInvite(req("t@test.com"), "owner@test.com", projectId))
                 .isInstanceOf(AppException.class)
                 .extracting(e -> ((AppException) e).getErrorCode())
                 .isEqualTo(ErrorCode.INVALID_EMAIL);
 
-        verifyNoInteractions(mailService);
+        verifyNoInteractions(mailOutboxService);
         verify(projectMemberRepository, never()).save(any());
     }
 
@@ -96,7 +109,7 @@ class InviteServiceImplTest {
         existing.setEmail("t@test.com");
 
         when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
-        when(accountRepository.findByEmail("owner@test.com")).thenReturn(Optional.of(owner));
+        when(authorizationContext.currentAccount("owner@test.com")).thenReturn(Optional.of(owner));
         when(accountRepository.findByEmail("t@test.com")).thenReturn(Optional.of(existing));
         when(projectMemberRepository.existsByProject_IdAndAccount_Id(projectId, existingId)).thenReturn(true);
 
@@ -106,7 +119,7 @@ class InviteServiceImplTest {
                 .isEqualTo(ErrorCode.MEMBER_ALREADY_EXISTED);
 
         verify(projectMemberRepository, never()).save(any());
-        verifyNoInteractions(mailService);
+        verifyNoInteractions(mailOutboxService);
     }
 
     @Test
@@ -121,7 +134,7 @@ class InviteServiceImplTest {
         owner.setEmail("owner@test.com");
 
         when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
-        when(accountRepository.findByEmail("owner@test.com")).thenReturn(Optional.of(owner));
+        when(authorizationContext.currentAccount("owner@test.com")).thenReturn(Optional.of(owner));
         when(accountRepository.findByEmail("t@test.com")).thenReturn(Optional.empty());
 
         when(projectMemberRepository.existsByProject_IdAndInvitedEmailAndInvitedStatus(
@@ -134,7 +147,7 @@ class InviteServiceImplTest {
                 .isEqualTo(ErrorCode.INVITE_ALREADY_SENT);
 
         verify(projectMemberRepository, never()).save(any());
-        verifyNoInteractions(mailService);
+        verifyNoInteractions(mailOutboxService);
     }
 
     @Test
@@ -153,7 +166,7 @@ class InviteServiceImplTest {
         existing.setEmail("t@test.com");
 
         when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
-        when(accountRepository.findByEmail("owner@test.com")).thenReturn(Optional.of(owner));
+        when(authorizationContext.currentAccount("owner@test.com")).thenReturn(Optional.of(owner));
         when(accountRepository.findByEmail("t@test.com")).thenReturn(Optional.of(existing));
 
         when(projectMemberRepository.existsByProject_IdAndAccount_Id(projectId, existing.getId())).thenReturn(false);
@@ -184,7 +197,7 @@ class InviteServiceImplTest {
         assertThat(saved.getInviteExpiredAt()).isAfter(LocalDateTime.now().plusDays(6));
         assertThat(saved.getAccount()).isSameAs(existing);
 
-        verify(mailService).sendProjectInviteMail(
+        verify(mailOutboxService).enqueueProjectInvite(
                 eq("t@test.com"),
                 eq("My Project"),
                 eq("owner@test.com"),
@@ -204,7 +217,7 @@ class InviteServiceImplTest {
         owner.setEmail("owner@test.com");
 
         when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
-        when(accountRepository.findByEmail("owner@test.com")).thenReturn(Optional.of(owner));
+        when(authorizationContext.currentAccount("owner@test.com")).thenReturn(Optional.of(owner));
         when(accountRepository.findByEmail("t@test.com")).thenReturn(Optional.empty());
 
         when(projectMemberRepository.existsByProject_IdAndInvitedEmailAndInvitedStatus(
@@ -222,7 +235,7 @@ class InviteServiceImplTest {
         ProjectMember saved = captor.getValue();
         assertThat(saved.getAccount()).isNull();
 
-        verify(mailService).sendProjectInviteMail(
+        verify(mailOutboxService).enqueueProjectInvite(
                 eq("t@test.com"),
                 eq("My Project"),
                 eq("owner@test.com"),
@@ -230,6 +243,120 @@ class InviteServiceImplTest {
         );
     }
 
+    @Test
+    void createInvites_tooManyEmails_throwsBulkInviteTooLarge() {
+        ReflectionTestUtils.setField(inviteService, "bulkMaxEmails", 2);
+        BulkProjectInviteRequest request = new BulkProjectInviteRequest(List.of("a@test.com", "b@test.com", "c@test.com"));
+
+        assertThatThrownBy(() -> inviteService.createInvites(request, "owner@test.com", UUID.randomUUID()))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.BULK_INVITE_TOO_LARGE);
+
+        verifyNoInteractions(projectRepository, accountRepository, projectMemberRepository, mailOutboxService);
+    }
+
+    @Test
+    void createInvites_mixedList_reportsPerEmail_withSetQueries_andOneBatchOfMembersAndMails() {
+        ReflectionTestUtils.setField(inviteService, "bulkMaxEmails", 500);
+        UUID projectId = UUID.randomUUID();
+        Project project = new Project();
+        project.setId(projectId);
+        project.setName("My Project");
+
+        Account owner = new Account();
+        owner.setId(UUID.randomUUID());
+        owner.setEmail("owner@test.com");
+        Account member = new Account();
+        member.setId(UUID.randomUUID());
+        member.setEmail("member@test.com");
+        Account registered = new Account();
+        registered.setId(UUID.randomUUID());
+        registered.setEmail("registered@test.com");
+
+        when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
+        when(authorizationContext.currentAccount("owner@test.com")).thenReturn(Optional.of(owner));
+        when(accountRepository.findByEmailIn(anyCollection())).thenReturn(List.of(member, registered));
+        when(projectMemberRepository.findAccountIdsInProject(eq(projectId), anyCollection()))
+                .thenReturn(List.of(member.getId()));
+        when(projectMemberRepository.findPendingInvitedEmails(eq(projectId), anyCollection()))
+                .thenReturn(List.of("pending@test.com"));
+        when(projectMemberMapper.mapToProjectMemberResponse(any(ProjectMember.class)))
+                .thenAnswer(inv -> ProjectMemberResponse.builder()
+                        .accountEmail(((ProjectMember) inv.getArgument(0)).getInvitedEmail())
+                        .build());
+
+        BulkProjectInviteRequest request = new BulkProjectInviteRequest(List.of(
+                " new@test.com ", "member@test.com", "not-an-email", "pending@test.com",
+                "registered@test.com", "NEW@test.com"));
+
+        BulkInviteResponse res = inviteService.createInvites(request, "owner@test.com", projectId);
+
+        assertThat(res.getInvitedCount()).isEqualTo(2);
+        assertThat(res.getResults()).extracting(BulkInviteResult::getEmail, BulkInviteResult::getStatus)
+                .containsExactly(
+                        tuple("new@test.com", BulkInviteStatus.INVITED),
+                        tuple("member@test.com", BulkInviteStatus.ALREADY_MEMBER),
+                        tuple("not-an-email", BulkInviteStatus.INVALID_EMAIL),
+                        tuple("pending@test.com", BulkInviteStatus.ALREADY_INVITED),
+                        tuple("registered@test.com", BulkInviteStatus.INVITED),
+                        tuple("NEW@test.com", BulkInviteStatus.DUPLICATE));
+        assertThat(res.getResults().get(4).getMember().getAccountEmail()).isEqualTo("registered@test.com");
+        assertThat(res.getResults().get(1).getMember()).isNull();
+
+        // one lookup per kind of check, for all emails at once
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> lookedUp = ArgumentCaptor.forClass(Collection.class);
+        verify(accountRepository).findByEmailIn(lookedUp.capture());
+        assertThat(lookedUp.getValue()).containsExactlyInAnyOrder(
+                "new@test.com", "member@test.com", "pending@test.com", "registered@test.com");
+        verify(accountRepository, never()).findByEmail(anyString());
+        verify(projectMemberRepository, never()).existsByProject_IdAndAccount_Id(any(), any());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ProjectMember>> saved = ArgumentCaptor.forClass(List.class);
+        verify(projectMemberRepository).saveAll(saved.capture());
+        verify(projectMemberRepository, never()).save(any());
+        assertThat(saved.getValue()).extracting(ProjectMember::getInvitedEmail)
+                .containsExactly("new@test.com", "registered@test.com");
+        assertThat(saved.getValue()).allSatisfy(m -> {
+            assertThat(m.getProject()).isSameAs(project);
+            assertThat(m.getInvitedStatus()).isEqualTo(InviteStatus.PENDING);
+            assertThat(m.getInviteToken()).isNotBlank();
+        });
+        assertThat(saved.getValue().get(0).getAccount()).isNull();
+        assertThat(saved.getValue().get(1).getAccount()).isSameAs(registered);
+
+        verify(mailOutboxService).enqueueProjectInvites("My Project", "owner@test.com", Map.of(
+                "new@test.com", saved.getValue().get(0).getInviteToken(),
+                "registered@test.com", saved.getValue().get(1).getInviteToken()));
+        verify(mailOutboxService, never()).enqueueProjectInvite(any(), any(), any(), any());
+        // only the invited registered account, not every member of the project
+        verify(eventPublisher).publishEvent(ProjectMembershipChangedEvent.ofAccounts(projectId, List.of(registered.getId())));
+        verify(eventPublisher, never()).publishEvent(ProjectMembershipChangedEvent.ofProject(projectId));
+    }
+
+    @Test
+    void createInvites_nothingToInvite_skipsInsertAndMail() {
+        ReflectionTestUtils.setField(inviteService, "bulkMaxEmails", 500);
+        UUID projectId = UUID.randomUUID();
+        Project project = new Project();
+        project.setId(projectId);
+        Account owner = new Account();
+        owner.setEmail("owner@test.com");
+
+        when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
+        when(authorizationContext.currentAccount("owner@test.com")).thenReturn(Optional.of(owner));
+
+        BulkInviteResponse res = inviteService.createInvites(
+                new BulkProjectInviteRequest(List.of("bad", "")), "owner@test.com", projectId);
+
+        assertThat(res.getInvitedCount()).isZero();
+        assertThat(res.getResults()).extracting(BulkInviteResult::getStatus)
+                .containsOnly(BulkInviteStatus.INVALID_EMAIL);
+        verifyNoInteractions(accountRepository, projectMemberRepository, mailOutboxService, eventPublisher);
+    }
+
     @Test
     void getInviteInfo_notFound_throwsInviteNotFound() {
         when(projectMemberRepository.findByInviteToken("t")).thenReturn(Optional.empty());
@@ -352,7 +479,11 @@ class InviteServiceImplTest {
         acc.setId(UUID.randomUUID());
         acc.setEmail("u@test.com");
 
+        Project project = new Project();
+        project.setId(UUID.randomUUID());
+
         ProjectMember pm = new ProjectMember();
+        pm.setProject(project);
         pm.setInvitedEmail("u@test.com");
         pm.setInvitedStatus(InviteStatus.PENDING);
         pm.setInviteToken("token");
@@ -371,6 +502,7 @@ class InviteServiceImplTest {
         assertThat(pm.getJoinedAt()).isNotNull();
         assertThat(pm.getInvitedStatus()).isEqualTo(InviteStatus.ACCEPTED);
         assertThat(pm.getInviteToken()).isNull();
+        verify(eventPublisher).publishEvent(new ProjectMembershipChangedEvent(project.getId(), acc.getId()));
     }
 
     @Test
@@ -12,14 +12,23 @@ import com.namdang.memos.exception.AppException;
 import com.namdang.memos.exception.ErrorCode;
 import com.namdang.memos.repository.AccountRepository;
 import com.namdang.memos.repository.RoleRepository;
+import com.namdang.memos.security.AuthorityGraph;
+import com.namdang.memos.security.OrySessionCache;
 import com.namdang.memos.service.AuthenticationService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Instant;
+import java.time.OffsetDateTime;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
@@ -34,6 +43,8 @@ class OryAuthServiceImplTest {
     @Mock AccountRepository accountRepository;
     @Mock RoleRepository roleRepository;
     @Mock AuthenticationService authenticationService;
+    @Mock OrySessionCache orySessionCache;
+    @Spy AuthorityGraph authorityGraph = new AuthorityGraph(mock(RoleRepository.class), mock(AccountRepository.class));
 
     @InjectMocks OryAuthServiceImpl oryAuthService;
 
@@ -82,6 +93,76 @@ class OryAuthServiceImplTest {
                 .build();
     }
 
+    @Test
+    void callWhoAmI_oryTimesOut_throwsOryUnavailable() {
+        when(oryConfig.getPublicUrl()).thenReturn("http://ory:4433");
+        when(restTemplate.exchange(eq("http://ory:4433/sessions/whoami"), eq(HttpMethod.GET), any(HttpEntity.class), eq(OryResponse.class)))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+
+        assertThatThrownBy(() -> oryAuthService.callWhoAmI("ory_kratos_session", "abc"))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.ORY_UNAVAILABLE);
+    }
+
+    @Test
+    void callWhoAmI_oryRejectsCookie_evictsCachedSession_andThrowsInvalidOryCookies() {
+        when(oryConfig.getPublicUrl()).thenReturn("http://ory:4433");
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(OryResponse.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized", null, null, null));
+
+        assertThatThrownBy(() -> oryAuthService.callWhoAmI("ory_kratos_session", "abc"))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.INVALID_ORY_COOKIES);
+        verify(orySessionCache).evict("ory_kratos_session", "abc");
+    }
+
+    @Test
+    void loginFromOrySession_cachedSession_skipsWhoAmI() {
+        Role member = roleWithPerms("MEMBER", "PROJECT.CREATE");
+        Account existing = new Account();
+        existing.setId(UUID.randomUUID());
+        existing.setEmail("a@test.com");
+        existing.setOryIdentityId("ory-id-1");
+        existing.setProvider(AuthProvider.GITHUB);
+        existing.setRoles(new HashSet<>(Set.of(member)));
+
+        when(orySessionCache.get("c", "v")).thenReturn(Optional.of(new OrySessionCache.OryIdentity(
+                "ory-id-1", "a@test.com", AuthProvider.GITHUB, Instant.now().plusSeconds(3600))));
+        when(accountRepository.findByOryIdentityId("ory-id-1")).thenReturn(Optional.of(existing));
+        when(authenticationService.generateTokenPair(existing)).thenReturn(tokenPair());
+
+        RegistrationResult result = oryAuthService.loginFromOrySession("c", "v");
+
+        assertThat(result.getTokenPair().getAccessToken()).isEqualTo("access.xxx");
+        verifyNoInteractions(restTemplate, oryConfig);
+        verify(accountRepository, never()).save(any());
+    }
+
+    @Test
+    void loginFromOrySession_cacheMiss_callsWhoAmIOnce_andCachesIdentityUntilSessionExpiry() {
+        OryResponse s = session("ory-id-1", "a@test.com", true, "google");
+        OffsetDateTime expiresAt = OffsetDateTime.now().plusHours(1);
+        s.setExpiresAt(expiresAt);
+        OryAuthServiceImpl spy = Mockito.spy(oryAuthService);
+        doReturn(ResponseEntity.ok(s)).when(spy).callWhoAmI("c", "v");
+
+        Account existing = new Account();
+        existing.setOryIdentityId("ory-id-1");
+        existing.setEmail("a@test.com");
+        existing.setProvider(AuthProvider.GOOGLE);
+        existing.setRoles(new HashSet<>(Set.of(roleWithPerms("MEMBER"))));
+        when(accountRepository.findByOryIdentityId("ory-id-1")).thenReturn(Optional.of(existing));
+        when(authenticationService.generateTokenPair(existing)).thenReturn(tokenPair());
+
+        spy.loginFromOrySession("c", "v");
+
+        verify(spy, times(1)).callWhoAmI("c", "v");
+        verify(orySessionCache).put("c", "v", new OrySessionCache.OryIdentity(
+                "ory-id-1", "a@test.com", AuthProvider.GOOGLE, expiresAt.toInstant()));
+    }
+
     @Test
     void loginFromOrySession_missingCookie_throwsMissingOryCookies() {
         assertThatThrownBy(() -> oryAuthService.loginFromOrySession(null, "v"))
@@ -119,6 +200,8 @@ class OryAuthServiceImplTest {
                 .extracting(e -> ((AppException) e).getErrorCode())
                 .isEqualTo(ErrorCode.INVALID_ORY_COOKIES);
 
+        verify(orySessionCache, times(2)).evict("c", "v");
+        verify(orySessionCache, never()).put(any(), any(), any());
         verifyNoInteractions(accountRepository, roleRepository, authenticationService);
     }
 
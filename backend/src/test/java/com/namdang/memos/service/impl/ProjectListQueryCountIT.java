@@ -0,0 +1,117 @@
+package com.namdang.memos.service.impl;
+
+import com.namdang.memos.BaseIntegrationTest;
+import com.namdang.memos.dto.responses.project.CreateProjectResponse;
+import com.namdang.memos.dto.responses.project.ProjectPageResponse;
+import com.namdang.memos.entity.Account;
+import com.namdang.memos.entity.Project;
+import com.namdang.memos.entity.ProjectMember;
+import com.namdang.memos.enumType.InviteStatus;
+import com.namdang.memos.enumType.ProjectRole;
+import com.namdang.memos.repository.AccountRepository;
+import com.namdang.memos.repository.ProjectMemberRepository;
+import com.namdang.memos.repository.ProjectRepository;
+import com.namdang.memos.service.ProjectService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// regression for the N+1 of the member project list (one lazy load of project + createdBy per membership)
+class ProjectListQueryCountIT extends BaseIntegrationTest {
+
+    @Autowired ProjectService projectService;
+    @Autowired AccountRepository accountRepository;
+    @Autowired ProjectRepository projectRepository;
+    @Autowired ProjectMemberRepository projectMemberRepository;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    private Account memberWithProjects(int projectCount) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Account account = new Account();
+        account.setEmail("count-" + suffix + "@test.com");
+        account = accountRepository.save(account);
+
+        for (int i = 0; i < projectCount; i++) {
+            Project project = new Project();
+            project.setName("Count " + i);
+            project.setProjectKey("QC" + suffix + "-" + i);
+            project.setCreatedBy(account);
+            project = projectRepository.save(project);
+
+            ProjectMember member = new ProjectMember();
+            member.setProject(project);
+            member.setAccount(account);
+            member.setRole(ProjectRole.OWNER);
+            member.setInvitedEmail(account.getEmail());
+            member.setInvitedStatus(InviteStatus.ACCEPTED);
+            member.setJoinedAt(LocalDateTime.now());
+            projectMemberRepository.save(member);
+        }
+
+        // archived project and pending invite must not show up (statementsFor() checks the exact count)
+        Project archived = new Project();
+        archived.setName("Archived");
+        archived.setProjectKey("QC" + suffix + "-A");
+        archived.setCreatedBy(account);
+        archived.setArchived(true);
+        archived = projectRepository.save(archived);
+        ProjectMember archivedMember = new ProjectMember();
+        archivedMember.setProject(archived);
+        archivedMember.setAccount(account);
+        archivedMember.setRole(ProjectRole.OWNER);
+        archivedMember.setInvitedEmail(account.getEmail());
+        archivedMember.setInvitedStatus(InviteStatus.ACCEPTED);
+        archivedMember.setJoinedAt(LocalDateTime.now());
+        projectMemberRepository.save(archivedMember);
+
+        // active project, invite to the account not accepted yet
+        Project invitedTo = new Project();
+        invitedTo.setName("Invited");
+        invitedTo.setProjectKey("QC" + suffix + "-P");
+        invitedTo.setCreatedBy(account);
+        invitedTo = projectRepository.save(invitedTo);
+        ProjectMember pendingMember = new ProjectMember();
+        pendingMember.setProject(invitedTo);
+        pendingMember.setAccount(account);
+        pendingMember.setRole(ProjectRole.MEMBER);
+        pendingMember.setInvitedEmail(account.getEmail());
+        pendingMember.setInvitedStatus(InviteStatus.PENDING);
+        pendingMember.setInviteToken(UUID.randomUUID().toString());
+        pendingMember.setInviteExpiredAt(LocalDateTime.now().plusDays(7));
+        projectMemberRepository.save(pendingMember);
+
+        return account;
+    }
+
+    private long statementsFor(String email, int expectedProjects) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        ProjectPageResponse page = projectService.getProjects(email, null, 100, null);
+
+        assertThat(page.getItems()).hasSize(expectedProjects);
+        assertThat(page.getItems()).extracting(CreateProjectResponse::getName).doesNotContain("Archived", "Invited");
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void getProjects_member_statementCountDoesNotGrowWithProjects() {
+        Account small = memberWithProjects(1);
+        Account large = memberWithProjects(25);
+
+        long smallCount = statementsFor(small.getEmail(), 1);
+        long largeCount = statementsFor(large.getEmail(), 25);
+
+        assertThat(largeCount).isEqualTo(smallCount);
+        // admin check (account + roles) + account lookup + the projection query
+        assertThat(largeCount).isLessThanOrEqualTo(4);
+    }
+}
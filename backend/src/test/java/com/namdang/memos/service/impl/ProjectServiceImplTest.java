@@ -1,25 +1,37 @@
 package com.namdang.memos.service.impl;
 
 import com.namdang.memos.dto.requests.project.CreateProjectRequest;
+import com.namdang.memos.dto.requests.project.ProjectCursor;
 import com.namdang.memos.dto.responses.project.CreateProjectResponse;
+import com.namdang.memos.dto.responses.project.ProjectPageResponse;
 import com.namdang.memos.entity.Account;
 import com.namdang.memos.entity.Project;
 import com.namdang.memos.entity.ProjectMember;
 import com.namdang.memos.enumType.InviteStatus;
 import com.namdang.memos.enumType.ProjectRole;
+import com.namdang.memos.event.ProjectMembershipChangedEvent;
 import com.namdang.memos.exception.AppException;
 import com.namdang.memos.exception.ErrorCode;
 import com.namdang.memos.mapper.project.ProjectMapper;
 import com.namdang.memos.repository.AccountRepository;
 import com.namdang.memos.repository.ProjectMemberRepository;
 import com.namdang.memos.repository.ProjectRepository;
-import com.namdang.memos.security.UserPermission;
+import com.namdang.memos.repository.projection.MemberProjectView;
+import com.namdang.memos.security.AuthorityResolver;
+import com.namdang.memos.security.AuthorizationContext;
+import com.namdang.memos.security.MembershipCache;
+import com.namdang.memos.service.ProjectKeyAllocator;
 import com.namdang.memos.validator.ProjectValidator;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
@@ -34,10 +46,20 @@ class ProjectServiceImplTest {
     @Mock AccountRepository accountRepository;
     @Mock ProjectMapper projectMapper;
     @Mock ProjectValidator projectValidator;
-    @Mock UserPermission userPermission;
+    @Mock AuthorityResolver authorityResolver;
+    @Mock AuthorizationContext authorizationContext;
+    @Mock MembershipCache membershipCache;
+    @Mock ApplicationEventPublisher eventPublisher;
+    @Mock ProjectKeyAllocator projectKeyAllocator;
 
     @InjectMocks ProjectServiceImpl projectService;
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(projectService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(projectService, "maxPageSize", 3);
+    }
+
     private static CreateProjectRequest req(String name) {
         CreateProjectRequest r = new CreateProjectRequest();
         r.setName(name);
@@ -58,7 +80,7 @@ class ProjectServiceImplTest {
                 .extracting(e -> ((AppException) e).getErrorCode())
                 .isEqualTo(ErrorCode.INVALID_PROJECT_NAME);
 
-        verifyNoInteractions(accountRepository, projectRepository, projectMemberRepository, projectMapper);
+        verifyNoInteractions(accountRepository, authorizationContext, projectRepository, projectMemberRepository, projectMapper);
         verify(projectValidator).validatorProjectName("  ");
     }
 
@@ -66,7 +88,7 @@ class ProjectServiceImplTest {
     void createProject_invalidEmail_throwsInvalidEmail() {
         CreateProjectRequest request = req("Test");
 
-        when(accountRepository.findByEmail("no@test.com")).thenReturn(Optional.empty());
+        when(authorizationContext.currentAccount("no@test.com")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> projectService.createProject(request, "no@test.com"))
                 .isInstanceOf(AppException.class)
@@ -92,10 +114,10 @@ class ProjectServiceImplTest {
         Project mapped = new Project();
         mapped.setArchived(false);
 
-        when(accountRepository.findByEmail(email)).thenReturn(Optional.of(creator));
+        when(authorizationContext.currentAccount(email)).thenReturn(Optional.of(creator));
         when(projectMapper.mapToProject(request)).thenReturn(mapped);
 
-        when(projectRepository.count()).thenReturn(0L); // nextNumber = 1
+        when(projectKeyAllocator.nextNumber()).thenReturn(1L);
 
         // return saved project (simulate JPA assigns id)
         when(projectRepository.save(any(Project.class))).thenAnswer(inv -> {
@@ -129,7 +151,7 @@ class ProjectServiceImplTest {
     }
 
     @Test
-    void createProject_generateKey_oneWord_usesFirst2Chars_andCountPlus1() {
+    void createProject_generateKey_oneWord_usesFirst2Chars_andAllocatedNumber() {
         CreateProjectRequest request = req("Test"); // -> TE
         String email = "creator@test.com";
 
@@ -139,10 +161,10 @@ class ProjectServiceImplTest {
 
         Project mapped = new Project();
 
-        when(accountRepository.findByEmail(email)).thenReturn(Optional.of(creator));
+        when(authorizationContext.currentAccount(email)).thenReturn(Optional.of(creator));
         when(projectMapper.mapToProject(request)).thenReturn(mapped);
 
-        when(projectRepository.count()).thenReturn(41L); // nextNumber = 42
+        when(projectKeyAllocator.nextNumber()).thenReturn(42L);
 
         when(projectRepository.save(any(Project.class))).thenAnswer(inv -> inv.getArgument(0));
 
@@ -197,6 +219,7 @@ class ProjectServiceImplTest {
 
         assertThat(p.isArchived()).isTrue();
         verify(projectRepository).save(p);
+        verify(eventPublisher).publishEvent(ProjectMembershipChangedEvent.ofProject(id));
     }
 
     @Test
@@ -307,69 +330,105 @@ class ProjectServiceImplTest {
         verify(projectMapper).mapToCreateProjectResponse(p);
     }
 
+    private static Project project(LocalDateTime createdAt) {
+        Project p = new Project();
+        p.setId(UUID.randomUUID());
+        p.setCreatedAt(createdAt);
+        return p;
+    }
+
     @Test
-    void getProjects_admin_returnsAllNonArchivedMapped() {
+    void getProjects_admin_firstPage_returnsPageSizeItems_andNextCursorOfLastItem() {
         String email = "admin@test.com";
+        when(authorityResolver.isAdmin(email)).thenReturn(true);
 
-        when(userPermission.isAdminByEmail(email)).thenReturn(true);
-
-        Project p1 = new Project(); p1.setArchived(false);
-        Project p2 = new Project(); p2.setArchived(false);
-
-        when(projectRepository.findByArchivedFalse()).thenReturn(List.of(p1, p2));
+        LocalDateTime now = LocalDateTime.now();
+        Project p1 = project(now);
+        Project p2 = project(now.minusMinutes(1));
+        Project p3 = project(now.minusMinutes(2));
+        // default page size 2 --> 3 rows asked to know there is a next page
+        when(projectRepository.findActivePage("%", Limit.of(3))).thenReturn(List.of(p1, p2, p3));
 
         CreateProjectResponse r1 = mock(CreateProjectResponse.class);
         CreateProjectResponse r2 = mock(CreateProjectResponse.class);
         when(projectMapper.mapToCreateProjectResponse(p1)).thenReturn(r1);
         when(projectMapper.mapToCreateProjectResponse(p2)).thenReturn(r2);
 
-        List<CreateProjectResponse> res = projectService.getProjects(email);
+        ProjectPageResponse res = projectService.getProjects(email, null, null, null);
+
+        assertThat(res.getItems()).containsExactly(r1, r2);
+        assertThat(ProjectCursor.decode(res.getNextCursor())).isEqualTo(new ProjectCursor(p2.getCreatedAt(), p2.getId()));
+        verify(projectMapper, never()).mapToCreateProjectResponse(p3);
+        verifyNoInteractions(accountRepository, authorizationContext, projectMemberRepository);
+    }
+
+    @Test
+    void getProjects_admin_afterCursor_withNamePrefix_lastPageHasNoCursor() {
+        String email = "admin@test.com";
+        when(authorityResolver.isAdmin(email)).thenReturn(true);
+
+        ProjectCursor cursor = new ProjectCursor(LocalDateTime.now(), UUID.randomUUID());
+        Project p = project(cursor.createdAt().minusMinutes(1));
+        // size is capped by max page size (3), user wildcards are escaped
+        when(projectRepository.findActivePageAfter("100\\%\\_a%", cursor.createdAt(), cursor.id(), Limit.of(4)))
+                .thenReturn(List.of(p));
+        CreateProjectResponse r = mock(CreateProjectResponse.class);
+        when(projectMapper.mapToCreateProjectResponse(p)).thenReturn(r);
+
+        ProjectPageResponse res = projectService.getProjects(email, cursor.encode(), 50, " 100%_A ");
+
+        assertThat(res.getItems()).containsExactly(r);
+        assertThat(res.getNextCursor()).isNull();
+    }
 
-        assertThat(res).containsExactly(r1, r2);
-        verifyNoInteractions(accountRepository, projectMemberRepository);
+    @Test
+    void getProjects_invalidCursor_throwsInvalidPageCursor() {
+        assertThatThrownBy(() -> projectService.getProjects("admin@test.com", "not-a-cursor", null, null))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.INVALID_PAGE_CURSOR);
+        verifyNoInteractions(projectRepository, projectMemberRepository);
     }
 
     @Test
     void getProjects_member_invalidEmail_throwsInvalidEmail() {
         String email = "member@test.com";
-        when(userPermission.isAdminByEmail(email)).thenReturn(false);
-        when(accountRepository.findByEmail(email)).thenReturn(Optional.empty());
+        when(authorityResolver.isAdmin(email)).thenReturn(false);
+        when(authorizationContext.currentAccount(email)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> projectService.getProjects(email))
+        assertThatThrownBy(() -> projectService.getProjects(email, null, null, null))
                 .isInstanceOf(AppException.class)
                 .extracting(e -> ((AppException) e).getErrorCode())
                 .isEqualTo(ErrorCode.INVALID_EMAIL);
-
-        verify(projectMemberRepository, never()).findByAccountId(any());
+        verifyNoInteractions(projectMemberRepository);
     }
 
     @Test
-    void getProjects_member_returnsNonArchivedProjectsMapped() {
+    void getProjects_member_mapsProjectionRows_andWarmsMembershipCache() {
         String email = "member@test.com";
-        when(userPermission.isAdminByEmail(email)).thenReturn(false);
+        when(authorityResolver.isAdmin(email)).thenReturn(false);
 
         Account acc = new Account();
         UUID accId = UUID.randomUUID();
         acc.setId(accId);
         acc.setEmail(email);
 
-        when(accountRepository.findByEmail(email)).thenReturn(Optional.of(acc));
+        when(authorizationContext.currentAccount(email)).thenReturn(Optional.of(acc));
+        when(membershipCache.generation()).thenReturn(7L);
 
-        Project active = new Project(); active.setArchived(false);
-        Project archived = new Project(); archived.setArchived(true);
-
-        ProjectMember m1 = new ProjectMember(); m1.setProject(active);
-        ProjectMember m2 = new ProjectMember(); m2.setProject(archived);
-
-        when(projectMemberRepository.findByAccountId(accId)).thenReturn(List.of(m1, m2));
+        // archived projects and non-accepted invites are filtered by the query itself
+        MemberProjectView row = new MemberProjectView(
+                UUID.randomUUID(), "Memos", "ME-1", null, null, accId, LocalDateTime.now(), ProjectRole.OWNER);
+        when(projectMemberRepository.findActiveProjectsOfMember(accId, "%", Limit.of(3))).thenReturn(List.of(row));
 
         CreateProjectResponse mapped = mock(CreateProjectResponse.class);
-        when(projectMapper.mapToCreateProjectResponse(active)).thenReturn(mapped);
+        when(projectMapper.mapMemberProjectToCreateProjectResponse(row)).thenReturn(mapped);
 
-        List<CreateProjectResponse> res = projectService.getProjects(email);
+        ProjectPageResponse res = projectService.getProjects(email, null, null, null);
 
-        assertThat(res).containsExactly(mapped);
-        verify(projectMapper, times(1)).mapToCreateProjectResponse(active);
-        verify(projectMapper, never()).mapToCreateProjectResponse(archived);
+        assertThat(res.getItems()).containsExactly(mapped);
+        assertThat(res.getNextCursor()).isNull();
+        verify(membershipCache).warm(7L, row.id(), accId, ProjectRole.OWNER);
+        verify(projectMemberRepository, never()).findByAccountId(any());
     }
 }
@@ -0,0 +1,128 @@
+package com.namdang.memos.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.namdang.memos.BaseIntegrationTest;
+import com.namdang.memos.dto.requests.auth.AuthenticationRequest;
+import com.namdang.memos.dto.requests.task.MoveTasksRequest;
+import com.namdang.memos.dto.requests.task.TaskMoveRequest;
+import com.namdang.memos.exception.AppException;
+import com.namdang.memos.exception.ErrorCode;
+import com.namdang.memos.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A batch renumbering a list while one of the neighbours it read is moved to another column by someone else
+// the neighbour's new position must survive, the batch gets TASK_VERSION_CONFLICT
+class TaskMoveInterleavingIT extends BaseIntegrationTest {
+
+    @Autowired ObjectMapper objectMapper;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired DataSource dataSource;
+    @Autowired TaskService taskService;
+
+    private UUID insertTask(UUID projectId, UUID featureId, UUID accountId, String title, String position, boolean archived) {
+        return jdbcTemplate.queryForObject("""
+                        INSERT INTO task (project_id, feature_id, created_by, title, position, is_archived)
+                        VALUES (?, ?, ?, ?, ?, ?) RETURNING id
+                        """,
+                UUID.class, projectId, featureId, accountId, title, new BigDecimal(position), archived);
+    }
+
+    @Test
+    void neighbourMovedOutWhileListIsRenumbered_keepsItsNewPosition_batchConflicts() throws Exception {
+        long now = System.currentTimeMillis();
+        String email = "it_interleave_" + now + "@test.com";
+        mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                AuthenticationRequest.builder().email(email).password("123456").build())))
+                .andExpect(status().isOk());
+        UUID accountId = jdbcTemplate.queryForObject("SELECT id FROM account WHERE email = ?", UUID.class, email);
+        UUID projectId = jdbcTemplate.queryForObject(
+                "INSERT INTO project (name, project_key, created_by) VALUES (?, ?, ?) RETURNING id",
+                UUID.class, "IT Interleave " + now, "ILV" + now, accountId);
+        UUID boardId = jdbcTemplate.queryForObject(
+                "INSERT INTO board (project_id, name) VALUES (?, 'Main') RETURNING id", UUID.class, projectId);
+        UUID todo = jdbcTemplate.queryForObject(
+                "INSERT INTO feature (board_id, name, position) VALUES (?, 'Todo', 1) RETURNING id", UUID.class, boardId);
+        UUID done = jdbcTemplate.queryForObject(
+                "INSERT INTO feature (board_id, name, position) VALUES (?, 'Done', 2) RETURNING id", UUID.class, boardId);
+
+        // no gap left between first and neighbour --> placing after first renumbers Todo
+        UUID first = insertTask(projectId, todo, accountId, "first", "1.0000000001", false);
+        // archived: moving it touches no WIP counter, so nothing takes the Todo feature lock on its behalf
+        UUID neighbour = insertTask(projectId, todo, accountId, "neighbour", "1.0000000002", true);
+        UUID moving = insertTask(projectId, todo, accountId, "moving", "3000", false);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Connection other = dataSource.getConnection()) {
+            other.setAutoCommit(false);
+            // someone else moves the neighbour to Done and holds the row until told to commit
+            try (PreparedStatement update = other.prepareStatement(
+                    "UPDATE task SET feature_id = ?, position = 7 WHERE id = ?")) {
+                update.setObject(1, done);
+                update.setObject(2, neighbour);
+                assertThat(update.executeUpdate()).isEqualTo(1);
+            }
+
+            // the batch reads Todo with the neighbour in it, then waits on the neighbour's row
+            Future<?> batch = executor.submit(() -> taskService.moveTasks(boardId, new MoveTasksRequest(List.of(
+                    TaskMoveRequest.builder().taskId(moving).toFeatureId(todo).previousTaskId(first).version(0L).build())),
+                    email));
+            waitForLockWait();
+            other.commit();
+
+            assertThat(catchCause(batch))
+                    .isInstanceOf(AppException.class)
+                    .extracting(e -> ((AppException) e).getErrorCode())
+                    .isEqualTo(ErrorCode.TASK_VERSION_CONFLICT);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT feature_id FROM task WHERE id = ?", UUID.class, neighbour))
+                .isEqualTo(done);
+        assertThat(jdbcTemplate.queryForObject("SELECT position FROM task WHERE id = ?", BigDecimal.class, neighbour))
+                .isEqualByComparingTo("7");
+        // whole batch rolled back
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM task WHERE id = ?", Long.class, moving)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT position FROM task WHERE id = ?", BigDecimal.class, first))
+                .isEqualByComparingTo("1.0000000001");
+    }
+
+    private void waitForLockWait() throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            Integer waiting = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM pg_stat_activity WHERE datname = current_database() AND wait_event_type = 'Lock'",
+                    Integer.class);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("The batch never waited on the neighbour's row");
+    }
+
+    private static Throwable catchCause(Future<?> future) throws Exception {
+        try {
+            future.get(30, TimeUnit.SECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+    }
+}
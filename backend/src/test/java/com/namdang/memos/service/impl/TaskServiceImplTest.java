@@ -0,0 +1,226 @@
+package com.namdang.memos.service.impl;
+
+import com.namdang.memos.dto.requests.task.MoveTasksRequest;
+import com.namdang.memos.dto.requests.task.TaskMoveRequest;
+import com.namdang.memos.dto.responses.task.TaskMoveResponse;
+import com.namdang.memos.entity.Account;
+import com.namdang.memos.enumType.TaskActivityType;
+import com.namdang.memos.exception.AppException;
+import com.namdang.memos.exception.ErrorCode;
+import com.namdang.memos.repository.TaskMoveRepository;
+import com.namdang.memos.repository.TaskMoveRepository.MovedTask;
+import com.namdang.memos.repository.TaskMoveRepository.MovingTask;
+import com.namdang.memos.repository.TaskMoveRepository.RenumberedTask;
+import com.namdang.memos.security.AuthorizationContext;
+import com.namdang.memos.service.PositionAllocator.OrderedList;
+import com.namdang.memos.service.TaskActivityWriter;
+import com.namdang.memos.service.TaskActivityWriter.Event;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskServiceImplTest {
+
+    @Mock TaskMoveRepository taskMoveRepository;
+    @Mock TaskActivityWriter taskActivityWriter;
+    @Mock AuthorizationContext authorizationContext;
+
+    @InjectMocks TaskServiceImpl taskService;
+
+    private final UUID boardId = UUID.randomUUID();
+    private final UUID projectId = UUID.randomUUID();
+    private final UUID todo = UUID.randomUUID();
+    private final UUID done = UUID.randomUUID();
+    private final UUID actorId = UUID.randomUUID();
+    private final String email = "mover@test.com";
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(taskService, "maxMoves", 3);
+    }
+
+    private void actor() {
+        Account account = new Account();
+        account.setId(actorId);
+        when(authorizationContext.currentAccount(email)).thenReturn(Optional.of(account));
+    }
+
+    private static TaskMoveRequest move(UUID taskId, UUID toFeatureId, UUID previousTaskId, long version, Boolean completed) {
+        return TaskMoveRequest.builder()
+                .taskId(taskId).toFeatureId(toFeatureId).previousTaskId(previousTaskId)
+                .version(version).completed(completed)
+                .build();
+    }
+
+    private static OrderedList list(Object... idsAndPositions) {
+        OrderedList list = new OrderedList(ErrorCode.TASK_NOT_FOUND);
+        for (int i = 0; i < idsAndPositions.length; i += 2) {
+            list.add((UUID) idsAndPositions[i], new BigDecimal((String) idsAndPositions[i + 1]));
+        }
+        return list;
+    }
+
+    @Test
+    void moveTasks_multiSelectDrag_placesInOrder_oneBatchForTasksAndOneForActivities() {
+        actor();
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID anchor = UUID.randomUUID();
+        UUID after = UUID.randomUUID();
+        when(taskMoveRepository.lockFeatures(boardId, Set.of(done, todo))).thenReturn(Set.of(done, todo));
+        when(taskMoveRepository.findMovingTasks(eq(boardId), anyCollection())).thenReturn(Map.of(
+                a, new MovingTask(a, projectId, todo, 3, null),
+                b, new MovingTask(b, projectId, todo, 7, null)));
+        when(taskMoveRepository.findOrderedLists(Set.of(done)))
+                .thenReturn(new HashMap<>(Map.of(done, list(anchor, "1024", after, "2048"))));
+        when(taskMoveRepository.updateMoved(anyList())).thenReturn(List.of());
+
+        // a right after anchor, b right after a, both completed
+        List<TaskMoveResponse> result = taskService.moveTasks(boardId, new MoveTasksRequest(List.of(
+                move(a, done, anchor, 3, true),
+                move(b, done, a, 7, true))), email);
+
+        assertThat(result).extracting(TaskMoveResponse::getTaskId).containsExactly(a, b);
+        assertThat(result.get(0).getPosition()).isEqualByComparingTo("1536");
+        assertThat(result.get(1).getPosition()).isEqualByComparingTo("1792");
+        assertThat(result).extracting(TaskMoveResponse::getVersion).containsExactly(4L, 8L);
+        assertThat(result).allSatisfy(r -> assertThat(r.getCompletedAt()).isNotNull());
+
+        ArgumentCaptor<List<MovedTask>> moved = ArgumentCaptor.forClass(List.class);
+        verify(taskMoveRepository, times(1)).updateMoved(moved.capture());
+        assertThat(moved.getValue()).extracting(MovedTask::expectedVersion).containsExactlyInAnyOrder(3L, 7L);
+        verify(taskMoveRepository).updatePositions(List.of());
+        verify(taskMoveRepository).checkWipLimits();
+
+        ArgumentCaptor<List<Event>> activities = ArgumentCaptor.forClass(List.class);
+        verify(taskActivityWriter, times(1)).append(activities.capture());
+        assertThat(activities.getValue()).extracting(Event::type).containsExactly(
+                TaskActivityType.TASK_MOVED, TaskActivityType.TASK_COMPLETED,
+                TaskActivityType.TASK_MOVED, TaskActivityType.TASK_COMPLETED);
+        assertThat(activities.getValue()).allSatisfy(activity -> {
+            assertThat(activity.fromFeatureId()).isEqualTo(todo);
+            assertThat(activity.toFeatureId()).isEqualTo(done);
+            assertThat(activity.actorId()).isEqualTo(actorId);
+        });
+    }
+
+    @Test
+    void moveTasks_exhaustedGap_writesRenumberedNeighbours_withoutBumpingTheirVersion() {
+        actor();
+        UUID moving = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(taskMoveRepository.lockFeatures(boardId, Set.of(todo))).thenReturn(Set.of(todo));
+        when(taskMoveRepository.findMovingTasks(eq(boardId), anyCollection()))
+                .thenReturn(Map.of(moving, new MovingTask(moving, projectId, todo, 0, LocalDateTime.now())));
+        when(taskMoveRepository.findOrderedLists(Set.of(todo))).thenReturn(new HashMap<>(Map.of(todo,
+                list(first, "1.0000000001", second, "1.0000000002", moving, "3000"))));
+        when(taskMoveRepository.updateMoved(anyList())).thenReturn(List.of());
+        when(taskMoveRepository.updatePositions(anyList())).thenReturn(List.of());
+
+        List<TaskMoveResponse> result = taskService.moveTasks(boardId,
+                new MoveTasksRequest(List.of(move(moving, todo, first, 0, false))), email);
+
+        assertThat(result.get(0).getPosition()).isEqualByComparingTo("1536");
+        assertThat(result.get(0).getCompletedAt()).isNull();
+        ArgumentCaptor<List<RenumberedTask>> renumbered = ArgumentCaptor.forClass(List.class);
+        verify(taskMoveRepository).updatePositions(renumbered.capture());
+        assertThat(renumbered.getValue()).extracting(RenumberedTask::id).containsExactly(first, second);
+        assertThat(renumbered.getValue()).extracting(RenumberedTask::featureId).containsOnly(todo);
+        assertThat(renumbered.getValue().get(0).position()).isEqualByComparingTo("1024");
+        assertThat(renumbered.getValue().get(1).position()).isEqualByComparingTo("2048");
+    }
+
+    @Test
+    void moveTasks_renumberedNeighbourLeftTheList_conflict() {
+        actor();
+        UUID moving = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(taskMoveRepository.lockFeatures(boardId, Set.of(todo))).thenReturn(Set.of(todo));
+        when(taskMoveRepository.findMovingTasks(eq(boardId), anyCollection()))
+                .thenReturn(Map.of(moving, new MovingTask(moving, projectId, todo, 0, null)));
+        when(taskMoveRepository.findOrderedLists(Set.of(todo))).thenReturn(new HashMap<>(Map.of(todo,
+                list(first, "1.0000000001", second, "1.0000000002", moving, "3000"))));
+        when(taskMoveRepository.updateMoved(anyList())).thenReturn(List.of());
+        when(taskMoveRepository.updatePositions(anyList())).thenReturn(List.of(second));
+
+        assertThatThrownBy(() -> taskService.moveTasks(boardId,
+                new MoveTasksRequest(List.of(move(moving, todo, first, 0, null))), email))
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.TASK_VERSION_CONFLICT);
+
+        verify(taskActivityWriter, never()).append(anyList());
+    }
+
+    @Test
+    void moveTasks_staleVersion_conflictBeforeAnythingIsWritten() {
+        actor();
+        UUID a = UUID.randomUUID();
+        when(taskMoveRepository.findMovingTasks(eq(boardId), anyCollection()))
+                .thenReturn(Map.of(a, new MovingTask(a, projectId, todo, 5, null)));
+
+        assertThatThrownBy(() -> taskService.moveTasks(boardId,
+                new MoveTasksRequest(List.of(move(a, done, null, 4, null))), email))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.TASK_VERSION_CONFLICT);
+
+        verify(taskMoveRepository, never()).lockFeatures(any(), anyCollection());
+        verify(taskMoveRepository, never()).updateMoved(anyList());
+        verify(taskActivityWriter, never()).append(anyList());
+    }
+
+    @Test
+    void moveTasks_rowChangedAfterRead_conflictFromVersionedUpdate() {
+        actor();
+        UUID a = UUID.randomUUID();
+        when(taskMoveRepository.lockFeatures(boardId, Set.of(done, todo))).thenReturn(Set.of(done, todo));
+        when(taskMoveRepository.findMovingTasks(eq(boardId), anyCollection()))
+                .thenReturn(Map.of(a, new MovingTask(a, projectId, todo, 5, null)));
+        when(taskMoveRepository.findOrderedLists(Set.of(done))).thenReturn(new HashMap<>(Map.of(done, list())));
+        when(taskMoveRepository.updateMoved(anyList())).thenReturn(List.of(a));
+
+        assertThatThrownBy(() -> taskService.moveTasks(boardId,
+                new MoveTasksRequest(List.of(move(a, done, null, 5, null))), email))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.TASK_VERSION_CONFLICT);
+
+        verify(taskActivityWriter, never()).append(anyList());
+    }
+
+    @Test
+    void moveTasks_invalidBatches_rejectedUpFront() {
+        UUID a = UUID.randomUUID();
+
+        assertThatThrownBy(() -> taskService.moveTasks(boardId, new MoveTasksRequest(List.of(
+                move(a, done, null, 0, null), move(a, todo, null, 0, null))), email))
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.INVALID_TASK_MOVE);
+
+        assertThatThrownBy(() -> taskService.moveTasks(boardId, new MoveTasksRequest(List.of(
+                move(UUID.randomUUID(), done, null, 0, null), move(UUID.randomUUID(), done, null, 0, null),
+                move(UUID.randomUUID(), done, null, 0, null), move(UUID.randomUUID(), done, null, 0, null))), email))
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.TASK_MOVE_BATCH_TOO_LARGE);
+
+        assertThat(taskService.moveTasks(boardId, new MoveTasksRequest(), email)).isEmpty();
+        verifyNoInteractions(taskMoveRepository);
+    }
+}
@@ -0,0 +1,223 @@
+package com.namdang.memos.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.namdang.memos.BaseIntegrationTest;
+import com.namdang.memos.dto.requests.auth.AuthenticationRequest;
+import com.namdang.memos.dto.requests.task.MoveTasksRequest;
+import com.namdang.memos.dto.requests.task.TaskMoveRequest;
+import com.namdang.memos.dto.responses.task.TaskMoveResponse;
+import com.namdang.memos.exception.ErrorCode;
+import com.namdang.memos.exception.SqlStateErrors;
+import com.namdang.memos.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Many threads dragging cards into one WIP limited column at the same time
+// the counter must never let more than wip_limit tasks in, and must always equal COUNT(*) afterwards
+class WipLimitConcurrencyIT extends BaseIntegrationTest {
+    static final int THREADS = 16;
+    static final int TASKS_PER_THREAD = 3;
+    static final int WIP_LIMIT = 5;
+
+    @Autowired ObjectMapper objectMapper;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired TaskService taskService;
+
+    UUID boardId;
+
+    private String register(String email) throws Exception {
+        AuthenticationRequest req = AuthenticationRequest.builder().email(email).password("123456").build();
+        mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk());
+        return email;
+    }
+
+    private UUID insertFeature(UUID boardId, String name, String position, Integer wipLimit) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO feature (board_id, name, position, wip_limit) VALUES (?, ?, ?, ?) RETURNING id",
+                UUID.class, boardId, name, new BigDecimal(position), wipLimit);
+    }
+
+    private long count(UUID featureId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM task WHERE feature_id = ? AND is_deleted = false AND is_archived = false",
+                Long.class, featureId);
+    }
+
+    private int counter(UUID featureId) {
+        return jdbcTemplate.queryForObject("SELECT active_task_count FROM feature WHERE id = ?", Integer.class, featureId);
+    }
+
+    private static boolean wipLimitExceeded(Exception e) {
+        return SqlStateErrors.errorCode(e).filter(code -> code == ErrorCode.WIP_LIMIT_EXCEEDED).isPresent();
+    }
+
+    @Test
+    void concurrentMovesIntoFullColumn_neverExceedLimit_andCountersMatchRows() throws Exception {
+        long now = System.currentTimeMillis();
+        String email = register("it_wip_" + now + "@test.com");
+        UUID accountId = jdbcTemplate.queryForObject("SELECT id FROM account WHERE email = ?", UUID.class, email);
+        UUID projectId = jdbcTemplate.queryForObject(
+                "INSERT INTO project (name, project_key, created_by) VALUES (?, ?, ?) RETURNING id",
+                UUID.class, "IT WIP " + now, "WIP" + now, accountId);
+        boardId = jdbcTemplate.queryForObject(
+                "INSERT INTO board (project_id, name) VALUES (?, 'Main') RETURNING id", UUID.class, projectId);
+        UUID todo = insertFeature(boardId, "Todo", "1", null);
+        UUID doing = insertFeature(boardId, "Doing", "2", WIP_LIMIT);
+
+        List<List<UUID>> tasksByThread = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            List<UUID> own = new ArrayList<>();
+            for (int i = 0; i < TASKS_PER_THREAD; i++) {
+                own.add(jdbcTemplate.queryForObject(
+                        "INSERT INTO task (project_id, feature_id, created_by, title, position) VALUES (?, ?, ?, ?, ?) RETURNING id",
+                        UUID.class, projectId, todo, accountId, "t" + t + "-" + i, BigDecimal.valueOf(t * 10L + i + 1)));
+            }
+            tasksByThread.add(own);
+        }
+        assertThat(counter(todo)).isEqualTo(THREADS * TASKS_PER_THREAD);
+
+        // phase 1: everybody drags into Doing at once
+        AtomicInteger moved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        Map<UUID, Long> versions = new ConcurrentHashMap<>();
+        run(tasksByThread, (task, version) -> {
+            try {
+                TaskMoveResponse response = move(task, doing, version, email);
+                moved.incrementAndGet();
+                return response.getVersion();
+            } catch (Exception e) {
+                if (!wipLimitExceeded(e)) {
+                    throw e;
+                }
+                rejected.incrementAndGet();
+                return version;
+            }
+        }, versions, 1);
+
+        assertThat(moved.get()).isEqualTo(WIP_LIMIT);
+        assertThat(rejected.get()).isEqualTo(THREADS * TASKS_PER_THREAD - WIP_LIMIT);
+        assertThat(count(doing)).isEqualTo(WIP_LIMIT);
+        assertThat(counter(doing)).isEqualTo(WIP_LIMIT);
+        assertThat(counter(todo)).isEqualTo((int) count(todo));
+
+        // phase 2: churn, every thread keeps moving its tasks back and forth between the columns
+        run(tasksByThread, (task, version) -> {
+            UUID target = ThreadLocalRandom.current().nextBoolean() ? todo : doing;
+            try {
+                return move(task, target, version, email).getVersion();
+            } catch (Exception e) {
+                if (!wipLimitExceeded(e)) {
+                    throw e;
+                }
+                return version;
+            }
+        }, versions, 20);
+
+        assertThat(count(doing)).isLessThanOrEqualTo(WIP_LIMIT);
+        assertThat(counter(todo)).as("Todo").isEqualTo((int) count(todo));
+        assertThat(counter(doing)).as("Doing").isEqualTo((int) count(doing));
+    }
+
+    @Test
+    void swapBetweenTwoFullColumns_inOneBatch_passes() throws Exception {
+        long now = System.currentTimeMillis();
+        String email = register("it_wip_swap_" + now + "@test.com");
+        UUID accountId = jdbcTemplate.queryForObject("SELECT id FROM account WHERE email = ?", UUID.class, email);
+        UUID projectId = jdbcTemplate.queryForObject(
+                "INSERT INTO project (name, project_key, created_by) VALUES (?, ?, ?) RETURNING id",
+                UUID.class, "IT WIP swap " + now, "WSW" + now, accountId);
+        boardId = jdbcTemplate.queryForObject(
+                "INSERT INTO board (project_id, name) VALUES (?, 'Main') RETURNING id", UUID.class, projectId);
+        UUID left = insertFeature(boardId, "Left", "1", 2);
+        UUID right = insertFeature(boardId, "Right", "2", 2);
+        List<UUID> inLeft = new ArrayList<>();
+        List<UUID> inRight = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            inLeft.add(jdbcTemplate.queryForObject(
+                    "INSERT INTO task (project_id, feature_id, created_by, title, position) VALUES (?, ?, ?, ?, ?) RETURNING id",
+                    UUID.class, projectId, left, accountId, "l" + i, BigDecimal.valueOf(i + 1L)));
+            inRight.add(jdbcTemplate.queryForObject(
+                    "INSERT INTO task (project_id, feature_id, created_by, title, position) VALUES (?, ?, ?, ?, ?) RETURNING id",
+                    UUID.class, projectId, right, accountId, "r" + i, BigDecimal.valueOf(i + 1L)));
+        }
+
+        // whatever the id order of the batch UPDATE, the first row written enters a full column
+        // before the other card has left it
+        for (int i = 0; i < 2; i++) {
+            UUID fromLeft = inLeft.get(i);
+            UUID fromRight = inRight.get(i);
+            long leftVersion = jdbcTemplate.queryForObject("SELECT version FROM task WHERE id = ?", Long.class, fromLeft);
+            long rightVersion = jdbcTemplate.queryForObject("SELECT version FROM task WHERE id = ?", Long.class, fromRight);
+            taskService.moveTasks(boardId, new MoveTasksRequest(List.of(
+                    TaskMoveRequest.builder().taskId(fromLeft).toFeatureId(right).version(leftVersion).build(),
+                    TaskMoveRequest.builder().taskId(fromRight).toFeatureId(left).version(rightVersion).build())), email);
+
+            assertThat(counter(left)).isEqualTo(2).isEqualTo((int) count(left));
+            assertThat(counter(right)).isEqualTo(2).isEqualTo((int) count(right));
+        }
+
+        // a batch that really ends above the limit is still rejected, and rolled back as a whole
+        UUID extra = jdbcTemplate.queryForObject(
+                "INSERT INTO task (project_id, feature_id, created_by, title, position) VALUES (?, ?, ?, 'x', 9) RETURNING id",
+                UUID.class, projectId, insertFeature(boardId, "Backlog", "3", null), accountId);
+        UUID leaving = inRight.get(0);
+        long leavingVersion = jdbcTemplate.queryForObject("SELECT version FROM task WHERE id = ?", Long.class, leaving);
+        Throwable error = catchThrowable(() -> taskService.moveTasks(boardId, new MoveTasksRequest(List.of(
+                TaskMoveRequest.builder().taskId(extra).toFeatureId(left).version(0L).build(),
+                TaskMoveRequest.builder().taskId(leaving).toFeatureId(right).version(leavingVersion).build())), email));
+        assertThat(error).isNotNull();
+        assertThat(wipLimitExceeded((Exception) error)).isTrue();
+        assertThat(counter(left)).isEqualTo(2).isEqualTo((int) count(left));
+        assertThat(counter(right)).isEqualTo(2).isEqualTo((int) count(right));
+    }
+
+    private TaskMoveResponse move(UUID task, UUID toFeature, long version, String email) {
+        return taskService.moveTasks(boardId, new MoveTasksRequest(List.of(
+                TaskMoveRequest.builder().taskId(task).toFeatureId(toFeature).version(version).build())), email).get(0);
+    }
+
+    interface Step {
+        long apply(UUID task, long version) throws Exception;
+    }
+
+    // THREADS threads released together, each one moves only its own tasks (no version conflicts between them)
+    private void run(List<List<UUID>> tasksByThread, Step step, Map<UUID, Long> versions, int rounds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (List<UUID> own : tasksByThread) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < rounds; round++) {
+                        for (UUID task : own) {
+                            versions.put(task, step.apply(task, versions.getOrDefault(task, 0L)));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,6 +1,6 @@
 import { axiosWrapper, deserialize } from '@/lib/api/axios-config';
 import { useQuery } from '@tanstack/react-query';
-import { Project } from './type';
+import { ProjectPage } from './type';
 
 export const useGetProjects = () => {
     return useQuery({
@@ -9,7 +9,7 @@ export const useGetProjects = () => {
             const response = await axiosWrapper('/projects');
             return {
                 message: response.data.message,
-                result: deserialize<Project>(response.data),
+                result: deserialize<ProjectPage>(response.data),
             };
         },
     });
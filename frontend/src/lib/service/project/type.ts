@@ -6,3 +6,9 @@ export interface Project {
     description: string;
     imageUrl: string;
 }
+
+// GET /projects returns one keyset page, nextCursor is null on the last page
+export interface ProjectPage {
+    items: Project[];
+    nextCursor: string | null;
+}